@@ -7,6 +7,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import com.google.common.collect.ImmutableList;
+
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.item.ItemStack;
@@ -22,6 +24,11 @@ public class DiscoveryContainer<T> {
 	private final IDiscoveryProvider<T> provider;
 	private final T providerObj;
 
+	//Cached results of getDiscoveredStaticAspects, only valid for the cached manager and its static aspects version
+	private final Map<AspectItem, List<Aspect>> discoveredAspectsCache = new HashMap<AspectItem, List<Aspect>>();
+	private AspectManager cachedManager;
+	private int cachedManagerVersion;
+
 	public DiscoveryContainer(IDiscoveryProvider<T> provider, T providerObj) {
 		this.provider = provider;
 		this.providerObj = providerObj;
@@ -121,6 +128,7 @@ public class DiscoveryContainer<T> {
 	 */
 	public void resetDiscovery(AspectItem item) {
 		this.discoveredStaticAspects.remove(item);
+		this.discoveredAspectsCache.remove(item);
 		this.saveContainer();
 	}
 
@@ -129,6 +137,7 @@ public class DiscoveryContainer<T> {
 	 */
 	public void resetAllDiscovery() {
 		this.discoveredStaticAspects.clear();
+		this.discoveredAspectsCache.clear();
 		this.saveContainer();
 	}
 
@@ -142,8 +151,10 @@ public class DiscoveryContainer<T> {
 		if(discoveredAspects == null) {
 			this.discoveredStaticAspects.put(item, discoveredAspects = new ArrayList<IAspectType>());
 		}
-		if(!discoveredAspects.contains(discovered))
+		if(!discoveredAspects.contains(discovered)) {
 			discoveredAspects.add(discovered);
+			this.discoveredAspectsCache.remove(item);
+		}
 		this.saveContainer();
 	}
 
@@ -191,6 +202,7 @@ public class DiscoveryContainer<T> {
 	 */
 	public DiscoveryContainer<T> updateFromNBT(NBTTagCompound nbt, boolean save) {
 		this.discoveredStaticAspects.clear();
+		this.discoveredAspectsCache.clear();
 		NBTTagList discoveryList = nbt.getTagList("discoveries", Constants.NBT.TAG_COMPOUND);
 		int discoveryEntries = discoveryList.tagCount();
 		for (int i = 0; i < discoveryEntries; i++) {
@@ -220,13 +232,15 @@ public class DiscoveryContainer<T> {
 			AspectItem otherItem = entry.getKey();
 			List<IAspectType> otherTypes = entry.getValue();
 			if (!this.discoveredStaticAspects.containsKey(otherItem)) {
-				this.discoveredStaticAspects.put(otherItem, otherTypes);
+				this.discoveredStaticAspects.put(otherItem, new ArrayList<IAspectType>(otherTypes));
+				this.discoveredAspectsCache.remove(otherItem);
 				changed = true;
 			} else {
 				List<IAspectType> aspectTypes = this.discoveredStaticAspects.get(otherItem);
 				for (IAspectType otherType : otherTypes) {
 					if (!aspectTypes.contains(otherType)) {
 						aspectTypes.add(otherType);
+						this.discoveredAspectsCache.remove(otherItem);
 						changed = true;
 					}
 				}
@@ -238,20 +252,32 @@ public class DiscoveryContainer<T> {
 	}
 
 	/**
-	 * Returns the list of all the discovered aspects of the specified item.
+	 * Returns the immutable list of all the discovered aspects of the specified item.
 	 * @param manager
 	 * @param item
 	 * @return
 	 */
 	public List<Aspect> getDiscoveredStaticAspects(AspectManager manager, AspectItem item) {
-		List<Aspect> discoveredStaticAspects = new ArrayList<Aspect>();
-		if(this.discoveredStaticAspects.containsKey(item)) {
+		if(this.cachedManager != manager || this.cachedManagerVersion != manager.getStaticAspectsVersion()) {
+			this.discoveredAspectsCache.clear();
+			this.cachedManager = manager;
+			this.cachedManagerVersion = manager.getStaticAspectsVersion();
+		}
+
+		List<Aspect> discoveredStaticAspects = this.discoveredAspectsCache.get(item);
+		if(discoveredStaticAspects == null) {
 			List<IAspectType> discoveredAspects = this.discoveredStaticAspects.get(item);
-			List<Aspect> staticAspects = manager.getStaticAspects(item);
-			for(Aspect a : staticAspects) {
-				if(discoveredAspects.contains(a.type))
-					discoveredStaticAspects.add(a);
+			if(discoveredAspects != null) {
+				ImmutableList.Builder<Aspect> builder = ImmutableList.builder();
+				for(Aspect a : manager.getStaticAspects(item)) {
+					if(discoveredAspects.contains(a.type))
+						builder.add(a);
+				}
+				discoveredStaticAspects = builder.build();
+			} else {
+				discoveredStaticAspects = ImmutableList.of();
 			}
+			this.discoveredAspectsCache.put(item, discoveredStaticAspects);
 		}
 		return discoveredStaticAspects;
 	}
@@ -33,6 +33,16 @@ public interface IEnvironmentEvent {
 	 */
 	public boolean isActiveAt(double x, double y, double z);
 
+	/**
+	 * Returns whether {@link #isActiveAt(double, double, double)} may differ from {@link #isActive()}.
+	 * If false, position queries of the registry are answered from its cached state snapshot
+	 * without calling {@link #isActiveAt(double, double, double)}
+	 * @return
+	 */
+	public default boolean isLocationDependent() {
+		return true;
+	}
+
 	/**
 	 * Resets the active state. Can be used by seasonal events to
 	 * reset to the correct and expected state
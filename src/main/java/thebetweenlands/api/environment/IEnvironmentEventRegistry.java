@@ -9,6 +9,18 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 
 public interface IEnvironmentEventRegistry {
+	/**
+	 * Listener that is notified when an environment event is activated or deactivated
+	 */
+	public static interface StateListener {
+		/**
+		 * Called when the active state of the event has changed or the event has been registered or unregistered
+		 * @param registry
+		 * @param event
+		 */
+		public void onStateChanged(IEnvironmentEventRegistry registry, IEnvironmentEvent event);
+	}
+
 	/**
 	 * Registers an environment event
 	 * @param event
@@ -60,14 +72,14 @@ public interface IEnvironmentEventRegistry {
 	public boolean isEventActiveAt(double x, double y, double z, ResourceLocation eventId);
 
 	/**
-	 * Returns a list of all registered events whose {@link IEnvironmentEvent#isActive()} == active
+	 * Returns an unmodifiable list of all registered events whose {@link IEnvironmentEvent#isActive()} == active
 	 * @param active
 	 * @return
 	 */
 	public List<IEnvironmentEvent> getEventsOfState(boolean active);
 
 	/**
-	 * Returns a list of all registered events whose {@link IEnvironmentEvent#isActiveAt(double, double, double)} == active
+	 * Returns an unmodifiable list of all registered events whose {@link IEnvironmentEvent#isActiveAt(double, double, double)} == active
 	 * @param x
 	 * @param y
 	 * @param z
@@ -76,6 +88,25 @@ public interface IEnvironmentEventRegistry {
 	 */
 	public List<IEnvironmentEvent> getEventsOfStateAt(double x, double y, double z, boolean active);
 
+	/**
+	 * Returns a number that changes whenever an event is activated, deactivated, registered or unregistered.
+	 * Can be used to invalidate caches that depend on the state of the events
+	 * @return
+	 */
+	public int getStateVersion();
+
+	/**
+	 * Adds a listener that is notified when an event is activated, deactivated, registered or unregistered
+	 * @param listener
+	 */
+	public void addStateListener(StateListener listener);
+
+	/**
+	 * Removes a state listener
+	 * @param listener
+	 */
+	public void removeStateListener(StateListener listener);
+
 	/**
 	 * Sets whether the registry is enabled. Environment events are only updated
 	 * if the registry is enabled
@@ -2,11 +2,12 @@ package thebetweenlands.api.rune.impl;
 
 import java.io.IOException;
 import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Queue;
@@ -687,8 +688,58 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 		public AspectContainer get(IAspectType type);
 	}
 
+	/**
+	 * Flattened inputs and links of all nodes, compiled once when the composition is created.
+	 * Links always point to nodes with a lower index, so the nodes are already in topological order
+	 */
+	private static final class ExecutionPlan {
+		private final int[] inputCounts;
+		private final int[] outputCounts;
+		private final boolean[][] collectionInputs;
+		private final int[][] linkNodes;
+		private final int[][] linkOutputs;
+		private final int maxInputs;
+
+		private ExecutionPlan(Blueprint blueprint, List<INode<?, RuneExecutionContext>> nodes) {
+			int numNodes = nodes.size();
+
+			this.inputCounts = new int[numNodes];
+			this.outputCounts = new int[numNodes];
+			this.collectionInputs = new boolean[numNodes][];
+			this.linkNodes = new int[numNodes][];
+			this.linkOutputs = new int[numNodes][];
+
+			int maxInputs = 0;
+
+			for(int node = 0; node < numNodes; node++) {
+				INodeConfiguration configuration = nodes.get(node).getConfiguration();
+				List<? extends IConfigurationInput> inputs = configuration.getInputs();
+
+				int numInputs = inputs.size();
+				maxInputs = Math.max(maxInputs, numInputs);
+
+				this.inputCounts[node] = numInputs;
+				this.outputCounts[node] = configuration.getOutputs().size();
+				this.collectionInputs[node] = new boolean[numInputs];
+				this.linkNodes[node] = new int[numInputs];
+				this.linkOutputs[node] = new int[numInputs];
+
+				for(int input = 0; input < numInputs; input++) {
+					this.collectionInputs[node][input] = inputs.get(input).isCollection();
+
+					INodeLink link = blueprint.getLink(node, input);
+					this.linkNodes[node][input] = link != null ? link.getNode() : -1;
+					this.linkOutputs[node][input] = link != null ? link.getOutput() : -1;
+				}
+			}
+
+			this.maxInputs = maxInputs;
+		}
+	}
+
 	private final Blueprint blueprint;
 	private final List<INode<?, RuneExecutionContext>> nodes;
+	private final ExecutionPlan plan;
 
 	private final Scheduler scheduler = new Scheduler();
 	private IAspectBuffer aspectBuffer;
@@ -696,24 +747,31 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 	private boolean running = false;
 
 	private int nextNode = 0;
-	private Queue<Branch> branches;
-	private Queue<Branch> newBranches;
-	private List<NodeIO> outputtingNodeIOs;
+	private Queue<Branch> branches = new ArrayDeque<>();
+	private Queue<Branch> newBranches = new ArrayDeque<>();
+	private final List<NodeIO> outputtingNodeIOs = new ArrayList<>();
 	private int currentNode;
 	private boolean sourceBranchAdded = false;
 	private Branch sourceBranch;
 	private float delay;
 	private RuneExecutionContext context;
-	private List<List<Object>> inputValues;
 	private int currentCombination;
 	private int combinations;
-	private int[] itemCounts;
-	private int[] divs;
 	private List<Collection<Object>> outputValues = new ArrayList<>();
-	private Object[] combination;
+
+	//Buffers sized for the node with the most inputs and reused for all nodes and runs
+	private final List<Object>[] inputValues;
+	private final List<Object>[] inputValueBuffers;
+	private final int[] itemCounts;
+	private final int[] divs;
+	private final Object[] combination;
 
 	private ISchedulerTask scheduledTask;
 
+	private int nodeBudget = 0;
+	private int nodeRuns;
+	private boolean budgetSuspended = false;
+
 	private RuneChainComposition(Blueprint blueprint) {
 		this.blueprint = blueprint;
 		this.nodes = new ArrayList<>(this.blueprint.getNodeBlueprints());
@@ -731,6 +789,22 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 				this.nodes.add(nodeBlueprint.create(i, this, configuration));
 			}
 		}
+
+		this.plan = new ExecutionPlan(blueprint, this.nodes);
+
+		this.inputValues = createListArray(this.plan.maxInputs);
+		this.inputValueBuffers = createListArray(this.plan.maxInputs);
+		for(int i = 0; i < this.plan.maxInputs; i++) {
+			this.inputValueBuffers[i] = new ArrayList<>();
+		}
+		this.itemCounts = new int[this.plan.maxInputs];
+		this.divs = new int[this.plan.maxInputs];
+		this.combination = new Object[this.plan.maxInputs];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object>[] createListArray(int size) {
+		return (List<Object>[]) new List[size];
 	}
 
 	@Override
@@ -761,19 +835,17 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 		this.context = context;
 		this.running = true;
 		this.delay = 0;
-		this.branches = new LinkedList<>();
+		this.branches.clear();
 		this.branches.add(new Branch(null)); // Add root branch
 		this.currentCombination = 0;
-		this.inputValues = null;
 		this.sourceBranchAdded = false;
 		this.currentNode = 0;
 		this.combinations = 1;
-		this.divs = null;
-		this.itemCounts = null;
 		this.outputValues = null;
-		this.combination = null;
 		this.scheduledTask = null;
-		this.newBranches = null;
+		this.newBranches.clear();
+		this.outputtingNodeIOs.clear();
+		this.budgetSuspended = false;
 
 		this.update();
 	}
@@ -787,6 +859,23 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 		this.aspectBuffer = buffer;
 	}
 
+	/**
+	 * Sets the maximum number of node executions per {@link #update()}. Once the budget
+	 * is used up the execution is suspended and continued in the next update.
+	 * @param budget - maximum number of node executions per update, or 0 for no limit
+	 */
+	public void setNodeBudget(int budget) {
+		this.nodeBudget = Math.max(0, budget);
+	}
+
+	/**
+	 * Returns the maximum number of node executions per {@link #update()}, or 0 if there is no limit
+	 * @return the maximum number of node executions per update
+	 */
+	public int getNodeBudget() {
+		return this.nodeBudget;
+	}
+
 	/**
 	 * Starts the execution of this rune chain. Requires an aspect buffer
 	 * before running, see {@link #setAspectBuffer(IAspectBuffer)}!
@@ -804,6 +893,8 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 		if(this.running) {
 			boolean resumeSuspension = false;
 
+			this.nodeRuns = 0;
+
 			if(this.delay >= 1.0F) {
 				this.delay -= 1.0F;
 
@@ -823,11 +914,16 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 				}
 			}
 
+			if(this.budgetSuspended) {
+				this.budgetSuspended = false;
+				resumeSuspension = true;
+			}
+
 			if(this.delay < 1.0F) {
 				while(this.nextNode < this.nodes.size() || resumeSuspension) {
 					if(!resumeSuspension) {
-						this.newBranches = new LinkedList<>();
-						this.outputtingNodeIOs = new ArrayList<>();
+						this.newBranches.clear();
+						this.outputtingNodeIOs.clear();
 					}
 
 					if(!resumeSuspension) {
@@ -839,56 +935,59 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 					INode<?, RuneExecutionContext> node = this.nodes.get(this.currentNode);
 					@SuppressWarnings("unchecked")
 					INodeBlueprint<INode<?, RuneExecutionContext>, RuneExecutionContext> blueprint = (INodeBlueprint<INode<?, RuneExecutionContext>, RuneExecutionContext>) node.getBlueprint();
-					INodeConfiguration configuration = node.getConfiguration();
-					List<? extends IConfigurationInput> inputs = configuration.getInputs();
+
+					int numInputs = this.plan.inputCounts[this.currentNode];
+					boolean[] collectionInputs = this.plan.collectionInputs[this.currentNode];
+					int[] linkNodes = this.plan.linkNodes[this.currentNode];
+					int[] linkOutputs = this.plan.linkOutputs[this.currentNode];
 
 					while(!this.branches.isEmpty() || resumeSuspension) {
 						if(!resumeSuspension) {
 							this.sourceBranchAdded = false;
 							this.sourceBranch = this.branches.remove();
 
-							this.inputValues = new ArrayList<>();
-
 							// Collect input values
-							for(int inputIndex = 0; inputIndex < inputs.size(); inputIndex++) {
-								//TODO Is it possible to merge the collections without having to collect all values
-								//and only get the values later on iteratively?
-								List<Object> values = new ArrayList<>();
-								INodeLink link = this.blueprint.getLink(this.currentNode, inputIndex);
-								values.addAll(this.sourceBranch.getOutputValues(link.getNode()).get(link.getOutput()));
-								this.inputValues.add(values);
+							for(int inputIndex = 0; inputIndex < numInputs; inputIndex++) {
+								Collection<Object> linkedValues = this.sourceBranch.getOutputValues(linkNodes[inputIndex]).get(linkOutputs[inputIndex]);
+
+								if(collectionInputs[inputIndex]) {
+									//Collections are passed to the node as is, so they need their own copy
+									this.inputValues[inputIndex] = new ArrayList<>(linkedValues);
+								} else {
+									List<Object> values = this.inputValueBuffers[inputIndex];
+									values.clear();
+									values.addAll(linkedValues);
+									this.inputValues[inputIndex] = values;
+								}
 							}
 
 							//Prepare input combinations
 							this.combinations = 1;
-							this.itemCounts = new int[inputs.size()];
-							this.divs = new int[inputs.size()];
-
-							for(int inputIndex = 0; inputIndex < inputs.size(); inputIndex++) {
-								IConfigurationInput input = inputs.get(inputIndex);
+							Arrays.fill(this.itemCounts, 0, numInputs, 0);
 
-								if(input.isCollection()) {
+							for(int inputIndex = 0; inputIndex < numInputs; inputIndex++) {
+								if(collectionInputs[inputIndex]) {
 									//If input is multi-input then treat collection as one value
 									this.itemCounts[inputIndex] = 1;
 								} else {
-									this.combinations *= (this.itemCounts[inputIndex] = this.inputValues.get(inputIndex).size());
+									this.combinations *= (this.itemCounts[inputIndex] = this.inputValues[inputIndex].size());
 								}
 
 								int div = 1;
 								if(inputIndex > 0) {
-									for(int divSlotIndex = inputIndex - 1; divSlotIndex < this.itemCounts.length - 1; divSlotIndex++) {
+									for(int divSlotIndex = inputIndex - 1; divSlotIndex < numInputs - 1; divSlotIndex++) {
 										div *= this.itemCounts[divSlotIndex];
 									}
 								}
 								this.divs[inputIndex] = div;
 							}
 
-							this.outputValues = new ArrayList<>();
-							for(int i = 0; i < configuration.getOutputs().size(); i++) {
+							int numOutputs = this.plan.outputCounts[this.currentNode];
+							this.outputValues = new ArrayList<>(numOutputs);
+							for(int i = 0; i < numOutputs; i++) {
 								this.outputValues.add(new ArrayList<>());
 							}
 
-							this.combination = new Object[inputs.size()];
 							this.currentCombination = 0;
 
 							this.context.inputIndexCount = this.combinations;
@@ -896,15 +995,21 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 						
 						//Execute node for each combination
 						while(this.currentCombination < this.combinations) {
+							if(this.nodeBudget > 0 && this.nodeRuns >= this.nodeBudget) {
+								// Node budget is used up, continue next update
+								this.budgetSuspended = true;
+								blueprint.suspend(node, this.context);
+								return;
+							}
+
 							this.context.inputIndex = this.currentCombination;
 
 							// Get input value combination
-							for(int inputIndex = 0; inputIndex < inputs.size(); inputIndex++) {
-								IConfigurationInput input = inputs.get(inputIndex);
-								if(input.isCollection()) {
-									this.combination[inputIndex] = this.inputValues.get(inputIndex);
+							for(int inputIndex = 0; inputIndex < numInputs; inputIndex++) {
+								if(collectionInputs[inputIndex]) {
+									this.combination[inputIndex] = this.inputValues[inputIndex];
 								} else {
-									this.combination[inputIndex] = this.inputValues.get(inputIndex).get((this.currentCombination / this.divs[inputIndex]) % this.itemCounts[inputIndex]);
+									this.combination[inputIndex] = this.inputValues[inputIndex].get((this.currentCombination / this.divs[inputIndex]) % this.itemCounts[inputIndex]);
 								}
 							}
 
@@ -913,6 +1018,8 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 
 							blueprint.run(node, this.context, nodeIO);
 
+							this.nodeRuns++;
+
 							// Increment before potentially suspending
 							this.currentCombination++;
 
@@ -927,9 +1034,8 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 									this.newBranches.add(nodeIO.branch);
 
 									// Override values at nodes that produced the input values
-									for(int inputIndex = 0; inputIndex < inputs.size(); inputIndex++) {
-										INodeLink link = this.blueprint.getLink(this.currentNode, inputIndex);
-										nodeIO.branch.addOverrideOutputValue(link.getNode(), link.getOutput(), Collections.singleton(this.combination[inputIndex]));
+									for(int inputIndex = 0; inputIndex < numInputs; inputIndex++) {
+										nodeIO.branch.addOverrideOutputValue(linkNodes[inputIndex], linkOutputs[inputIndex], Collections.singleton(this.combination[inputIndex]));
 									}
 								} else if(nodeIO.branch == this.sourceBranch && !this.sourceBranchAdded) {
 									this.newBranches.add(this.sourceBranch);
@@ -964,7 +1070,10 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 						nodeIO.branch.addOverrideOutputValues(nodeIO.node.getIndex(), nodeIO.outputValues);
 					}
 
+					// Swap queues, the source branch queue is empty and is reused for the next node
+					Queue<Branch> emptyBranches = this.branches;
 					this.branches = this.newBranches;
+					this.newBranches = emptyBranches;
 
 					// Already resumed don't try again next loop
 					resumeSuspension = false;
@@ -977,6 +1086,15 @@ public class RuneChainComposition implements INodeComposition<RuneExecutionConte
 
 	private void terminate() {
 		this.running = false;
+		this.budgetSuspended = false;
+
+		// Release references held by the reused buffers
+		this.outputtingNodeIOs.clear();
+		Arrays.fill(this.combination, null);
+		Arrays.fill(this.inputValues, null);
+		for(List<Object> values : this.inputValueBuffers) {
+			values.clear();
+		}
 
 		for(INode<?, RuneExecutionContext> node : this.nodes) {
 			@SuppressWarnings("unchecked")
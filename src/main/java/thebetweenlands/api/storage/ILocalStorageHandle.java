@@ -1,6 +1,7 @@
 package thebetweenlands.api.storage;
 
 import java.io.Closeable;
+import java.util.function.Consumer;
 
 /**
  * A temporary handle for an {@link ILocalStorage}.
@@ -10,8 +11,33 @@ import java.io.Closeable;
  * referenced anywhere else.
  */
 public interface ILocalStorageHandle extends Closeable, AutoCloseable {
+	/**
+	 * Returns the local storage. If the handle was created by
+	 * {@link ILocalStorageHandler#getOrLoadLocalStorageAsync(LocalStorageReference)} this
+	 * returns null while the handle is pending or if the local storage could not be loaded.
+	 * @return
+	 */
 	public ILocalStorage get();
-	
+
+	/**
+	 * Returns whether the local storage of this handle is still being loaded
+	 * in the background and has not arrived yet
+	 * @return
+	 */
+	public default boolean isPending() {
+		return false;
+	}
+
+	/**
+	 * Runs the callback on the main thread once the local storage has arrived or failed to load.
+	 * If the handle is not pending the callback is run immediately. Callbacks of
+	 * handles that are closed while still pending are not run.
+	 * @param callback
+	 */
+	public default void onLoaded(Consumer<ILocalStorageHandle> callback) {
+		callback.accept(this);
+	}
+
 	@Override
 	public void close(); //doesn't throw exceptions
 }
@@ -8,11 +8,14 @@ import javax.annotation.Nullable;
 
 import com.google.common.base.Predicate;
 
+import net.minecraft.entity.Entity;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
 
 public interface ILocalStorageHandler {
 	/**
@@ -63,6 +66,26 @@ public interface ILocalStorageHandler {
 	 */
 	public <T extends ILocalStorage> List<T> getLocalStorages(Class<T> type, AxisAlignedBB aabb, @Nullable Predicate<T> filter);
 
+	/**
+	 * Returns whether any loaded location guards the specified position.
+	 * Unlike querying the locations with {@link #getLocalStorages(Class, double, double, Predicate)}
+	 * this does not allocate and the guarded locations of the most recently queried chunk are cached,
+	 * so that consecutive queries in the same chunk are cheap
+	 * @param world
+	 * @param entity Entity that's checking for the guard
+	 * @param pos
+	 * @return
+	 */
+	public boolean isAnyGuarded(World world, @Nullable Entity entity, BlockPos pos);
+
+	/**
+	 * Updates the spatial index entry of the specified local storage. Must be called
+	 * whenever the linked chunks of a local storage change. Does nothing if the
+	 * local storage is not loaded
+	 * @param storage
+	 */
+	public void updateLocalStorageIndex(ILocalStorage storage);
+
 	/**
 	 * Deletes the file (or entry if in a region) of
 	 * the specified local storage
@@ -97,6 +120,18 @@ public interface ILocalStorageHandler {
 	@Nullable
 	public ILocalStorageHandle getOrLoadLocalStorage(LocalStorageReference reference);
 
+	/**
+	 * Same as {@link #getOrLoadLocalStorage(LocalStorageReference)}, but if the local storage is not yet loaded
+	 * its file or region is read and decoded on a background thread. The returned handle is then pending
+	 * until the local storage has been added on the main thread, see {@link ILocalStorageHandle#isPending()}
+	 * and {@link ILocalStorageHandle#onLoaded(java.util.function.Consumer)}.
+	 * Handle must be closed when no longer needed.
+	 * @param reference
+	 * @return
+	 */
+	@Nullable
+	public ILocalStorageHandle getOrLoadLocalStorageAsync(LocalStorageReference reference);
+
 	/**
 	 * Unloads a local storage and saves to a file if necessary
 	 * @param storage
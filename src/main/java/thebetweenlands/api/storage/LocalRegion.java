@@ -5,7 +5,8 @@ import net.minecraft.util.math.BlockPos;
 
 /**
  * One region spans over 32x32 chunks. Any {@link ILocalStorage} assigned to a region will be saved in that region file.
- * Regions stay loaded until all references are unloaded or the cache is cleared.
+ * Regions without references stay cached until they haven't been used for a while or the cache
+ * exceeds its maximum size, then they are saved and unloaded, least recently used first.
  */
 public class LocalRegion {
 	private int x, z;
@@ -62,6 +62,7 @@ import thebetweenlands.common.handler.PlayerJoinWorldHandler;
 import thebetweenlands.common.handler.PlayerPortalHandler;
 import thebetweenlands.common.handler.PlayerRespawnHandler;
 import thebetweenlands.common.handler.PlayerRuneChainHandler;
+import thebetweenlands.common.handler.ProximityTriggerHandler;
 import thebetweenlands.common.handler.PuppetHandler;
 import thebetweenlands.common.handler.WorldEventHandler;
 import thebetweenlands.common.herblore.elixir.ElixirEffectRegistry;
@@ -275,5 +276,6 @@ public class TheBetweenlands {
 		MinecraftForge.EVENT_BUS.register(EntityChiromawMatriarch.class);
 		MinecraftForge.EVENT_BUS.register(ItemAncientArmor.class);
 		MinecraftForge.EVENT_BUS.register(EntityUnmountHandler.class);
+		MinecraftForge.EVENT_BUS.register(ProximityTriggerHandler.class);
 	}
 }
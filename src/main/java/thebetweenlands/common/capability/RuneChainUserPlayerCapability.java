@@ -30,6 +30,7 @@ import thebetweenlands.api.rune.impl.RuneChainComposition;
 import thebetweenlands.common.TheBetweenlands;
 import thebetweenlands.common.capability.base.EntityCapability;
 import thebetweenlands.common.capability.item.RuneChainItemCapability;
+import thebetweenlands.common.config.BetweenlandsConfig;
 import thebetweenlands.common.lib.ModInfo;
 import thebetweenlands.common.network.clientbound.MessagePlayerRuneChainAdd;
 import thebetweenlands.common.network.clientbound.MessagePlayerRuneChainPacket;
@@ -154,6 +155,7 @@ public class RuneChainUserPlayerCapability extends EntityCapability<RuneChainUse
 	@Override
 	public int addRuneChain(IRuneChainData data) {
 		RuneChainComposition chain = RuneChainItemCapability.createBlueprint(data).create();
+		chain.setNodeBudget(BetweenlandsConfig.PERFORMANCE.runeChainNodeBudget);
 
 		int id = nextRuneChainID++;
 		RuneChainEntry entry = new RuneChainEntry(id, chain);
@@ -595,6 +595,70 @@ public class BetweenlandsConfig {
 		public int defaultRemoteResetTime = 180;
 	}
 
+	@Name("performance")
+	@LangKey(LANG_PREFIX + "performance")
+	public static final Performance PERFORMANCE = new Performance();
+
+	public static class Performance {
+		@Name("local_storage_io_threads")
+		@LangKey(LANG_PREFIX + "local_storage_io_threads")
+		@Comment("Number of threads used to compress and write local storage and region files. These writes are done separately from the vanilla chunk saving thread")
+		@RangeInt(min = 1, max = 16)
+		@RequiresMcRestart
+		public int localStorageIOThreads = 2;
+
+		@Name("local_storage_log_regions")
+		@LangKey(LANG_PREFIX + "local_storage_log_regions")
+		@Comment("If true, local storage regions are saved as append-only logs (.log) that only contain the entries that have changed, instead of rewriting the entire region file (.dat) on every save. Logs are compacted in the background. Existing regions are converted to the selected format when they are loaded")
+		@RequiresMcRestart
+		public boolean localStorageLogRegions = false;
+
+		@Name("local_storage_region_cache_size")
+		@LangKey(LANG_PREFIX + "local_storage_region_cache_size")
+		@Comment("Maximum number of unused local storage regions that are kept in memory per dimension. Regions that are still used by loaded local storages are never removed")
+		@RangeInt(min = 0)
+		public int localStorageRegionCacheSize = 32;
+
+		@Name("local_storage_region_cache_max_age")
+		@LangKey(LANG_PREFIX + "local_storage_region_cache_max_age")
+		@Comment("Time in seconds after which an unused local storage region is saved and removed from memory")
+		@RangeInt(min = 0, max = Integer.MAX_VALUE / 1000)
+		public int localStorageRegionCacheMaxAge = 300;
+
+		@Name("local_storage_region_prefetch")
+		@LangKey(LANG_PREFIX + "local_storage_region_prefetch")
+		@Comment("If true, local storage regions next to players that are close to a region border are read in the background before they are needed")
+		public boolean localStorageRegionPrefetch = true;
+
+		@Name("local_storage_async_loading")
+		@LangKey(LANG_PREFIX + "local_storage_async_loading")
+		@Comment("If true, local storages referenced by a loading chunk are read in the background instead of during the chunk load. Such local storages (e.g. locations) only become active a few ticks after the chunk has loaded")
+		public boolean localStorageAsyncLoading = false;
+
+		@Name("incremental_mob_spawning")
+		@LangKey(LANG_PREFIX + "incremental_mob_spawning")
+		@Comment("If true, the Betweenlands mob spawner keeps its entity counts and spawning chunks up to date as entities and chunks are loaded and unloaded, and spreads each spawning pass over multiple ticks")
+		@RequiresWorldRestart
+		public boolean incrementalMobSpawning = false;
+
+		@Name("mob_spawning_tick_budget")
+		@LangKey(LANG_PREFIX + "mob_spawning_tick_budget")
+		@Comment("Time in microseconds the incremental mob spawner may spend per tick. Remaining chunks are continued in the next tick")
+		@RangeInt(min = 50, max = 50000)
+		public int mobSpawningTickBudget = 1000;
+
+		@Name("rune_chain_node_budget")
+		@LangKey(LANG_PREFIX + "rune_chain_node_budget")
+		@Comment("Maximum number of rune executions per rune chain and tick. Long rune chains continue in the next tick once the budget is used up. 0 means no limit")
+		@RangeInt(min = 0)
+		public int runeChainNodeBudget = 0;
+
+		@Name("buffered_structure_generation")
+		@LangKey(LANG_PREFIX + "buffered_structure_generation")
+		@Comment("If true, cragrock towers are first generated into a block buffer and then placed chunk section by chunk section. Blocks that are overwritten during generation are only placed once, and light is only checked for blocks that change the light opacity or light value, after all blocks of their section have been placed")
+		public boolean bufferedStructureGeneration = true;
+	}
+
 	@Name("debug")
 	@LangKey(LANG_PREFIX + "debug")
 	public static final Debug DEBUG = new Debug();
@@ -619,5 +683,15 @@ public class BetweenlandsConfig {
 		@LangKey(LANG_PREFIX + "dump_packed_textures")
 		@Comment("If true, mod will dump the packed model textures on startup")
 		public boolean dumpPackedTextures = false;
+
+		@Name("debug_structure_generation")
+		@LangKey(LANG_PREFIX + "debug_structure_generation")
+		@Comment("If true, logs how long buffered structures took to generate and how many blocks they placed")
+		public boolean debugStructureGeneration = false;
+
+		@Name("debug_concurrent_chunk_generation")
+		@LangKey(LANG_PREFIX + "debug_concurrent_chunk_generation")
+		@Comment("If true, every Betweenlands chunk is additionally generated on another thread with a concurrent generation context and compared to the chunk generated on the main thread. Differences are logged")
+		public boolean debugConcurrentChunkGeneration = false;
 	}
 }
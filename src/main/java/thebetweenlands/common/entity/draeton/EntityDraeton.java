@@ -80,6 +80,7 @@ import thebetweenlands.common.TheBetweenlands;
 import thebetweenlands.common.item.misc.ItemMob;
 import thebetweenlands.common.network.bidirectional.MessageUpdateDraetonPhysicsPart;
 import thebetweenlands.common.network.bidirectional.MessageUpdateDraetonPhysicsPart.Action;
+import thebetweenlands.common.network.bidirectional.MessageUpdateDraetonPhysicsParts;
 import thebetweenlands.common.network.clientbound.MessageSyncDraetonLeakages;
 import thebetweenlands.common.network.serverbound.MessageSetDraetonAnchorPos;
 import thebetweenlands.common.registries.FluidRegistry;
@@ -883,17 +884,26 @@ public class EntityDraeton extends Entity implements IEntityMultiPart, IEntityAd
 		this.updatePullerSlots();
 
 		if(this.world instanceof WorldServer) {
-			//Send server state of parts to non-controller players
-			if(this.ticksExisted % this.movementSyncTicks == 0) {
-				for(DraetonPhysicsPart part : this.physicsParts) {
-					MessageUpdateDraetonPhysicsPart msg = new MessageUpdateDraetonPhysicsPart(this, part, MessageUpdateDraetonPhysicsPart.Action.UPDATE);
+			//Send server state of all parts to non-controller players
+			if(this.ticksExisted % this.movementSyncTicks == 0 && !this.physicsParts.isEmpty()) {
+				Set<? extends EntityPlayer> tracking = ((WorldServer) this.world).getEntityTracker().getTrackingPlayers(this);
+
+				if(!tracking.isEmpty()) {
+					MessageUpdateDraetonPhysicsParts msg = new MessageUpdateDraetonPhysicsParts(this);
 
-					Set<? extends EntityPlayer> tracking = ((WorldServer) this.world).getEntityTracker().getTrackingPlayers(this);
-					for(EntityPlayer player : tracking) {
-						//Don't send to controller
-						if(player instanceof EntityPlayerMP && player != this.getControllingPassenger()) {
-							TheBetweenlands.networkWrapper.sendTo(msg, (EntityPlayerMP) player);
+					if(tracking.size() > 1) {
+						//Serialized once and shared by all tracking players
+						msg.preserialize();
+					}
+					try {
+						for(EntityPlayer player : tracking) {
+							//Don't send to controller
+							if(player instanceof EntityPlayerMP && player != this.getControllingPassenger()) {
+								TheBetweenlands.networkWrapper.sendTo(msg, (EntityPlayerMP) player);
+							}
 						}
+					} finally {
+						msg.release();
 					}
 				}
 			}
@@ -1619,10 +1629,8 @@ public class EntityDraeton extends Entity implements IEntityMultiPart, IEntityAd
 		}
 
 		//Send client state of parts to server
-		if(this.world.isRemote && this.canPassengerSteer() && this.ticksExisted % this.movementSyncTicks == 0) {
-			for(DraetonPhysicsPart part : this.physicsParts) {
-				TheBetweenlands.networkWrapper.sendToServer(new MessageUpdateDraetonPhysicsPart(this, part, MessageUpdateDraetonPhysicsPart.Action.UPDATE));
-			}
+		if(this.world.isRemote && this.canPassengerSteer() && this.ticksExisted % this.movementSyncTicks == 0 && !this.physicsParts.isEmpty()) {
+			TheBetweenlands.networkWrapper.sendToServer(new MessageUpdateDraetonPhysicsParts(this));
 		}
 	}
 
@@ -9,9 +9,13 @@ import net.minecraft.entity.Entity;
 import net.minecraft.init.Blocks;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.EntitySelectors;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.border.WorldBorder;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.world.GetCollisionBoxesEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
@@ -38,13 +42,24 @@ public final class CustomEntityCollisionsHandler {
 
 	private CustomEntityCollisionsHandler() {}
 
-	private static boolean gathering = false;
+	/**
+	 * Per thread scratch state so that the client and server threads don't share
+	 * the gathering flag and so that no lists need to be allocated per block
+	 */
+	private static final class CollisionContext {
+		private boolean gathering = false;
+		private final List<AxisAlignedBB> blockBoxes = new ArrayList<>();
+		private boolean blockBoxesInUse = false;
+	}
+
+	private static final ThreadLocal<CollisionContext> CONTEXT = ThreadLocal.withInitial(CollisionContext::new);
 
 	@SubscribeEvent
 	public static void onGatherCollisionBoxes(GetCollisionBoxesEvent event) {
-		if(!gathering) {
+		CollisionContext context = CONTEXT.get();
+		if(!context.gathering) {
 			Entity entity = event.getEntity();
-			gathering = true;
+			context.gathering = true;
 			try {
 				if(entity != null) {
 					IEntityCustomCollisionsCapability cap = entity.getCapability(CapabilityRegistry.CAPABILITY_ENTITY_CUSTOM_BLOCK_COLLISIONS, null);
@@ -81,7 +96,7 @@ public final class CustomEntityCollisionsHandler {
 					event.getCollisionBoxesList().addAll(processedAabbList);
 				}*/
 			} finally {
-				gathering = false;
+				context.gathering = false;
 			}
 		}
 	}
@@ -94,22 +109,65 @@ public final class CustomEntityCollisionsHandler {
 
 	private static void getEntityCollisionBoxes(Entity entity, AxisAlignedBB aabb, EntityCollisionPredicate entityPredicate, List<AxisAlignedBB> collisionBoxes) {
 		if (entity != null) {
-			List<Entity> otherEntities = entity.world.getEntitiesWithinAABBExcludingEntity(entity, aabb.grow(0.25D));
+			//Same search and spectator filter as World#getEntitiesWithinAABBExcludingEntity, but the entities are checked
+			//directly in the chunk entity lists instead of being collected into a new list first
+			AxisAlignedBB searchAabb = aabb.grow(0.25D);
+			World world = entity.world;
+
+			int cxs = MathHelper.floor((searchAabb.minX - World.MAX_ENTITY_RADIUS) / 16.0D);
+			int cxe = MathHelper.floor((searchAabb.maxX + World.MAX_ENTITY_RADIUS) / 16.0D);
+			int czs = MathHelper.floor((searchAabb.minZ - World.MAX_ENTITY_RADIUS) / 16.0D);
+			int cze = MathHelper.floor((searchAabb.maxZ + World.MAX_ENTITY_RADIUS) / 16.0D);
+
+			for (int cx = cxs; cx <= cxe; cx++) {
+				for (int cz = czs; cz <= cze; cz++) {
+					Chunk chunk = world.getChunkProvider().getLoadedChunk(cx, cz);
+
+					if (chunk != null) {
+						ClassInheritanceMultiMap<Entity>[] entityLists = chunk.getEntityLists();
+
+						int sys = MathHelper.clamp(MathHelper.floor((searchAabb.minY - World.MAX_ENTITY_RADIUS) / 16.0D), 0, entityLists.length - 1);
+						int sye = MathHelper.clamp(MathHelper.floor((searchAabb.maxY + World.MAX_ENTITY_RADIUS) / 16.0D), 0, entityLists.length - 1);
+
+						for (int sy = sys; sy <= sye; sy++) {
+							ClassInheritanceMultiMap<Entity> entities = entityLists[sy];
+
+							if (!entities.isEmpty()) {
+								for (Entity otherEntity : entities) {
+									if (otherEntity != entity && otherEntity.getEntityBoundingBox().intersects(searchAabb) && EntitySelectors.NOT_SPECTATING.apply(otherEntity)) {
+										getEntityCollisionBoxes(entity, aabb, otherEntity, entityPredicate, collisionBoxes);
+
+										Entity[] parts = otherEntity.getParts();
+
+										if (parts != null) {
+											for (Entity part : parts) {
+												if (part != entity && part.getEntityBoundingBox().intersects(searchAabb) && EntitySelectors.NOT_SPECTATING.apply(part)) {
+													getEntityCollisionBoxes(entity, aabb, part, entityPredicate, collisionBoxes);
+												}
+											}
+										}
+									}
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+	}
 
-			for (Entity otherEntity : otherEntities) {
-				if (!entity.isRidingSameEntity(otherEntity)) {
-					AxisAlignedBB otherAABB = otherEntity.getCollisionBoundingBox();
+	private static void getEntityCollisionBoxes(Entity entity, AxisAlignedBB aabb, Entity otherEntity, EntityCollisionPredicate entityPredicate, List<AxisAlignedBB> collisionBoxes) {
+		if (!entity.isRidingSameEntity(otherEntity)) {
+			AxisAlignedBB otherAABB = otherEntity.getCollisionBoundingBox();
 
-					if (otherAABB != null && otherAABB.intersects(aabb) && entityPredicate.isColliding(entity, aabb, otherEntity, otherAABB)) {
-						collisionBoxes.add(otherAABB);
-					}
+			if (otherAABB != null && otherAABB.intersects(aabb) && entityPredicate.isColliding(entity, aabb, otherEntity, otherAABB)) {
+				collisionBoxes.add(otherAABB);
+			}
 
-					otherAABB = entity.getCollisionBox(otherEntity);
+			otherAABB = entity.getCollisionBox(otherEntity);
 
-					if (otherAABB != null && otherAABB.intersects(aabb) && entityPredicate.isColliding(entity, aabb, otherEntity, otherAABB)) {
-						collisionBoxes.add(otherAABB);
-					}
-				}
+			if (otherAABB != null && otherAABB.intersects(aabb) && entityPredicate.isColliding(entity, aabb, otherEntity, otherAABB)) {
+				collisionBoxes.add(otherAABB);
 			}
 		}
 	}
@@ -128,6 +186,12 @@ public final class CustomEntityCollisionsHandler {
 		IBlockState defaultBlockState = Blocks.STONE.getDefaultState();
 		BlockPos.PooledMutableBlockPos checkPos = BlockPos.PooledMutableBlockPos.retain();
 
+		//Reuse the block boxes list unless it is already in use further up the stack
+		CollisionContext context = CONTEXT.get();
+		boolean ownsBlockBoxes = !context.blockBoxesInUse;
+		List<AxisAlignedBB> blockBoxes = ownsBlockBoxes ? context.blockBoxes : new ArrayList<>();
+		context.blockBoxesInUse = true;
+
 		try {
 			for(int x = xs; x < xe; ++x) {
 				for(int z = zs; z < ze; ++z) {
@@ -135,6 +199,9 @@ public final class CustomEntityCollisionsHandler {
 					boolean borderZ = z == zs || z == ze - 1;
 
 					if((!borderX || !borderZ) && world.isBlockLoaded(checkPos.setPos(x, 64, z))) {
+						Chunk chunk = world.getChunkProvider().getLoadedChunk(x >> 4, z >> 4);
+						ExtendedBlockStorage[] storages = chunk != null ? chunk.getBlockStorageArray() : null;
+
 						for(int y = ys; y < ye; ++y) {
 							if(!borderX && !borderZ || y != ye - 1) {
 								if(entity != null && isOutsideWorldBorder == isInsideWorldBorder) {
@@ -142,18 +209,31 @@ public final class CustomEntityCollisionsHandler {
 								}
 
 								checkPos.setPos(x, y, z);
+
+								boolean outsideBorder = !worldBorder.contains(checkPos) && isInsideWorldBorder;
+
+								//Empty sections only contain air which has no collision boxes, so the rest of the section can be skipped
+								if(!outsideBorder && storages != null && y >= 0 && (y >> 4) < storages.length) {
+									ExtendedBlockStorage storage = storages[y >> 4];
+									if(storage == Chunk.NULL_BLOCK_STORAGE || storage.isEmpty()) {
+										y = Math.min(ye - 1, ((y >> 4) << 4) + 15);
+										continue;
+									}
+								}
+
 								IBlockState state;
 
-								if (!worldBorder.contains(checkPos) && isInsideWorldBorder) {
+								if (outsideBorder) {
 									state = defaultBlockState;
 								} else {
 									state = world.getBlockState(checkPos);
 								}
 
 								if(blockPredicate.isColliding(entity, aabb, checkPos, state, null)) {
-									List<AxisAlignedBB> blockBoxes = new ArrayList<>();
+									blockBoxes.clear();
 									state.addCollisionBoxToList(world, checkPos, aabb, blockBoxes, entity, false);
-									for(AxisAlignedBB blockAabb : blockBoxes) {
+									for(int i = 0; i < blockBoxes.size(); i++) {
+										AxisAlignedBB blockAabb = blockBoxes.get(i);
 										if(blockPredicate.isColliding(entity, aabb, checkPos, state, blockAabb)) {
 											collisionBoxes.add(blockAabb);
 										}
@@ -165,6 +245,10 @@ public final class CustomEntityCollisionsHandler {
 				}
 			}
 		} finally {
+			blockBoxes.clear();
+			if(ownsBlockBoxes) {
+				context.blockBoxesInUse = false;
+			}
 			checkPos.release();
 		}
 	}
@@ -31,6 +31,8 @@ public class EnvironmentEventHandler {
 			if(storage != null) {
 				BLEnvironmentEventRegistry reg = storage.getEnvironmentEventRegistry();
 
+				reg.validateSnapshot();
+
 				for(IEnvironmentEvent eevent : reg.getEvents().values()) {
 					if(!eevent.isLoaded()) continue;
 					if (reg.isDisabled()) {
@@ -63,6 +65,7 @@ public class EnvironmentEventHandler {
 				BetweenlandsWorldStorage storage = BetweenlandsWorldStorage.forWorld(world);
 				if(storage != null) {
 					BLEnvironmentEventRegistry reg = storage.getEnvironmentEventRegistry();
+					reg.validateSnapshot();
 					for(IEnvironmentEvent eevent : reg.getEvents().values()) {
 						if(!eevent.isLoaded()) 
 							continue;
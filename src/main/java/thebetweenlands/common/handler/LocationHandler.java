@@ -103,12 +103,9 @@ public class LocationHandler {
 				positions.add(event.getPos());
 			}
 			for(BlockPos pos : positions) {
-				List<LocationStorage> locations = LocationStorage.getLocations(player.world, new Vec3d(pos));
-				for(LocationStorage location : locations) {
-					if(location != null && location.getGuard() != null && location.getGuard().isGuarded(player.world, player, pos)) {
-						event.setCanceled(true);
-						return;
-					}
+				if(isProtected(player.world, player, pos)) {
+					event.setCanceled(true);
+					return;
 				}
 			}
 		}
@@ -125,14 +122,10 @@ public class LocationHandler {
 			if(!blockState.getBlock().isReplaceable(player.world, resultingPos)) {
 				resultingPos = resultingPos.offset(facing);
 			}
-			List<LocationStorage> locations = LocationStorage.getLocations(player.world, new Vec3d(resultingPos));
-			for(LocationStorage location : locations) {
-				if(location != null && location.getGuard() != null && location.getGuard().isGuarded(player.world, player, resultingPos)) {
-					event.setUseItem(Result.DENY);
-					if(event.getWorld().isRemote) {
-						BLParticles.BLOCK_PROTECTION.spawn(event.getWorld(), hitVec.x + facing.getXOffset() * 0.025F, hitVec.y + facing.getYOffset() * 0.025F, hitVec.z + facing.getZOffset() * 0.025F, ParticleArgs.get().withData(facing));
-					}
-					return;
+			if(isProtected(player.world, player, resultingPos)) {
+				event.setUseItem(Result.DENY);
+				if(event.getWorld().isRemote) {
+					BLParticles.BLOCK_PROTECTION.spawn(event.getWorld(), hitVec.x + facing.getXOffset() * 0.025F, hitVec.y + facing.getYOffset() * 0.025F, hitVec.z + facing.getZOffset() * 0.025F, ParticleArgs.get().withData(facing));
 				}
 			}
 		}
@@ -142,18 +135,13 @@ public class LocationHandler {
 	public static void onBreakSpeed(PlayerEvent.BreakSpeed event) {
 		EntityPlayer player = event.getEntityPlayer();
 
-		List<LocationStorage> locations = LocationStorage.getLocations(player.world, new Vec3d(event.getPos()));
-
-		for(LocationStorage location : locations) {
-			if(location != null && location.getGuard() != null && location.getGuard().isGuarded(player.world, player, event.getPos())) {
-				if(player.world.isRemote && player.swingProgressInt == 0) {
-					spawnBreakSpeedParticle(event.getPos(), player);
-				}
-
-				event.setNewSpeed(0.0F);
-				event.setCanceled(true);
-				return;
+		if(isProtected(player.world, player, event.getPos())) {
+			if(player.world.isRemote && player.swingProgressInt == 0) {
+				spawnBreakSpeedParticle(event.getPos(), player);
 			}
+
+			event.setNewSpeed(0.0F);
+			event.setCanceled(true);
 		}
 	}
 
@@ -175,6 +163,19 @@ public class LocationHandler {
 		World world = event.getWorld();
 		BetweenlandsWorldStorage worldStorage = BetweenlandsWorldStorage.forWorld(world);
 
+		//Cheap check first, most explosions don't affect any guarded blocks
+		boolean anyGuarded = false;
+		for(BlockPos pos : explosion.getAffectedBlockPositions()) {
+			if(worldStorage.getLocalStorageHandler().isAnyGuarded(world, explosion.getExplosivePlacedBy(), pos)) {
+				anyGuarded = true;
+				break;
+			}
+		}
+
+		if(!anyGuarded) {
+			return;
+		}
+
 		Long2ObjectMap<List<LocationStorage>> locationCache = new Long2ObjectOpenHashMap<List<LocationStorage>>();
 		List<LocationStorage> affectedLocations = new ArrayList<LocationStorage>();
 
@@ -205,12 +206,8 @@ public class LocationHandler {
 		EnumFacing facing = event.getFace();
 		Vec3d hitVec = event.getHitVec();
 		if(hitVec != null && !event.getEntityPlayer().isCreative() && facing != null) {
-			List<LocationStorage> locations = LocationStorage.getLocations(event.getWorld(), new Vec3d(event.getPos()));
-			for(LocationStorage location : locations) {
-				if(location != null && location.getGuard() != null && location.getGuard().isGuarded(event.getWorld(), event.getEntityPlayer(), event.getPos())) {
-					BLParticles.BLOCK_PROTECTION.spawn(event.getWorld(), hitVec.x + facing.getXOffset() * 0.025F, hitVec.y + facing.getYOffset() * 0.025F, hitVec.z + facing.getZOffset() * 0.025F, ParticleArgs.get().withData(facing));
-					break;
-				}
+			if(isProtected(event.getWorld(), event.getEntityPlayer(), event.getPos())) {
+				BLParticles.BLOCK_PROTECTION.spawn(event.getWorld(), hitVec.x + facing.getXOffset() * 0.025F, hitVec.y + facing.getYOffset() * 0.025F, hitVec.z + facing.getZOffset() * 0.025F, ParticleArgs.get().withData(facing));
 			}
 		}
 	}
@@ -223,12 +220,6 @@ public class LocationHandler {
 	}
 
 	public static boolean isProtected(World world, @Nullable Entity entity, BlockPos pos) {
-		List<LocationStorage> locations = LocationStorage.getLocations(world, new Vec3d(pos));
-		for(LocationStorage location : locations) {
-			if(location != null && location.getGuard() != null && location.getGuard().isGuarded(world, entity, pos)) {
-				return true;
-			}
-		}
-		return false;
+		return LocationStorage.isLocationGuarded(world, entity, pos);
 	}
 }
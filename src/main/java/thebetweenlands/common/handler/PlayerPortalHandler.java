@@ -2,6 +2,8 @@ package thebetweenlands.common.handler;
 
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.entity.EntityPlayerSP;
@@ -9,12 +11,16 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.WorldServer;
+import net.minecraft.world.border.WorldBorder;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.ClientTickEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.common.gameevent.TickEvent.PlayerTickEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import thebetweenlands.api.capability.IPortalCapability;
@@ -27,6 +33,7 @@ import thebetweenlands.common.registries.CapabilityRegistry;
 import thebetweenlands.common.registries.SoundRegistry;
 import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
 import thebetweenlands.common.world.storage.location.LocationPortal;
+import thebetweenlands.common.world.teleporter.PortalSiteSearch;
 import thebetweenlands.common.world.teleporter.TeleporterHandler;
 
 public class PlayerPortalHandler {
@@ -54,32 +61,45 @@ public class PlayerPortalHandler {
 					if(inPortalBlock) {
 						if(!cap.wasTeleported()) {
 							if (cap.getTicksUntilTeleport() <= 0 || player.capabilities.isCreativeMode) {
+								boolean waitForSite = false;
 								if(player.world instanceof WorldServer) {
-									BetweenlandsWorldStorage worldStorage = BetweenlandsWorldStorage.forWorld(player.world);
-									AxisAlignedBB entityAabb = player.getEntityBoundingBox();
-									List<LocationPortal> portals = worldStorage.getLocalStorageHandler().getLocalStorages(LocationPortal.class, entityAabb, loc -> loc.intersects(entityAabb));
-									LocationPortal portal = null;
-									if(!portals.isEmpty()) {
-										portal = portals.get(0);
-									}
-									int targetDim = BetweenlandsConfig.WORLD_AND_DIMENSION.dimensionId;
-									if(portal != null && (portal.getOtherPortalPosition() != null || portal.hasTargetDimension())) {
-										//Portal already linked, teleport to linked dimension
-										targetDim = portal.getOtherPortalDimension();
-									} else if (player.dimension == BetweenlandsConfig.WORLD_AND_DIMENSION.dimensionId) {
-										targetDim = BetweenlandsConfig.WORLD_AND_DIMENSION.portalDefaultReturnDimension;
-									}
+									LocationPortal portal = getPortal(player);
+									int targetDim = getTargetDimension(player, portal);
 									if(targetDim != player.dimension) {
 										WorldServer otherDim = ((WorldServer) player.world).getMinecraftServer().getWorld(targetDim);
 										if(otherDim != null) {
-											TeleporterHandler.transferToDim(player, otherDim);
+											if(cap.getTicksUntilTeleport() == MAX_PORTAL_TIME) {
+												//Creative players teleport right away, but also wait for the site
+												startSiteSearch(player, portal, otherDim);
+											}
+											if(portal != null && PortalSiteSearch.isSearching(portal)) {
+												//Wait in the portal until a site for the new portal is ready
+												waitForSite = true;
+											} else {
+												TeleporterHandler.transferToDim(player, otherDim);
+											}
 										}
 									}
 								}
-								player.timeUntilPortal = 10;
-								cap.setInPortal(false);
-								cap.setTicksUntilTeleport(MAX_PORTAL_TIME);
+								if(waitForSite) {
+									cap.setTicksUntilTeleport(0);
+								} else {
+									player.timeUntilPortal = 10;
+									cap.setInPortal(false);
+									cap.setTicksUntilTeleport(MAX_PORTAL_TIME);
+								}
 							} else {
+								if(cap.getTicksUntilTeleport() == MAX_PORTAL_TIME && player.world instanceof WorldServer) {
+									//Start searching a site for the new portal while the player waits in the portal
+									LocationPortal portal = getPortal(player);
+									int targetDim = getTargetDimension(player, portal);
+									if(targetDim != player.dimension) {
+										WorldServer otherDim = ((WorldServer) player.world).getMinecraftServer().getWorld(targetDim);
+										if(otherDim != null) {
+											startSiteSearch(player, portal, otherDim);
+										}
+									}
+								}
 								cap.setTicksUntilTeleport(cap.getTicksUntilTeleport() - 1);
 							}
 						}
@@ -98,6 +118,59 @@ public class PlayerPortalHandler {
 		}
 	}
 	
+	@Nullable
+	private static LocationPortal getPortal(EntityPlayer player) {
+		BetweenlandsWorldStorage worldStorage = BetweenlandsWorldStorage.forWorld(player.world);
+		AxisAlignedBB entityAabb = player.getEntityBoundingBox();
+		List<LocationPortal> portals = worldStorage.getLocalStorageHandler().getLocalStorages(LocationPortal.class, entityAabb, loc -> loc.intersects(entityAabb));
+		if(!portals.isEmpty()) {
+			return portals.get(0);
+		}
+		return null;
+	}
+
+	private static int getTargetDimension(EntityPlayer player, @Nullable LocationPortal portal) {
+		int targetDim = BetweenlandsConfig.WORLD_AND_DIMENSION.dimensionId;
+		if(portal != null && (portal.getOtherPortalPosition() != null || portal.hasTargetDimension())) {
+			//Portal already linked, teleport to linked dimension
+			targetDim = portal.getOtherPortalDimension();
+		} else if (player.dimension == BetweenlandsConfig.WORLD_AND_DIMENSION.dimensionId) {
+			targetDim = BetweenlandsConfig.WORLD_AND_DIMENSION.portalDefaultReturnDimension;
+		}
+		return targetDim;
+	}
+
+	/**
+	 * Starts searching a site for the portal tree that will be generated
+	 * in the Betweenlands if the portal isn't linked yet
+	 * @param player
+	 * @param portal
+	 * @param toWorld
+	 */
+	private static void startSiteSearch(EntityPlayer player, @Nullable LocationPortal portal, WorldServer toWorld) {
+		if(portal != null && portal.getOtherPortalPosition() == null && toWorld.provider.getDimension() == BetweenlandsConfig.WORLD_AND_DIMENSION.dimensionId) {
+			double moveFactor = player.world.provider.getMovementFactor() / toWorld.provider.getMovementFactor();
+			WorldBorder border = toWorld.getWorldBorder();
+			double x = MathHelper.clamp(player.posX * moveFactor, border.minX() + 16.0D, border.maxX() - 16.0D);
+			double z = MathHelper.clamp(player.posZ * moveFactor, border.minZ() + 16.0D, border.maxZ() - 16.0D);
+			PortalSiteSearch.start(portal, toWorld, new BlockPos(x, player.posY, z));
+		}
+	}
+
+	@SubscribeEvent
+	public static void onServerTick(ServerTickEvent event) {
+		if(event.phase == Phase.END) {
+			PortalSiteSearch.updateSearches();
+		}
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload event) {
+		if(!event.getWorld().isRemote) {
+			PortalSiteSearch.cancelSearches(event.getWorld());
+		}
+	}
+
 	@SideOnly(Side.CLIENT)
 	@SubscribeEvent
 	public static void onClientTick(ClientTickEvent event) {
@@ -0,0 +1,98 @@
+package thebetweenlands.common.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.event.entity.EntityEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import thebetweenlands.common.world.ProximityTrigger;
+
+/**
+ * Indexes all registered {@link ProximityTrigger}s by chunk and wakes up dormant triggers
+ * when an entity of their type enters one of their chunks or is added to one of them
+ */
+public final class ProximityTriggerHandler {
+	private ProximityTriggerHandler() { }
+
+	private static final Map<World, Long2ObjectMap<List<ProximityTrigger<?>>>> TRIGGERS = new WeakHashMap<>();
+
+	/**
+	 * Adds the trigger to the chunk index. Use {@link ProximityTrigger#register()} instead
+	 * @param trigger
+	 */
+	public static synchronized void register(ProximityTrigger<?> trigger) {
+		Long2ObjectMap<List<ProximityTrigger<?>>> chunks = TRIGGERS.get(trigger.getWorld());
+		if(chunks == null) {
+			TRIGGERS.put(trigger.getWorld(), chunks = new Long2ObjectOpenHashMap<>());
+		}
+
+		for(int cx = trigger.getMinChunkX(); cx <= trigger.getMaxChunkX(); cx++) {
+			for(int cz = trigger.getMinChunkZ(); cz <= trigger.getMaxChunkZ(); cz++) {
+				long key = ChunkPos.asLong(cx, cz);
+				List<ProximityTrigger<?>> triggers = chunks.get(key);
+				if(triggers == null) {
+					chunks.put(key, triggers = new ArrayList<>(2));
+				}
+				triggers.add(trigger);
+			}
+		}
+	}
+
+	/**
+	 * Removes the trigger from the chunk index. Use {@link ProximityTrigger#unregister()} instead
+	 * @param trigger
+	 */
+	public static synchronized void unregister(ProximityTrigger<?> trigger) {
+		Long2ObjectMap<List<ProximityTrigger<?>>> chunks = TRIGGERS.get(trigger.getWorld());
+		if(chunks != null) {
+			for(int cx = trigger.getMinChunkX(); cx <= trigger.getMaxChunkX(); cx++) {
+				for(int cz = trigger.getMinChunkZ(); cz <= trigger.getMaxChunkZ(); cz++) {
+					long key = ChunkPos.asLong(cx, cz);
+					List<ProximityTrigger<?>> triggers = chunks.get(key);
+					if(triggers != null) {
+						triggers.remove(trigger);
+						if(triggers.isEmpty()) {
+							chunks.remove(key);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public static void onEnteringChunk(EntityEvent.EnteringChunk event) {
+		Entity entity = event.getEntity();
+		wakeTriggers(entity.world, entity, event.getNewChunkX(), event.getNewChunkZ());
+	}
+
+	private static synchronized void wakeTriggers(World world, Entity entity, int chunkX, int chunkZ) {
+		Long2ObjectMap<List<ProximityTrigger<?>>> chunks = TRIGGERS.get(world);
+		if(chunks != null) {
+			List<ProximityTrigger<?>> triggers = chunks.get(ChunkPos.asLong(chunkX, chunkZ));
+			if(triggers != null) {
+				for(int i = 0; i < triggers.size(); i++) {
+					ProximityTrigger<?> trigger = triggers.get(i);
+					if(trigger.isDormant() && trigger.isTracked(entity)) {
+						trigger.wake();
+					}
+				}
+			}
+		}
+	}
+
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload event) {
+		synchronized(ProximityTriggerHandler.class) {
+			TRIGGERS.remove(event.getWorld());
+		}
+	}
+}
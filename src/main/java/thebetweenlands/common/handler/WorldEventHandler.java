@@ -27,6 +27,7 @@ import thebetweenlands.api.storage.IChunkStorage;
 import thebetweenlands.api.storage.ILocalStorage;
 import thebetweenlands.api.storage.IWorldStorage;
 import thebetweenlands.common.lib.ModInfo;
+import thebetweenlands.common.world.storage.LocalStorageHandlerImpl;
 import thebetweenlands.common.world.storage.WorldStorageImpl;
 
 public final class WorldEventHandler {
@@ -111,6 +112,16 @@ public final class WorldEventHandler {
 		worldStorage.getLocalStorageHandler().saveAll();
 	}
 
+	@SubscribeEvent
+	public static void onWorldUnload(WorldEvent.Unload event) {
+		IWorldStorage worldStorage = WorldStorageImpl.getCapability(event.getWorld());
+
+		//Wait for the local storage I/O threads to finish writing this world's files
+		if(worldStorage != null && worldStorage.getLocalStorageHandler() instanceof LocalStorageHandlerImpl) {
+			((LocalStorageHandlerImpl) worldStorage.getLocalStorageHandler()).getSaveHandler().flush();
+		}
+	}
+
 	@SubscribeEvent
 	public static void onServerTick(ServerTickEvent event) {
 		if(event.phase == Phase.END) {
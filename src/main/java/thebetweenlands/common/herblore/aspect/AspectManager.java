@@ -13,6 +13,12 @@ import java.util.Random;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.google.common.collect.ImmutableList;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -107,6 +113,22 @@ public class AspectManager {
 
 	private final Map<AspectItem, List<Aspect>> matchedAspects = new LinkedHashMap<AspectItem, List<Aspect>>();
 
+	//Immutable copies of the matched aspects that are handed out by the getters
+	private final Map<AspectItem, List<Aspect>> immutableAspects = new HashMap<AspectItem, List<Aspect>>();
+
+	//Resolved static aspects of item stacks by item and meta, see getStaticAspects(ItemStack)
+	private final Reference2ObjectMap<Item, Int2ObjectMap<ResolvedStacks>> resolvedStacks = new Reference2ObjectOpenHashMap<>();
+
+	private static final int MAX_RESOLVED_NBT_STACKS = 8;
+
+	private int staticAspectsVersion = 0;
+
+	private static final class ResolvedStacks {
+		private List<Aspect> aspects;
+		private final List<NBTTagCompound> nbtKeys = new ArrayList<>(0);
+		private final List<List<Aspect>> nbtAspects = new ArrayList<>(0);
+	}
+
 	/**
 	 * Returns a list of all generated and matched aspects
 	 * @return
@@ -273,6 +295,25 @@ public class AspectManager {
 	private void updateMatchedAspects(AspectItem item, List<Aspect> aspects) {
 		Collections.sort(aspects);
 		this.matchedAspects.put(item, aspects);
+		this.immutableAspects.put(item, ImmutableList.copyOf(aspects));
+		this.resolvedStacks.clear();
+		this.staticAspectsVersion++;
+	}
+
+	private void clearMatchedAspects() {
+		this.matchedAspects.clear();
+		this.immutableAspects.clear();
+		this.resolvedStacks.clear();
+		this.staticAspectsVersion++;
+	}
+
+	/**
+	 * Returns a number that changes whenever the static aspects change.
+	 * Can be used to invalidate caches of static aspects
+	 * @return
+	 */
+	public int getStaticAspectsVersion() {
+		return this.staticAspectsVersion;
 	}
 
 	/**
@@ -280,7 +321,7 @@ public class AspectManager {
 	 * @param nbt
 	 */
 	public void loadStaticAspects(NBTTagCompound nbt) {
-		this.matchedAspects.clear();
+		this.clearMatchedAspects();
 		NBTTagList entryList = (NBTTagList) nbt.getTag("entries");
 		entryIT:
 			for(int i = 0; i < entryList.tagCount(); i++) {
@@ -361,7 +402,7 @@ public class AspectManager {
 	}
 
 	private void generateStaticAspects(long seed) {
-		this.matchedAspects.clear();
+		this.clearMatchedAspects();
 		this.updateAspects(seed);
 	}
 
@@ -493,27 +534,62 @@ public class AspectManager {
 	}
 
 	/**
-	 * Returns a list of all static aspects on an item
+	 * Returns an immutable list of all static aspects on an item.
+	 * The result is cached by item, meta and NBT, so the aspect item matchers must only depend on those
 	 * @return
 	 */
 	@Nonnull
 	public List<Aspect> getStaticAspects(ItemStack stack) {
+		Int2ObjectMap<ResolvedStacks> resolvedByMeta = this.resolvedStacks.get(stack.getItem());
+		if(resolvedByMeta == null) {
+			this.resolvedStacks.put(stack.getItem(), resolvedByMeta = new Int2ObjectOpenHashMap<>());
+		}
+
+		ResolvedStacks resolved = resolvedByMeta.get(stack.getMetadata());
+		if(resolved == null) {
+			resolvedByMeta.put(stack.getMetadata(), resolved = new ResolvedStacks());
+		}
+
+		NBTTagCompound nbt = stack.getTagCompound();
+
+		if(nbt == null) {
+			if(resolved.aspects == null) {
+				resolved.aspects = this.resolveStaticAspects(stack);
+			}
+			return resolved.aspects;
+		}
+
+		for(int i = 0; i < resolved.nbtKeys.size(); i++) {
+			if(resolved.nbtKeys.get(i).equals(nbt)) {
+				return resolved.nbtAspects.get(i);
+			}
+		}
+
+		List<Aspect> aspects = this.resolveStaticAspects(stack);
+		if(resolved.nbtKeys.size() < MAX_RESOLVED_NBT_STACKS) {
+			resolved.nbtKeys.add(nbt.copy());
+			resolved.nbtAspects.add(aspects);
+		}
+		return aspects;
+	}
+
+	private List<Aspect> resolveStaticAspects(ItemStack stack) {
 		AspectItem item = getAspectItem(stack);
 		if(item != null)
 			return this.getStaticAspects(item);
-		return new ArrayList<Aspect>();
+		return ImmutableList.of();
 	}
 
 	/**
-	 * Returns a list of all static aspects on the specified item
+	 * Returns an immutable list of all static aspects on the specified item
 	 * @param item
 	 * @return
 	 */
 	@Nonnull
 	public List<Aspect> getStaticAspects(AspectItem item) {
-		List<Aspect> aspects = this.matchedAspects.get(item);
+		List<Aspect> aspects = this.immutableAspects.get(item);
 		if(aspects == null)
-			aspects = new ArrayList<Aspect>();
+			aspects = ImmutableList.of();
 		return aspects;
 	}
 
@@ -538,17 +614,15 @@ public class AspectManager {
 	 * Returns a list of all discovered aspects on an item. If you specify a discovery container
 	 * this will only return the discovered aspects in the discovery container.
 	 * If the discovery container is null this will return all static aspects on an item.
+	 * The returned list is immutable.
 	 * @param item
 	 * @return
 	 */
 	public List<Aspect> getDiscoveredStaticAspects(AspectItem item, @Nullable DiscoveryContainer<?> discoveryContainer) {
-		List<Aspect> aspects = new ArrayList<Aspect>();
 		if(discoveryContainer == null) {
-			aspects.addAll(this.getStaticAspects(item));
-		} else {
-			aspects.addAll(discoveryContainer.getDiscoveredStaticAspects(this, item));
+			return this.getStaticAspects(item);
 		}
-		return aspects;
+		return discoveryContainer.getDiscoveredStaticAspects(this, item);
 	}
 
 	/**
@@ -3,13 +3,20 @@ package thebetweenlands.common.network;
 import java.io.IOException;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
 
 public abstract class MessageBase implements IMessage {
+	private ByteBuf serialized;
+
 	@Override
 	public final void toBytes(ByteBuf buf) {
+		if(this.serialized != null) {
+			buf.writeBytes(this.serialized, this.serialized.readerIndex(), this.serialized.readableBytes());
+			return;
+		}
 		try {
 			serialize(new PacketBuffer(buf));
 		} catch(IOException ex) {
@@ -17,6 +24,36 @@ public abstract class MessageBase implements IMessage {
 		}
 	}
 
+	/**
+	 * Serializes this message once into a shared buffer so that it can be sent to many
+	 * players without being serialized again for each player. The buffer is reference counted
+	 * and must be released with {@link #release()} once the message is no longer sent.
+	 * @return
+	 */
+	public final MessageBase preserialize() {
+		if(this.serialized == null) {
+			ByteBuf buf = Unpooled.buffer();
+			try {
+				serialize(new PacketBuffer(buf));
+			} catch(IOException ex) {
+				buf.release();
+				throw new RuntimeException(ex);
+			}
+			this.serialized = buf;
+		}
+		return this;
+	}
+
+	/**
+	 * Releases the shared buffer of a preserialized message, see {@link #preserialize()}
+	 */
+	public final void release() {
+		if(this.serialized != null) {
+			this.serialized.release();
+			this.serialized = null;
+		}
+	}
+
 	@Override
 	public final void fromBytes(ByteBuf buf) {
 		try {
@@ -18,7 +18,7 @@ public class MessageUpdateDraetonPhysicsPart extends MessageEntity {
 		public DraetonPhysicsPart.Type type;
 		public float x, y, z, mx, my, mz;
 
-		private Position(DraetonPhysicsPart part) {
+		public Position(DraetonPhysicsPart part) {
 			this.id = part.id;
 			this.slot = part.slot;
 			this.type = part.type;
@@ -30,7 +30,7 @@ public class MessageUpdateDraetonPhysicsPart extends MessageEntity {
 			this.mz = (float) part.motionZ;
 		}
 
-		private Position(int id, int slot, DraetonPhysicsPart.Type type, float x, float y, float z, float mx, float my, float mz) {
+		public Position(int id, int slot, DraetonPhysicsPart.Type type, float x, float y, float z, float mx, float my, float mz) {
 			this.id = id;
 			this.slot = slot;
 			this.type = type;
@@ -41,6 +41,32 @@ public class MessageUpdateDraetonPhysicsPart extends MessageEntity {
 			this.my = my;
 			this.mz = mz;
 		}
+
+		/**
+		 * Clamps the relative position and the motion to the valid range of the specified part,
+		 * used for client controlled positions
+		 * @param carriage
+		 * @param part
+		 */
+		public void clampToValidRange(EntityDraeton carriage, DraetonPhysicsPart part) {
+			//Make sure position is in valid range since it is client controlled
+			float dist = (float) Math.sqrt(this.x * this.x + this.y * this.y + this.z * this.z);
+			float maxDist = carriage.getMaxTetherLength(part);
+			if(dist > maxDist) {
+				this.x *= 1.0f / dist * maxDist;
+				this.y *= 1.0f / dist * maxDist;
+				this.z *= 1.0f / dist * maxDist;
+			}
+
+			//Make sure motion is in valid range
+			float speed = (float) Math.sqrt(this.mx * this.mx + this.my * this.my + this.mz * this.mz);
+			float maxSpeed = carriage.getMaxPullerSpeed();
+			if(speed > maxSpeed) {
+				this.mx *= 1.0f / speed * maxSpeed;
+				this.my *= 1.0f / speed * maxSpeed;
+				this.mz *= 1.0f / speed * maxSpeed;
+			}
+		}
 	}
 
 	private Position position;
@@ -119,23 +145,7 @@ public class MessageUpdateDraetonPhysicsPart extends MessageEntity {
 						DraetonPhysicsPart part = carriage.getPhysicsPartById(this.position.id);
 
 						if(part != null) {
-							//Make sure position is in valid range since it is client controlled
-							float dist = (float) Math.sqrt(this.position.x * this.position.x + this.position.y * this.position.y + this.position.z * this.position.z);
-							float maxDist = carriage.getMaxTetherLength(part);
-							if(dist > maxDist) {
-								this.position.x *= 1.0f / dist * maxDist;
-								this.position.y *= 1.0f / dist * maxDist;
-								this.position.z *= 1.0f / dist * maxDist;
-							}
-
-							//Make sure motion is in valid range
-							float speed = (float) Math.sqrt(this.position.mx * this.position.mx + this.position.my * this.position.my + this.position.mz * this.position.mz);
-							float maxSpeed = carriage.getMaxPullerSpeed();
-							if(speed > maxSpeed) {
-								this.position.mx *= 1.0f / speed * maxSpeed;
-								this.position.my *= 1.0f / speed * maxSpeed;
-								this.position.mz *= 1.0f / speed * maxSpeed;
-							}
+							this.position.clampToValidRange(carriage, part);
 
 							carriage.setPacketRelativePartPosition(part, this.position.x, this.position.y, this.position.z, this.position.mx, this.position.my, this.position.mz);
 						}
@@ -0,0 +1,142 @@
+package thebetweenlands.common.network.bidirectional;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.MathHelper;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.relauncher.Side;
+import thebetweenlands.common.entity.draeton.DraetonPhysicsPart;
+import thebetweenlands.common.entity.draeton.EntityDraeton;
+import thebetweenlands.common.network.MessageEntity;
+import thebetweenlands.common.network.bidirectional.MessageUpdateDraetonPhysicsPart.Position;
+
+/**
+ * Updates the state of all physics parts of a draeton at once. Positions are relative to
+ * the carriage and, like the motions, quantized to fixed point shorts
+ */
+public class MessageUpdateDraetonPhysicsParts extends MessageEntity {
+	private static final float POSITION_SCALE = 256.0f;
+	private static final float MOTION_SCALE = 2048.0f;
+
+	private List<Position> positions;
+
+	public MessageUpdateDraetonPhysicsParts() {
+
+	}
+
+	public MessageUpdateDraetonPhysicsParts(EntityDraeton carriage) {
+		this.addEntity(carriage);
+		this.positions = new ArrayList<>(carriage.physicsParts.size());
+		for(DraetonPhysicsPart part : carriage.physicsParts) {
+			this.positions.add(new Position(part));
+		}
+	}
+
+	private static void writeQuantized(PacketBuffer buf, float value, float scale) {
+		if(!Float.isFinite(value)) {
+			value = 0;
+		}
+		buf.writeShort(MathHelper.clamp(Math.round(value * scale), Short.MIN_VALUE, Short.MAX_VALUE));
+	}
+
+	private static float readQuantized(PacketBuffer buf, float scale) {
+		return buf.readShort() / scale;
+	}
+
+	@Override
+	public void serialize(PacketBuffer buf) {
+		super.serialize(buf);
+
+		buf.writeVarInt(this.positions.size());
+
+		for(Position position : this.positions) {
+			buf.writeVarInt(position.id);
+			buf.writeVarInt(position.slot);
+			buf.writeByte(position.type.ordinal());
+			writeQuantized(buf, position.x, POSITION_SCALE);
+			writeQuantized(buf, position.y, POSITION_SCALE);
+			writeQuantized(buf, position.z, POSITION_SCALE);
+			writeQuantized(buf, position.mx, MOTION_SCALE);
+			writeQuantized(buf, position.my, MOTION_SCALE);
+			writeQuantized(buf, position.mz, MOTION_SCALE);
+		}
+	}
+
+	@Override
+	public void deserialize(PacketBuffer buf) throws IOException {
+		super.deserialize(buf);
+
+		int count = buf.readVarInt();
+		if(count < 0 || count > 64) {
+			throw new IOException("Invalid number of draeton physics parts: " + count);
+		}
+
+		this.positions = new ArrayList<>(count);
+
+		for(int i = 0; i < count; i++) {
+			int id = buf.readVarInt();
+			int slot = buf.readVarInt();
+
+			int type = buf.readUnsignedByte();
+			if(type >= DraetonPhysicsPart.Type.values().length) {
+				throw new IOException("Invalid draeton physics part type: " + type);
+			}
+
+			this.positions.add(new Position(id, slot, DraetonPhysicsPart.Type.values()[type],
+					readQuantized(buf, POSITION_SCALE), readQuantized(buf, POSITION_SCALE), readQuantized(buf, POSITION_SCALE),
+					readQuantized(buf, MOTION_SCALE), readQuantized(buf, MOTION_SCALE), readQuantized(buf, MOTION_SCALE)
+					));
+		}
+	}
+
+	@Override
+	public IMessage process(MessageContext ctx) {
+		super.process(ctx);
+
+		Entity entity = this.getEntity(0);
+
+		if(entity instanceof EntityDraeton) {
+			EntityDraeton carriage = (EntityDraeton) entity;
+
+			if(ctx.side == Side.SERVER) {
+				EntityPlayer player = ctx.getServerHandler().player;
+
+				if(carriage.getControllingPassenger() == player) {
+					for(Position position : this.positions) {
+						DraetonPhysicsPart part = carriage.getPhysicsPartById(position.id);
+
+						if(part != null) {
+							position.clampToValidRange(carriage, part);
+
+							carriage.setPacketRelativePartPosition(part, position.x, position.y, position.z, position.mx, position.my, position.mz);
+						}
+					}
+				}
+			} else {
+				for(Position position : this.positions) {
+					//Check for invalid ID
+					if(position.id < 0) {
+						continue;
+					}
+
+					DraetonPhysicsPart part = carriage.getPhysicsPartById(position.id);
+
+					//fallback if adding failed somehow
+					if(part == null) {
+						carriage.addPhysicsPart(position);
+					} else {
+						carriage.setPacketRelativePartPosition(part, position.x, position.y, position.z, position.mx, position.my, position.mz);
+					}
+				}
+			}
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,199 @@
+package thebetweenlands.common.network.clientbound;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.client.Minecraft;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
+import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import thebetweenlands.api.storage.ILocalStorage;
+import thebetweenlands.api.storage.StorageID;
+import thebetweenlands.common.network.MessageBase;
+import thebetweenlands.common.world.storage.BetweenlandsWorldStorage;
+import thebetweenlands.common.world.storage.location.LocationGuarded;
+import thebetweenlands.common.world.storage.location.guard.BlockLocationGuard;
+import thebetweenlands.common.world.storage.location.guard.BlockLocationGuard.GuardChunkSection;
+
+/**
+ * Syncs all block guard changes of one tick. Only the changed bytes of each section are sent
+ * as runs of consecutive bytes, and the payload is compressed if it is large
+ */
+public class MessageBlockGuardChanges extends MessageBase {
+	private static final int COMPRESSION_THRESHOLD = 512;
+	private static final int MAX_PAYLOAD_SIZE = 2097152;
+
+	private String id;
+	private byte[] payload;
+
+	public MessageBlockGuardChanges() {}
+
+	/**
+	 * @param storage
+	 * @param changes Changed bytes of each section, mapped by section position. Each mask has 8 longs, one bit per byte of the section data
+	 */
+	public MessageBlockGuardChanges(LocationGuarded storage, Map<BlockPos, long[]> changes) {
+		this.id = storage.getID().getStringID();
+
+		BlockLocationGuard guard = storage.getGuard();
+
+		ByteBuf buf = Unpooled.buffer();
+		try {
+			PacketBuffer packetBuf = new PacketBuffer(buf);
+
+			packetBuf.writeVarInt(changes.size());
+
+			for(Entry<BlockPos, long[]> entry : changes.entrySet()) {
+				BlockPos sectionPos = entry.getKey();
+				BlockPos worldPos = new BlockPos(sectionPos.getX() * 16, sectionPos.getY() * 16, sectionPos.getZ() * 16);
+				GuardChunkSection section = guard.getSection(worldPos);
+				long[] mask = entry.getValue();
+
+				packetBuf.writeLong(worldPos.toLong());
+
+				int runsIndex = buf.writerIndex();
+				int runs = 0;
+				packetBuf.writeShort(0);
+
+				int start = nextChanged(mask, 0);
+				while(start < 512) {
+					int end = start + 1;
+					while(end < 512 && isChanged(mask, end)) {
+						end++;
+					}
+
+					packetBuf.writeShort(start);
+					packetBuf.writeShort(end - start);
+					for(int i = start; i < end; i++) {
+						packetBuf.writeByte(section != null ? section.getData(i) : 0);
+					}
+					runs++;
+
+					start = nextChanged(mask, end);
+				}
+
+				buf.setShort(runsIndex, runs);
+			}
+
+			byte[] data = new byte[buf.readableBytes()];
+			buf.readBytes(data);
+			this.payload = data;
+		} finally {
+			buf.release();
+		}
+	}
+
+	private static boolean isChanged(long[] mask, int index) {
+		return (mask[index >> 6] & (1L << (index & 63))) != 0;
+	}
+
+	private static int nextChanged(long[] mask, int index) {
+		while(index < 512 && !isChanged(mask, index)) {
+			index++;
+		}
+		return index;
+	}
+
+	@Override
+	public void deserialize(PacketBuffer buf) throws IOException {
+		this.id = buf.readString(256);
+		boolean compressed = buf.readBoolean();
+		int size = buf.readVarInt();
+		if(size < 0 || size > MAX_PAYLOAD_SIZE) {
+			throw new IOException("Invalid block guard changes size: " + size);
+		}
+		byte[] data = buf.readByteArray(MAX_PAYLOAD_SIZE);
+		if(compressed) {
+			Inflater inflater = new Inflater();
+			try {
+				inflater.setInput(data);
+				this.payload = new byte[size];
+				if(inflater.inflate(this.payload) != size) {
+					throw new IOException("Invalid block guard changes data");
+				}
+			} catch(DataFormatException ex) {
+				throw new IOException(ex);
+			} finally {
+				inflater.end();
+			}
+		} else {
+			this.payload = data;
+		}
+	}
+
+	@Override
+	public void serialize(PacketBuffer buf) {
+		buf.writeString(this.id);
+		boolean compressed = this.payload.length > COMPRESSION_THRESHOLD;
+		buf.writeBoolean(compressed);
+		buf.writeVarInt(this.payload.length);
+		if(compressed) {
+			Deflater deflater = new Deflater();
+			try {
+				deflater.setInput(this.payload);
+				deflater.finish();
+				ByteArrayOutputStream out = new ByteArrayOutputStream(this.payload.length / 4);
+				byte[] chunk = new byte[4096];
+				while(!deflater.finished()) {
+					out.write(chunk, 0, deflater.deflate(chunk));
+				}
+				buf.writeByteArray(out.toByteArray());
+			} finally {
+				deflater.end();
+			}
+		} else {
+			buf.writeByteArray(this.payload);
+		}
+	}
+
+	@Override
+	public IMessage process(MessageContext ctx) {
+		if(ctx.side == Side.CLIENT) {
+			this.handle();
+		}
+		return null;
+	}
+
+	@SideOnly(Side.CLIENT)
+	private void handle() {
+		World world = Minecraft.getMinecraft().world;
+		if(world != null) {
+			BetweenlandsWorldStorage worldStorage = BetweenlandsWorldStorage.forWorld(world);
+			ILocalStorage storage = worldStorage.getLocalStorageHandler().getLocalStorage(StorageID.fromString(this.id));
+			if(storage != null && storage instanceof LocationGuarded) {
+				BlockLocationGuard guard = ((LocationGuarded) storage).getGuard();
+				if(guard != null) {
+					PacketBuffer buf = new PacketBuffer(Unpooled.wrappedBuffer(this.payload));
+
+					int sections = buf.readVarInt();
+					for(int i = 0; i < sections; i++) {
+						BlockPos pos = BlockPos.fromLong(buf.readLong());
+
+						int runs = buf.readUnsignedShort();
+						for(int j = 0; j < runs; j++) {
+							int start = buf.readUnsignedShort();
+							int length = buf.readUnsignedShort();
+							for(int k = start; k < start + length; k++) {
+								byte data = buf.readByte();
+								if(k < 512) {
+									guard.setSectionData(pos, k, data);
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+}
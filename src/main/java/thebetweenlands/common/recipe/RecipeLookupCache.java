@@ -0,0 +1,180 @@
+package thebetweenlands.common.recipe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.relauncher.Side;
+
+/**
+ * Caches the first recipe of a recipe list that matches an item stack, indexed by item, meta and NBT,
+ * so that repeated lookups of the same input don't have to test every recipe. Inputs that aren't
+ * cached yet fall back to testing the recipes in order. Matching is assumed to not depend on the stack size.
+ * Recipes whose matching depends on more than the item, meta and NBT (e.g. on player data) can be excluded
+ * from the cache, those are always tested in order. Lookups are cached separately for each logical side.
+ * The cache must be invalidated with {@link #invalidate()} whenever the recipe list changes.
+ * @param <R> Recipe type
+ */
+public class RecipeLookupCache<R> {
+	private static final int MAX_NBT_ENTRIES = 8;
+
+	private final List<? extends R> recipes;
+	private final BiPredicate<R, ItemStack> matcher;
+	private final Predicate<R> cacheable;
+
+	private final Reference2ObjectMap<Item, Int2ObjectMap<Entry>> clientEntries = new Reference2ObjectOpenHashMap<>();
+	private final Reference2ObjectMap<Item, Int2ObjectMap<Entry>> serverEntries = new Reference2ObjectOpenHashMap<>();
+
+	//Indices of the recipes that aren't cached, null if not determined yet
+	@Nullable
+	private int[] uncachedRecipes;
+
+	private int version = 0;
+
+	private static final class Entry {
+		private boolean resolved;
+		private int recipe;
+		private final List<NBTTagCompound> nbtKeys = new ArrayList<>(0);
+		private final IntArrayList nbtRecipes = new IntArrayList(0);
+	}
+
+	/**
+	 * @param recipes List of recipes to search. The list is not copied
+	 * @param matcher Returns whether a recipe matches an item stack
+	 */
+	public RecipeLookupCache(List<? extends R> recipes, BiPredicate<R, ItemStack> matcher) {
+		this(recipes, matcher, recipe -> true);
+	}
+
+	/**
+	 * @param recipes List of recipes to search. The list is not copied
+	 * @param matcher Returns whether a recipe matches an item stack
+	 * @param cacheable Returns whether the match result of a recipe only depends on the item, meta and NBT
+	 * of the item stack and can be cached
+	 */
+	public RecipeLookupCache(List<? extends R> recipes, BiPredicate<R, ItemStack> matcher, Predicate<R> cacheable) {
+		this.recipes = recipes;
+		this.matcher = matcher;
+		this.cacheable = cacheable;
+	}
+
+	/**
+	 * Returns the first recipe that matches the specified item stack
+	 * @param stack
+	 * @return
+	 */
+	@Nullable
+	public synchronized R get(ItemStack stack) {
+		int index = this.getCachedIndex(stack);
+
+		//Recipes that aren't cached are tested in order up to the first matching cached recipe
+		for(int uncachedIndex : this.getUncachedRecipes()) {
+			if(index >= 0 && uncachedIndex > index) {
+				break;
+			}
+			R recipe = this.recipes.get(uncachedIndex);
+			if(this.matcher.test(recipe, stack)) {
+				return recipe;
+			}
+		}
+
+		return index >= 0 ? this.recipes.get(index) : null;
+	}
+
+	private int getCachedIndex(ItemStack stack) {
+		//Matching may depend on side specific data, e.g. data that is only available on the server
+		Reference2ObjectMap<Item, Int2ObjectMap<Entry>> entries = FMLCommonHandler.instance().getEffectiveSide() == Side.CLIENT ? this.clientEntries : this.serverEntries;
+
+		Int2ObjectMap<Entry> entriesByMeta = entries.get(stack.getItem());
+		if(entriesByMeta == null) {
+			entries.put(stack.getItem(), entriesByMeta = new Int2ObjectOpenHashMap<>());
+		}
+
+		Entry entry = entriesByMeta.get(stack.getMetadata());
+		if(entry == null) {
+			entriesByMeta.put(stack.getMetadata(), entry = new Entry());
+		}
+
+		NBTTagCompound nbt = stack.getTagCompound();
+
+		if(nbt == null) {
+			if(!entry.resolved) {
+				entry.recipe = this.find(stack);
+				entry.resolved = true;
+			}
+			return entry.recipe;
+		}
+
+		for(int i = 0; i < entry.nbtKeys.size(); i++) {
+			if(entry.nbtKeys.get(i).equals(nbt)) {
+				return entry.nbtRecipes.getInt(i);
+			}
+		}
+
+		int index = this.find(stack);
+		if(entry.nbtKeys.size() < MAX_NBT_ENTRIES) {
+			entry.nbtKeys.add(nbt.copy());
+			entry.nbtRecipes.add(index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the index of the first cacheable recipe that matches the item stack, or -1 if there is none
+	 * @param stack
+	 * @return
+	 */
+	private int find(ItemStack stack) {
+		for(int i = 0; i < this.recipes.size(); i++) {
+			R recipe = this.recipes.get(i);
+			if(this.cacheable.test(recipe) && this.matcher.test(recipe, stack)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int[] getUncachedRecipes() {
+		if(this.uncachedRecipes == null) {
+			IntArrayList indices = new IntArrayList();
+			for(int i = 0; i < this.recipes.size(); i++) {
+				if(!this.cacheable.test(this.recipes.get(i))) {
+					indices.add(i);
+				}
+			}
+			this.uncachedRecipes = indices.toIntArray();
+		}
+		return this.uncachedRecipes;
+	}
+
+	/**
+	 * Clears all cached lookups. Must be called when the recipe list changes
+	 */
+	public synchronized void invalidate() {
+		this.clientEntries.clear();
+		this.serverEntries.clear();
+		this.uncachedRecipes = null;
+		this.version++;
+	}
+
+	/**
+	 * Returns a number that changes whenever the cache is invalidated.
+	 * Can be used to check whether a previously looked up recipe is still valid
+	 * @return
+	 */
+	public synchronized int getVersion() {
+		return this.version;
+	}
+}
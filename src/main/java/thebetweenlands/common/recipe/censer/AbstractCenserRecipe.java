@@ -14,16 +14,23 @@ import thebetweenlands.api.aspect.IAspectType;
 import thebetweenlands.api.block.ICenser;
 import thebetweenlands.api.recipes.ICenserRecipe;
 import thebetweenlands.client.handler.ItemTooltipHandler;
+import thebetweenlands.common.recipe.RecipeLookupCache;
 
 public abstract class AbstractCenserRecipe<T> implements ICenserRecipe<T> {
 	private static final List<ICenserRecipe<?>> RECIPES = new ArrayList<ICenserRecipe<?>>();
+	private static final RecipeLookupCache<ICenserRecipe<?>> LOOKUP = new RecipeLookupCache<>(RECIPES, (recipe, stack) -> recipe.matchesInput(stack));
+	private static final RecipeLookupCache<ICenserRecipe<?>> SECONDARY_LOOKUP = new RecipeLookupCache<>(RECIPES, (recipe, stack) -> recipe.matchesSecondaryInput(stack));
 
 	public static void addRecipe(ICenserRecipe<?> recipe) {
 		RECIPES.add(recipe);
+		LOOKUP.invalidate();
+		SECONDARY_LOOKUP.invalidate();
 	}
 
 	public static void removeRecipe(ICenserRecipe<?> recipe) {
 		RECIPES.remove(recipe);
+		LOOKUP.invalidate();
+		SECONDARY_LOOKUP.invalidate();
 	}
 
 	public static List<ICenserRecipe<?>> getRecipes() {
@@ -32,22 +39,14 @@ public abstract class AbstractCenserRecipe<T> implements ICenserRecipe<T> {
 
 	public static ICenserRecipe<?> getRecipe(ItemStack input) {
 		if(!input.isEmpty()) {
-			for(ICenserRecipe<?> recipe : AbstractCenserRecipe.getRecipes()) {
-				if(recipe.matchesInput(input)) {
-					return recipe;
-				}
-			}
+			return LOOKUP.get(input);
 		}
 		return null;
 	}
 
 	public static ICenserRecipe<?> getRecipeWithSecondaryInput(ItemStack secondaryStack) {
 		if(!secondaryStack.isEmpty()) {
-			for(ICenserRecipe<?> recipe : AbstractCenserRecipe.getRecipes()) {
-				if(recipe.matchesSecondaryInput(secondaryStack)) {
-					return recipe;
-				}
-			}
+			return SECONDARY_LOOKUP.get(secondaryStack);
 		}
 		return null;
 	}
@@ -15,6 +15,8 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import net.minecraftforge.oredict.OreDictionary;
 import thebetweenlands.api.recipes.IAnimatorRecipe;
+import thebetweenlands.common.recipe.RecipeLookupCache;
+import thebetweenlands.common.recipe.animator.ToolRepairAnimatorRecipe;
 import thebetweenlands.common.tile.TileEntityAnimator;
 
 public class AnimatorRecipe implements IAnimatorRecipe {
@@ -161,13 +163,18 @@ public class AnimatorRecipe implements IAnimatorRecipe {
 	}
 
 	private static final List<IAnimatorRecipe> RECIPES = new ArrayList<IAnimatorRecipe>();
+	//Only recipes known to match by item, meta and NBT are cached, others like the ring of gathering recipe depend on player data
+	private static final RecipeLookupCache<IAnimatorRecipe> LOOKUP = new RecipeLookupCache<>(RECIPES, IAnimatorRecipe::matchesInput,
+			recipe -> recipe instanceof AnimatorRecipe || recipe instanceof ToolRepairAnimatorRecipe);
 
 	public static void addRecipe(IAnimatorRecipe recipe) {
 		RECIPES.add(recipe);
+		LOOKUP.invalidate();
 	}
 
 	public static void removeRecipe(IAnimatorRecipe recipe) {
 		RECIPES.remove(recipe);
+		LOOKUP.invalidate();
 	}
 
 	public static List<IAnimatorRecipe> getRecipes() {
@@ -176,15 +183,19 @@ public class AnimatorRecipe implements IAnimatorRecipe {
 
 	public static IAnimatorRecipe getRecipe(ItemStack input) {
 		if(!input.isEmpty()) {
-			for(IAnimatorRecipe recipe : AnimatorRecipe.getRecipes()) {
-				if(recipe.matchesInput(input)) {
-					return recipe;
-				}
-			}
+			return LOOKUP.get(input);
 		}
 		return null;
 	}
 
+	/**
+	 * Returns a number that changes whenever a recipe is added or removed
+	 * @return
+	 */
+	public static int getRecipesVersion() {
+		return LOOKUP.getVersion();
+	}
+
 	@Deprecated
 	public static IAnimatorRecipe getRecipeFromOutput(ItemStack output) {
 		return null;
@@ -8,9 +8,11 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.oredict.OreDictionary;
 import thebetweenlands.api.recipes.ICompostBinRecipe;
+import thebetweenlands.common.recipe.RecipeLookupCache;
 
 public class CompostRecipe implements ICompostBinRecipe {
 	public static final List<ICompostBinRecipe> RECIPES = new ArrayList<ICompostBinRecipe>();
+	private static final RecipeLookupCache<ICompostBinRecipe> LOOKUP = new RecipeLookupCache<>(RECIPES, ICompostBinRecipe::matchesInput);
 
 	private ItemStack input;
 	private int compostAmount;
@@ -30,18 +32,20 @@ public class CompostRecipe implements ICompostBinRecipe {
 
 	public static void addRecipe(ICompostBinRecipe recipe) {
 		RECIPES.add(recipe);
+		LOOKUP.invalidate();
 	}
 
 	public static void addRecipe(int compostAmount, int compostTime, ItemStack stack) {
-		RECIPES.add(new CompostRecipe(compostAmount, compostTime, stack));
+		addRecipe(new CompostRecipe(compostAmount, compostTime, stack));
 	}
 
 	public static void addRecipe(int compostAmount, int compostTime, Item compostItem) {
-		RECIPES.add(new CompostRecipe(compostAmount, compostTime, compostItem));
+		addRecipe(new CompostRecipe(compostAmount, compostTime, compostItem));
 	}
 
 	public static void removeRecipe(ICompostBinRecipe recipe) {
 		RECIPES.remove(recipe);
+		LOOKUP.invalidate();
 	}
 
 	public static Item getItem(Block block) {
@@ -49,11 +53,7 @@ public class CompostRecipe implements ICompostBinRecipe {
 	}
 
 	public static ICompostBinRecipe getCompostRecipe(ItemStack stack) {
-		for (ICompostBinRecipe compostRecipe : RECIPES) {
-			if (compostRecipe.matchesInput(stack))
-				return compostRecipe;
-		}
-		return null;
+		return LOOKUP.get(stack);
 	}
 
 	@Override
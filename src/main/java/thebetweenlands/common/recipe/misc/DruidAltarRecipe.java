@@ -9,9 +9,11 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.oredict.OreDictionary;
 import thebetweenlands.api.recipes.IDruidAltarRecipe;
+import thebetweenlands.common.recipe.RecipeLookupCache;
 
 public class DruidAltarRecipe implements IDruidAltarRecipe {
 	private static ArrayList<IDruidAltarRecipe> druidAltarRecipes = new ArrayList<IDruidAltarRecipe>();
+	private static final RecipeLookupCache<IDruidAltarRecipe> validItemLookup = new RecipeLookupCache<>(druidAltarRecipes, IDruidAltarRecipe::containsInputItem);
 
 	private ItemStack input1;
 	private ItemStack input2;
@@ -29,14 +31,16 @@ public class DruidAltarRecipe implements IDruidAltarRecipe {
 
 	public static void addRecipe(IDruidAltarRecipe recipe) {
 		druidAltarRecipes.add(recipe);
+		validItemLookup.invalidate();
 	}
 
 	public static void addRecipe(ItemStack input1, ItemStack input2, ItemStack input3, ItemStack input4, ItemStack output) {
-		druidAltarRecipes.add(new DruidAltarRecipe(input1, input2, input3, input4, output));
+		addRecipe(new DruidAltarRecipe(input1, input2, input3, input4, output));
 	}
 
 	public static void removeRecipe(IDruidAltarRecipe recipe) {
 		druidAltarRecipes.remove(recipe);
+		validItemLookup.invalidate();
 	}
 
 	public static List<IDruidAltarRecipe> getRecipes() {
@@ -66,12 +70,7 @@ public class DruidAltarRecipe implements IDruidAltarRecipe {
 	}
 
 	public static boolean isValidItem(ItemStack stack) {
-		for (IDruidAltarRecipe recipe : druidAltarRecipes) {
-			if(recipe.containsInputItem(stack)) {
-				return true;
-			}
-		}
-		return false;
+		return validItemLookup.get(stack) != null;
 	}
 
 	private static boolean matches(ItemStack input, ItemStack toCheck) {
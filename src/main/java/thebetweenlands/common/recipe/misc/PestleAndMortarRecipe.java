@@ -8,11 +8,13 @@ import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.oredict.OreDictionary;
 import thebetweenlands.api.recipes.IPestleAndMortarRecipe;
+import thebetweenlands.common.recipe.RecipeLookupCache;
 
 import javax.annotation.Nonnull;
 
 public class PestleAndMortarRecipe implements IPestleAndMortarRecipe {
     private static final List<IPestleAndMortarRecipe> recipes = new ArrayList<IPestleAndMortarRecipe>();
+    private static final RecipeLookupCache<IPestleAndMortarRecipe> lookup = new RecipeLookupCache<>(recipes, IPestleAndMortarRecipe::matchesInput);
 
     /**
      *
@@ -22,23 +24,24 @@ public class PestleAndMortarRecipe implements IPestleAndMortarRecipe {
      *            the input item for the recipe
      */
     public static void addRecipe(ItemStack output, ItemStack input) {
-        recipes.add(new PestleAndMortarRecipe(output, input));
+        addRecipe(new PestleAndMortarRecipe(output, input));
     }
     
     public static void addRecipe(IPestleAndMortarRecipe recipe) {
         recipes.add(recipe);
+        lookup.invalidate();
     }
 
     public static void removeRecipe(IPestleAndMortarRecipe recipe) {
     	recipes.remove(recipe);
+    	lookup.invalidate();
     }
 
     @MethodsReturnNonnullByDefault
     public static ItemStack getResult(ItemStack input) {
-        for (IPestleAndMortarRecipe recipe : recipes) {
-            if (recipe.matchesInput(input)) {
-                return recipe.getOutput(input);
-            }
+        IPestleAndMortarRecipe recipe = lookup.get(input);
+        if (recipe != null) {
+            return recipe.getOutput(input);
         }
         return ItemStack.EMPTY;
     }
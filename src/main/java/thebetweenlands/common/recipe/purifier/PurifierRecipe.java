@@ -8,9 +8,11 @@ import mcp.MethodsReturnNonnullByDefault;
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.oredict.OreDictionary;
 import thebetweenlands.api.recipes.IPurifierRecipe;
+import thebetweenlands.common.recipe.RecipeLookupCache;
 
 public abstract class PurifierRecipe implements IPurifierRecipe {
 	private static final List<IPurifierRecipe> RECIPES = new ArrayList<IPurifierRecipe>();
+	private static final RecipeLookupCache<IPurifierRecipe> LOOKUP = new RecipeLookupCache<>(RECIPES, IPurifierRecipe::matchesInput);
 
 	private static final PurifierRecipeCorrodible CORRODIBLE_ITEMS_RECIPE = new PurifierRecipeCorrodible();
 	private static final PurifierRecipeAspectVial ASPECT_VIAL_ITEMS_RECIPE = new PurifierRecipeAspectVial();
@@ -31,23 +33,24 @@ public abstract class PurifierRecipe implements IPurifierRecipe {
 	 * @param input the input item for the recipe
 	 */
 	public static void addRecipe(ItemStack output, ItemStack input) {
-		RECIPES.add(new PurifierRecipeStandard(output, input));
+		addRecipe(new PurifierRecipeStandard(output, input));
 	}
 
 	public static void addRecipe(IPurifierRecipe recipe) {
 		RECIPES.add(recipe);
+		LOOKUP.invalidate();
 	}
 	
 	public static void removeRecipe(IPurifierRecipe recipe) {
 		RECIPES.remove(recipe);
+		LOOKUP.invalidate();
 	}
 
 	@MethodsReturnNonnullByDefault
 	public static ItemStack getRecipeOutput(ItemStack input) {
-		for (IPurifierRecipe recipe : RECIPES) {
-			if (recipe.matchesInput(input)) {
-				return recipe.getOutput(input);
-			}
+		IPurifierRecipe recipe = LOOKUP.get(input);
+		if (recipe != null) {
+			return recipe.getOutput(input);
 		}
 		return ItemStack.EMPTY;
 	}
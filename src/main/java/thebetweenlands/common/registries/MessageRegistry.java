@@ -11,10 +11,11 @@ import net.minecraftforge.fml.relauncher.Side;
 import thebetweenlands.common.TheBetweenlands;
 import thebetweenlands.common.network.MessageBase;
 import thebetweenlands.common.network.bidirectional.MessageUpdateDraetonPhysicsPart;
+import thebetweenlands.common.network.bidirectional.MessageUpdateDraetonPhysicsParts;
 import thebetweenlands.common.network.clientbound.MessageAddLocalStorage;
 import thebetweenlands.common.network.clientbound.MessageAmateMap;
 import thebetweenlands.common.network.clientbound.MessageBlockGuardData;
-import thebetweenlands.common.network.clientbound.MessageBlockGuardSectionChange;
+import thebetweenlands.common.network.clientbound.MessageBlockGuardChanges;
 import thebetweenlands.common.network.clientbound.MessageClearBlockGuard;
 import thebetweenlands.common.network.clientbound.MessageCureDecayParticles;
 import thebetweenlands.common.network.clientbound.MessageDamageReductionParticle;
@@ -78,7 +79,7 @@ public class MessageRegistry {
 		registerMessage(MessageWightVolatileParticles.class, Side.CLIENT);
 		registerMessage(MessageGemProc.class, Side.CLIENT);
 		registerMessage(MessageMireSnailEggHatching.class, Side.CLIENT);
-		registerMessage(MessageBlockGuardSectionChange.class, Side.CLIENT);
+		registerMessage(MessageBlockGuardChanges.class, Side.CLIENT);
 		registerMessage(MessageBlockGuardData.class, Side.CLIENT);
 		registerMessage(MessageClearBlockGuard.class, Side.CLIENT);
 		registerMessage(MessagePlayEntityIdle.class, Side.CLIENT);
@@ -98,6 +99,7 @@ public class MessageRegistry {
 		registerMessage(MessageSyncGameRules.class, Side.CLIENT);
 		registerMessage(MessageCureDecayParticles.class, Side.CLIENT);
 		registerMessage(MessageUpdateDraetonPhysicsPart.class, Side.CLIENT);
+		registerMessage(MessageUpdateDraetonPhysicsParts.class, Side.CLIENT);
 		registerMessage(MessageSyncDraetonLeakages.class, Side.CLIENT);
 		registerMessage(MessageShockArrowHit.class, Side.CLIENT);
 		registerMessage(MessagePlayerRuneChainPacket.class, Side.CLIENT);
@@ -120,6 +122,7 @@ public class MessageRegistry {
 		registerMessage(MessageUnlinkRuneWeavingTableRune.class, Side.SERVER);
 		registerMessage(MessageSetRuneWeavingTableConfiguration.class, Side.SERVER);
 		registerMessage(MessageUpdateDraetonPhysicsPart.class, Side.SERVER);
+		registerMessage(MessageUpdateDraetonPhysicsParts.class, Side.SERVER);
 		registerMessage(MessageSetDraetonAnchorPos.class, Side.SERVER);
 		registerMessage(MessagePurgeDraetonBurner.class, Side.SERVER);
 		registerMessage(MessageChiromawDoubleJump.class, Side.SERVER);
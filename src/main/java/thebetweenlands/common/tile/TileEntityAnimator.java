@@ -46,7 +46,7 @@ public class TileEntityAnimator extends TileEntityBasicInventory implements ITic
         if (isSlotInUse(0) && isValidFocalItem()) {
             this.itemToAnimate = this.inventory.get(0);
             if(!this.world.isRemote) {
-	            IAnimatorRecipe recipe = AnimatorRecipe.getRecipe(this.itemToAnimate);
+	            IAnimatorRecipe recipe = this.getFocalItemRecipe();
 	            if (recipe != null) {
 	                this.requiredFuelCount = recipe.getRequiredFuel(this.itemToAnimate);
 	                this.requiredLifeCount = recipe.getRequiredLife(this.itemToAnimate);
@@ -84,7 +84,7 @@ public class TileEntityAnimator extends TileEntityBasicInventory implements ITic
             }
 
             if (fuelConsumed >= requiredFuelCount && isSlotInUse(0) && isSlotInUse(1) && !this.itemAnimated) {
-                IAnimatorRecipe recipe = AnimatorRecipe.getRecipe(inventory.get(0));
+                IAnimatorRecipe recipe = this.getFocalItemRecipe();
                 if(recipe != null) {
 	                ItemStack result = recipe.onAnimated(this.world, getPos(), inventory.get(0));
 	                if (result.isEmpty()) result = recipe.getResult(inventory.get(0));
@@ -161,7 +161,17 @@ public class TileEntityAnimator extends TileEntityBasicInventory implements ITic
     }
 
     public boolean isValidFocalItem() {
-        return !inventory.get(0).isEmpty() && AnimatorRecipe.getRecipe(inventory.get(0)) != null;
+        return !inventory.get(0).isEmpty() && this.getFocalItemRecipe() != null;
+    }
+
+    /**
+     * Returns the recipe of the item in the focal slot. The lookup is cached
+     * by item, meta and NBT, see {@link AnimatorRecipe#getRecipe(ItemStack)}
+     * @return
+     */
+    @Nullable
+    public IAnimatorRecipe getFocalItemRecipe() {
+        return AnimatorRecipe.getRecipe(this.inventory.get(0));
     }
 
     public void sendGUIData(ContainerAnimator animator, IContainerListener listener) {
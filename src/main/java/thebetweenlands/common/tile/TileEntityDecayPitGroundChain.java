@@ -2,7 +2,6 @@ package thebetweenlands.common.tile;
 
 import java.util.List;
 
-import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.projectile.EntityArrow;
 import net.minecraft.init.SoundEvents;
@@ -13,6 +12,7 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.math.AxisAlignedBB;
+import thebetweenlands.common.world.ProximityTrigger;
 
 public class TileEntityDecayPitGroundChain extends TileEntity implements ITickable {
 
@@ -24,6 +24,7 @@ public class TileEntityDecayPitGroundChain extends TileEntity implements ITickab
 	public boolean IS_RAISING = false;
 	public boolean IS_BROKEN = false;
 	public int breakTimer = 0;
+	private ProximityTrigger<EntityArrow> arrowTrigger;
 	@Override
 	public void update() {
 		animationTicksChainPrev = animationTicksChain;
@@ -37,8 +38,7 @@ public class TileEntityDecayPitGroundChain extends TileEntity implements ITickab
 					animationTicksChain += 8;
 		}
 
-		if (getEntityCollidedWithChains(getHangingLengthCollision(0.625F, 5F, 0.625F)) != null)
-			checkCollisions(getEntityCollidedWithChains(getHangingLengthCollision(0.625F, 5F, 0.625F)));
+		checkCollisions(getArrowTrigger().getEntities());
 
 		if (animationTicksChainPrev >= 128) {
 			animationTicksChain = animationTicksChainPrev = 0;
@@ -60,23 +60,43 @@ public class TileEntityDecayPitGroundChain extends TileEntity implements ITickab
 		}	
 	}
 
-	public List<Entity> getEntityCollidedWithChains(AxisAlignedBB chainBox) {
-		return getWorld().<Entity>getEntitiesWithinAABB(Entity.class, chainBox);
-    }
+	private ProximityTrigger<EntityArrow> getArrowTrigger() {
+		if (arrowTrigger == null) {
+			arrowTrigger = new ProximityTrigger<>(getWorld(), getHangingLengthCollision(0.625F, 5F, 0.625F), EntityArrow.class);
+			arrowTrigger.register();
+		}
+		return arrowTrigger;
+	}
 
-	private void checkCollisions(List<Entity> list) {
-		for (Entity entity : list) {
-			if (entity instanceof EntityArrow) { // just arrows for now
-				Entity arrow = ((EntityArrow) entity);
-				arrow.setPositionAndUpdate(arrow.prevPosX, arrow.prevPosY, arrow.prevPosZ);
-				arrow.motionX *= -0.10000000149011612D;
-				arrow.motionY *= -0.10000000149011612D;
-				arrow.motionZ *= -0.10000000149011612D;
-				arrow.rotationYaw += 180.0F;
-				arrow.prevRotationYaw += 180.0F;
-				getWorld().playSound((EntityPlayer) null, arrow.posX, arrow.posY, arrow.posZ, SoundEvents.BLOCK_ANVIL_LAND, SoundCategory.BLOCKS, 0.5F, 3F);
-				// this.ticksInAir = 0;
-			}
+	private void unregisterArrowTrigger() {
+		if (arrowTrigger != null) {
+			arrowTrigger.unregister();
+			arrowTrigger = null;
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		unregisterArrowTrigger();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		unregisterArrowTrigger();
+	}
+
+	private void checkCollisions(List<EntityArrow> list) {
+		for (EntityArrow arrow : list) { // just arrows for now
+			arrow.setPositionAndUpdate(arrow.prevPosX, arrow.prevPosY, arrow.prevPosZ);
+			arrow.motionX *= -0.10000000149011612D;
+			arrow.motionY *= -0.10000000149011612D;
+			arrow.motionZ *= -0.10000000149011612D;
+			arrow.rotationYaw += 180.0F;
+			arrow.prevRotationYaw += 180.0F;
+			getWorld().playSound((EntityPlayer) null, arrow.posX, arrow.posY, arrow.posZ, SoundEvents.BLOCK_ANVIL_LAND, SoundCategory.BLOCKS, 0.5F, 3F);
+			// this.ticksInAir = 0;
 		}
 	}
 
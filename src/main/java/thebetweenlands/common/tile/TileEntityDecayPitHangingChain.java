@@ -4,7 +4,6 @@ import java.util.List;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.audio.ISound;
-import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.projectile.EntityArrow;
 import net.minecraft.init.SoundEvents;
@@ -21,6 +20,7 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import thebetweenlands.client.audio.DecayPitChainSound;
 import thebetweenlands.common.registries.BlockRegistry;
+import thebetweenlands.common.world.ProximityTrigger;
 
 public class TileEntityDecayPitHangingChain extends TileEntity implements ITickable {
 
@@ -32,6 +32,9 @@ public class TileEntityDecayPitHangingChain extends TileEntity implements ITicka
 	public boolean IS_SLOW = false;
 	public boolean IS_BROKEN = false;
 	public boolean playChainSound = true;
+	//Same as EntityDecayPitTarget#MAX_PROGRESS
+	private static final int MAX_PROGRESS = 768;
+	private ProximityTrigger<EntityArrow> arrowTrigger;
 	
 	@Override
 	public void update() {
@@ -53,17 +56,13 @@ public class TileEntityDecayPitHangingChain extends TileEntity implements ITicka
 			if(!getWorld().isRemote)
 				getWorld().setBlockState(getPos(), BlockRegistry.COMPACTED_MUD.getDefaultState(), 3);
 
-		if (getEntityCollidedWithChains(getHangingLengthCollision(1, 0, 2F + getProgress() * MOVE_UNIT)) != null)
-			checkCollisions(getEntityCollidedWithChains(getHangingLengthCollision(1, 0, 2F + getProgress() * MOVE_UNIT)));
-
-		if (getEntityCollidedWithChains(getHangingLengthCollision(-1, 0, 2F + getProgress() * MOVE_UNIT)) != null)
-			checkCollisions(getEntityCollidedWithChains(getHangingLengthCollision(-1, 0, 2F + getProgress() * MOVE_UNIT)));
-
-		if (getEntityCollidedWithChains(getHangingLengthCollision(0, 1, 2F + getProgress() * MOVE_UNIT)) != null)
-			checkCollisions(getEntityCollidedWithChains(getHangingLengthCollision(0, 1, 2F + getProgress() * MOVE_UNIT)));
-
-		if (getEntityCollidedWithChains(getHangingLengthCollision(0, -1, 2F + getProgress() * MOVE_UNIT)) != null)
-			checkCollisions(getEntityCollidedWithChains(getHangingLengthCollision(0, -1, 2F + getProgress() * MOVE_UNIT)));
+		List<EntityArrow> arrows = getArrowTrigger().getEntities();
+		if (!arrows.isEmpty()) {
+			checkCollisions(arrows, getHangingLengthCollision(1, 0, 2F + getProgress() * MOVE_UNIT));
+			checkCollisions(arrows, getHangingLengthCollision(-1, 0, 2F + getProgress() * MOVE_UNIT));
+			checkCollisions(arrows, getHangingLengthCollision(0, 1, 2F + getProgress() * MOVE_UNIT));
+			checkCollisions(arrows, getHangingLengthCollision(0, -1, 2F + getProgress() * MOVE_UNIT));
+		}
 
 		if (animationTicksChainPrev >= 128) {
 			animationTicksChain = animationTicksChainPrev = 0;
@@ -99,14 +98,41 @@ public class TileEntityDecayPitHangingChain extends TileEntity implements ITicka
 		//TODO Add final chain sound/other thing
 	}
 	
-	public List<Entity> getEntityCollidedWithChains(AxisAlignedBB chainBox) {
-		return getWorld().<Entity>getEntitiesWithinAABB(Entity.class, chainBox);
-    }
+	/**
+	 * Returns the trigger for the arrows around all four chains at their maximum length
+	 * @return
+	 */
+	private ProximityTrigger<EntityArrow> getArrowTrigger() {
+		if (arrowTrigger == null) {
+			AxisAlignedBB area = getHangingLengthCollision(-1, -1, 2F + MAX_PROGRESS * MOVE_UNIT).union(getHangingLengthCollision(1, 1, 2F + MAX_PROGRESS * MOVE_UNIT));
+			arrowTrigger = new ProximityTrigger<>(getWorld(), area, EntityArrow.class);
+			arrowTrigger.register();
+		}
+		return arrowTrigger;
+	}
+
+	private void unregisterArrowTrigger() {
+		if (arrowTrigger != null) {
+			arrowTrigger.unregister();
+			arrowTrigger = null;
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		unregisterArrowTrigger();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		unregisterArrowTrigger();
+	}
 
-	private void checkCollisions(List<Entity> list) {
-		for (Entity entity : list) {
-			if (entity instanceof EntityArrow) { // just arrows for now
-				Entity arrow = ((EntityArrow) entity);
+	private void checkCollisions(List<EntityArrow> arrows, AxisAlignedBB chainBox) {
+		for (EntityArrow arrow : arrows) { // just arrows for now
+			if (arrow.getEntityBoundingBox().intersects(chainBox)) {
 				arrow.setPositionAndUpdate(arrow.prevPosX, arrow.prevPosY, arrow.prevPosZ);
 				arrow.motionX *= -0.10000000149011612D;
 				arrow.motionY *= -0.10000000149011612D;
@@ -29,6 +29,7 @@ import thebetweenlands.common.entity.mobs.EntityBarrishee;
 import thebetweenlands.common.entity.mobs.EntityCryptCrawler;
 import thebetweenlands.common.registries.BlockRegistry;
 import thebetweenlands.common.registries.SoundRegistry;
+import thebetweenlands.common.world.ProximityTrigger;
 import thebetweenlands.common.world.gen.feature.structure.LightTowerBuildParts;
 
 public class TileEntityDungeonDoorRunes extends TileEntity implements ITickable, IEntityScreenShake {
@@ -36,6 +37,8 @@ public class TileEntityDungeonDoorRunes extends TileEntity implements ITickable,
 	
 	private boolean mimic; // true = trap
 	private boolean barrishee; // true = Barrishee / false = Crypt Crawler Chief
+	private ProximityTrigger<EntityLivingBase> hitAreaTrigger;
+	private EnumFacing hitAreaFacing;
 	public int top_code = -1, mid_code = -1, bottom_code = -1; // set back to -1
 	public int top_state = 0, mid_state = 0, bottom_state = 0;
 	public int top_state_prev = 0, mid_state_prev = 0, bottom_state_prev = 0;
@@ -111,7 +114,6 @@ public class TileEntityDungeonDoorRunes extends TileEntity implements ITickable,
 	public void crashingParticles(float ySpikeVel) { // used for damaging entities too atm
 		IBlockState state = getWorld().getBlockState(getPos());
 		EnumFacing facing = state.getValue(BlockDungeonDoorRunes.FACING);
-		AxisAlignedBB hitBox = new AxisAlignedBB(getPos().offset(facing, 2)).grow(1D);
 		if (facing == EnumFacing.EAST) {
 			for (int x = 1; x <= 3; x++)
 				for (int z = -1; z <= 1; z++)
@@ -140,14 +142,44 @@ public class TileEntityDungeonDoorRunes extends TileEntity implements ITickable,
 						spawnCrashingParticles(getPos().add(x, -1, z), 0F + ySpikeVel);
 		}
 
-		List<EntityLivingBase> list = getWorld().getEntitiesWithinAABB(EntityLivingBase.class, hitBox);
-		for (int i = 0; i < list.size(); i++) {
-			Entity entity = list.get(i);
-			if (entity != null)
-				if (entity instanceof EntityLivingBase && !(entity instanceof EntityBarrishee))
-					if (!getWorld().isRemote)
-						entity.attackEntityFrom(DamageSource.FALLING_BLOCK, 10F); // dunno what damage to do yet...
+		if (!getWorld().isRemote) {
+			List<EntityLivingBase> list = getHitAreaTrigger(facing).getEntities();
+			for (int i = 0; i < list.size(); i++) {
+				Entity entity = list.get(i);
+				if (!(entity instanceof EntityBarrishee))
+					entity.attackEntityFrom(DamageSource.FALLING_BLOCK, 10F); // dunno what damage to do yet...
+			}
+		}
+	}
+
+	private ProximityTrigger<EntityLivingBase> getHitAreaTrigger(EnumFacing facing) {
+		if (hitAreaTrigger == null || hitAreaFacing != facing) {
+			if (hitAreaTrigger != null)
+				hitAreaTrigger.unregister();
+			hitAreaTrigger = new ProximityTrigger<>(getWorld(), new AxisAlignedBB(getPos().offset(facing, 2)).grow(1D), EntityLivingBase.class);
+			hitAreaTrigger.register();
+			hitAreaFacing = facing;
 		}
+		return hitAreaTrigger;
+	}
+
+	private void unregisterHitAreaTrigger() {
+		if (hitAreaTrigger != null) {
+			hitAreaTrigger.unregister();
+			hitAreaTrigger = null;
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		unregisterHitAreaTrigger();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		unregisterHitAreaTrigger();
 	}
 
 	//TODO shrink all this in to 1 method and eventually in to BL particles
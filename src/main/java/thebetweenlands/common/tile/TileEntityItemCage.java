@@ -3,7 +3,6 @@ package thebetweenlands.common.tile;
 import java.util.List;
 
 import net.minecraft.entity.Entity;
-import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.NetworkManager;
@@ -12,6 +11,7 @@ import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.math.AxisAlignedBB;
 import thebetweenlands.common.entity.EntitySwordEnergy;
+import thebetweenlands.common.world.ProximityTrigger;
 
 
 public class TileEntityItemCage extends TileEntity implements ITickable {
@@ -19,6 +19,8 @@ public class TileEntityItemCage extends TileEntity implements ITickable {
 	public byte type; // type will be used for each sword part rendering
 	public boolean canBreak;
 
+	private ProximityTrigger<EntityPlayer> occupantTrigger;
+
 	@Override
 	public void update() {
 		if (!world.isRemote) {
@@ -44,7 +46,11 @@ public class TileEntityItemCage extends TileEntity implements ITickable {
 
 	@SuppressWarnings("unchecked")
 	protected Entity isBlockOccupied() {
-		List<EntityLivingBase> list = world.getEntitiesWithinAABB(EntityLivingBase.class, new AxisAlignedBB(pos.getX() + 0.25D, pos.getY() - 3D, pos.getZ() + 0.25D, pos.getX() + 0.75D, pos.getY(), pos.getZ() + 0.75D));
+		if (occupantTrigger == null) {
+			occupantTrigger = new ProximityTrigger<>(world, new AxisAlignedBB(pos.getX() + 0.25D, pos.getY() - 3D, pos.getZ() + 0.25D, pos.getX() + 0.75D, pos.getY(), pos.getZ() + 0.75D), EntityPlayer.class);
+			occupantTrigger.register();
+		}
+		List<EntityPlayer> list = occupantTrigger.getEntities();
 		for (int i = 0; i < list.size(); i++) {
 			Entity entity = list.get(i);
 			if (entity != null)
@@ -65,6 +71,25 @@ public class TileEntityItemCage extends TileEntity implements ITickable {
 		return null;
 	}
 
+	private void unregisterOccupantTrigger() {
+		if (occupantTrigger != null) {
+			occupantTrigger.unregister();
+			occupantTrigger = null;
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		unregisterOccupantTrigger();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		unregisterOccupantTrigger();
+	}
+
 	@Override
 	public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
 		super.writeToNBT(nbt);
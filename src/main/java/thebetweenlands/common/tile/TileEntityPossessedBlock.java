@@ -19,6 +19,7 @@ import net.minecraft.util.math.MathHelper;
 import thebetweenlands.client.render.particle.BLParticles;
 import thebetweenlands.common.block.structure.BlockPossessedBlock;
 import thebetweenlands.common.registries.SoundRegistry;
+import thebetweenlands.common.world.ProximityTrigger;
 import thebetweenlands.util.AnimationMathHelper;
 
 public class TileEntityPossessedBlock extends TileEntity implements ITickable {
@@ -28,6 +29,9 @@ public class TileEntityPossessedBlock extends TileEntity implements ITickable {
 	AnimationMathHelper headShake = new AnimationMathHelper();
 	public float moveProgress;
 
+	private ProximityTrigger<EntityPlayer> enemyTrigger;
+	private EnumFacing enemyTriggerFacing;
+
 	@Override
 	public void update() {
 		if (!world.isRemote) {
@@ -87,18 +91,11 @@ public class TileEntityPossessedBlock extends TileEntity implements ITickable {
 
 	@SuppressWarnings("unchecked")
 	protected Entity findEnemyToAttack() {
+		if (active || animationTicks != 0 || coolDown > 0)
+			return null;
 		IBlockState state = getWorld().getBlockState(pos);
 		EnumFacing facing = state.getValue(BlockPossessedBlock.FACING);
-		float x = 0, z = 0;
-		if(facing == EnumFacing.WEST)
-			x = -1.25F;
-		if(facing == EnumFacing.EAST)
-			x = 1.25F;
-		if(facing == EnumFacing.NORTH)
-			z = -1.25F;
-		if(facing == EnumFacing.SOUTH)
-			z = 1.25F;
-		List<EntityLivingBase> list = world.getEntitiesWithinAABB(EntityLivingBase.class, new AxisAlignedBB(pos.getX() + x, pos.getY(), pos.getZ() + z, pos.getX() + 1D + x, pos.getY() + 1D, pos.getZ() + 1D + z));
+		List<EntityPlayer> list = getEnemyTrigger(facing).getEntities();
 		for (int i = 0; i < list.size(); i++) {
 				Entity entity = list.get(i);
 				if (entity != null)
@@ -113,16 +110,7 @@ public class TileEntityPossessedBlock extends TileEntity implements ITickable {
 	protected Entity activateBlock() {
 		IBlockState state = getWorld().getBlockState(pos);
 		EnumFacing facing = state.getValue(BlockPossessedBlock.FACING);
-		float x = 0, z = 0;
-		if(facing == EnumFacing.WEST)
-			x = -1.25F;
-		if(facing == EnumFacing.EAST)
-			x = 1.25F;
-		if(facing == EnumFacing.NORTH)
-			z = -1.25F;
-		if(facing == EnumFacing.SOUTH)
-			z = 1.25F;
-		List<EntityLivingBase> list = world.getEntitiesWithinAABB(EntityLivingBase.class, new AxisAlignedBB(pos.getX() + x, pos.getY(), pos.getZ() + z, pos.getX() + 1D + x, pos.getY() + 1D, pos.getZ() + 1D + z));
+		List<EntityPlayer> list = getEnemyTrigger(facing).getEntities();
 		if (animationTicks == 1)
 			for (int i = 0; i < list.size(); i++) {
 				Entity entity = list.get(i);
@@ -136,6 +124,45 @@ public class TileEntityPossessedBlock extends TileEntity implements ITickable {
 		return null;
 	}
 
+	private ProximityTrigger<EntityPlayer> getEnemyTrigger(EnumFacing facing) {
+		if (enemyTrigger == null || enemyTriggerFacing != facing) {
+			if (enemyTrigger != null)
+				enemyTrigger.unregister();
+			float x = 0, z = 0;
+			if(facing == EnumFacing.WEST)
+				x = -1.25F;
+			if(facing == EnumFacing.EAST)
+				x = 1.25F;
+			if(facing == EnumFacing.NORTH)
+				z = -1.25F;
+			if(facing == EnumFacing.SOUTH)
+				z = 1.25F;
+			enemyTrigger = new ProximityTrigger<>(world, new AxisAlignedBB(pos.getX() + x, pos.getY(), pos.getZ() + z, pos.getX() + 1D + x, pos.getY() + 1D, pos.getZ() + 1D + z), EntityPlayer.class);
+			enemyTrigger.register();
+			enemyTriggerFacing = facing;
+		}
+		return enemyTrigger;
+	}
+
+	private void unregisterEnemyTrigger() {
+		if (enemyTrigger != null) {
+			enemyTrigger.unregister();
+			enemyTrigger = null;
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		unregisterEnemyTrigger();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		unregisterEnemyTrigger();
+	}
+
 	@Override
 	public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
 		super.writeToNBT(nbt);
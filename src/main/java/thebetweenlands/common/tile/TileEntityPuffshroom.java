@@ -18,6 +18,7 @@ import net.minecraft.util.math.AxisAlignedBB;
 import thebetweenlands.common.entity.mobs.EntitySporeJet;
 import thebetweenlands.common.registries.BlockRegistry;
 import thebetweenlands.common.registries.SoundRegistry;
+import thebetweenlands.common.world.ProximityTrigger;
 
 public class TileEntityPuffshroom extends TileEntity implements ITickable {
 
@@ -28,6 +29,8 @@ public class TileEntityPuffshroom extends TileEntity implements ITickable {
 	public boolean active_1 = false, active_2 = false, active_3 = false, active_4 = false, active_5 = false, pause = true;
 	public int renderTicks = 0, prev_renderTicks = 0, pause_count = 30;
 
+	private ProximityTrigger<EntityPlayer> playerTrigger;
+
 	@Override
 	public void update() {
 
@@ -156,7 +159,11 @@ public class TileEntityPuffshroom extends TileEntity implements ITickable {
 
 	protected Entity findEnemyToAttack() {
 		if(!active_1 && animation_1 == 0) {
-			List<EntityPlayer> list = getWorld().getEntitiesWithinAABB(EntityPlayer.class, new AxisAlignedBB(getPos()).grow(2D, 2D, 2D));
+			if(playerTrigger == null) {
+				playerTrigger = new ProximityTrigger<>(getWorld(), new AxisAlignedBB(getPos()).grow(2D, 2D, 2D), EntityPlayer.class);
+				playerTrigger.register();
+			}
+			List<EntityPlayer> list = playerTrigger.getEntities();
 			for(EntityPlayer player : list) {
 				if (!player.isCreative() && !player.isSpectator()) {
 					active_1 = true;
@@ -170,6 +177,25 @@ public class TileEntityPuffshroom extends TileEntity implements ITickable {
 		return null;
 	}
 
+	private void unregisterPlayerTrigger() {
+		if(playerTrigger != null) {
+			playerTrigger.unregister();
+			playerTrigger = null;
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		unregisterPlayerTrigger();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		unregisterPlayerTrigger();
+	}
+
 	@Override
 	public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
 		super.writeToNBT(nbt);
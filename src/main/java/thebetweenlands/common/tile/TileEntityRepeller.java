@@ -1,5 +1,6 @@
 package thebetweenlands.common.tile;
 
+import java.util.Collections;
 import java.util.List;
 
 import net.minecraft.block.state.IBlockState;
@@ -22,6 +23,7 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import thebetweenlands.api.entity.IBLBoss;
 import thebetweenlands.common.entity.mobs.EntityWight;
+import thebetweenlands.common.world.ProximityTrigger;
 
 public class TileEntityRepeller extends TileEntity implements ITickable {
 	private static final float MAX_RADIUS = 18.0F;
@@ -36,6 +38,7 @@ public class TileEntityRepeller extends TileEntity implements ITickable {
 	private int deployTicks = 0;
 	private int radiusState = 0;
 	private float accumulatedCost = 0.0F;
+	private ProximityTrigger<Entity> affectedEntitiesTrigger;
 
 	public int renderTicks = 0;
 
@@ -155,8 +158,8 @@ public class TileEntityRepeller extends TileEntity implements ITickable {
 				double centerX = this.pos.getX() + 0.5F;
 				double centerY = this.pos.getY() + 1.15F;
 				double centerZ = this.pos.getZ() + 0.5F;
-				AxisAlignedBB affectedBB = new AxisAlignedBB(this.pos.getX() - this.radius - 5.0F, this.pos.getY() - this.radius - 5.0F, this.pos.getZ() - this.radius - 5.0F, this.pos.getX() + this.radius + 5.0F, this.pos.getY() + this.radius + 5.0F, this.pos.getZ() + this.radius + 5.0F);
-				List<Entity> affectedEntities = this.world.getEntitiesWithinAABB(Entity.class, affectedBB);
+				//Only entities within the radius are affected, so there is nothing to check while the repeller is retracted
+				List<Entity> affectedEntities = this.radius > 0.0F ? this.getAffectedEntitiesTrigger().getEntities() : Collections.<Entity>emptyList();
 				for(Entity entity : affectedEntities) {
 					if(entity instanceof IMob && entity instanceof EntityWight == false && entity instanceof IBLBoss == false) {
 						Vec3d closestPoint = this.getClosestAABBCorner(entity.getEntityBoundingBox(), centerX, centerY, centerZ);
@@ -248,6 +251,39 @@ public class TileEntityRepeller extends TileEntity implements ITickable {
 		}
 	}
 
+	/**
+	 * Returns the trigger for the entities around the repeller at its maximum radius.
+	 * Entities outside of the current radius are filtered out by the distance check
+	 * @return
+	 */
+	private ProximityTrigger<Entity> getAffectedEntitiesTrigger() {
+		if(this.affectedEntitiesTrigger == null) {
+			AxisAlignedBB affectedBB = new AxisAlignedBB(this.pos.getX() - MAX_RADIUS - 5.0F, this.pos.getY() - MAX_RADIUS - 5.0F, this.pos.getZ() - MAX_RADIUS - 5.0F, this.pos.getX() + MAX_RADIUS + 5.0F, this.pos.getY() + MAX_RADIUS + 5.0F, this.pos.getZ() + MAX_RADIUS + 5.0F);
+			this.affectedEntitiesTrigger = new ProximityTrigger<>(this.world, affectedBB, Entity.class);
+			this.affectedEntitiesTrigger.register();
+		}
+		return this.affectedEntitiesTrigger;
+	}
+
+	private void unregisterAffectedEntitiesTrigger() {
+		if(this.affectedEntitiesTrigger != null) {
+			this.affectedEntitiesTrigger.unregister();
+			this.affectedEntitiesTrigger = null;
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		this.unregisterAffectedEntitiesTrigger();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		this.unregisterAffectedEntitiesTrigger();
+	}
+
 	protected Vec3d getClosestAABBCorner(AxisAlignedBB bb, double centerX, double centerY, double centerZ) {
 		Vec3d center = new Vec3d(centerX, centerY, centerZ);
 		Vec3d closest = null;
@@ -16,11 +16,11 @@ import net.minecraft.util.EnumFacing;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.math.AxisAlignedBB;
-import net.minecraft.util.math.BlockPos;
 import thebetweenlands.api.entity.IEntityBL;
 import thebetweenlands.common.block.misc.BlockSludge;
 import thebetweenlands.common.block.structure.BlockSpikeTrap;
 import thebetweenlands.common.registries.SoundRegistry;
+import thebetweenlands.common.world.ProximityTrigger;
 
 public class TileEntitySpikeTrap extends TileEntity implements ITickable {
 
@@ -29,6 +29,9 @@ public class TileEntitySpikeTrap extends TileEntity implements ITickable {
 	public boolean active;
 	public byte type;
 
+	private ProximityTrigger<EntityLivingBase> hitAreaTrigger;
+	private EnumFacing hitAreaFacing;
+
 	@Override
 	public void update() {
 		if (!getWorld().isRemote) {
@@ -93,8 +96,7 @@ public class TileEntitySpikeTrap extends TileEntity implements ITickable {
 	protected Entity activateBlock() {
 		IBlockState state = getWorld().getBlockState(getPos());
 		EnumFacing facing = state.getValue(BlockSpikeTrap.FACING);
-		BlockPos hitArea = getPos().offset(facing, 1);
-		List<EntityLivingBase> list = getWorld().getEntitiesWithinAABB(EntityLivingBase.class, new AxisAlignedBB(hitArea));
+		List<EntityLivingBase> list = getHitAreaTrigger(facing).getEntities();
 		if (animationTicks >= 1)
 			for (int i = 0; i < list.size(); i++) {
 				Entity entity = list.get(i);
@@ -108,17 +110,48 @@ public class TileEntitySpikeTrap extends TileEntity implements ITickable {
 	protected Entity isBlockOccupied() {
 		IBlockState state = getWorld().getBlockState(getPos());
 		EnumFacing facing = state.getValue(BlockSpikeTrap.FACING);
-		BlockPos hitArea = getPos().offset(facing , 1);
-		List<EntityLivingBase> list = getWorld().getEntitiesWithinAABB(EntityLivingBase.class, new AxisAlignedBB(hitArea).shrink(0.25D));
+		ProximityTrigger<EntityLivingBase> trigger = getHitAreaTrigger(facing);
+		List<EntityLivingBase> list = trigger.getEntities();
+		AxisAlignedBB occupiedArea = trigger.getAabb().shrink(0.25D);
 		for (int i = 0; i < list.size(); i++) {
 			Entity entity = list.get(i);
 			if (entity != null)
-				if (!(entity instanceof IEntityBL))
+				if (!(entity instanceof IEntityBL) && entity.getEntityBoundingBox().intersects(occupiedArea))
 					return entity;
 		}
 		return null;
 	}
 
+	private ProximityTrigger<EntityLivingBase> getHitAreaTrigger(EnumFacing facing) {
+		if (hitAreaTrigger == null || hitAreaFacing != facing) {
+			if (hitAreaTrigger != null)
+				hitAreaTrigger.unregister();
+			hitAreaTrigger = new ProximityTrigger<>(getWorld(), new AxisAlignedBB(getPos().offset(facing, 1)), EntityLivingBase.class);
+			hitAreaTrigger.register();
+			hitAreaFacing = facing;
+		}
+		return hitAreaTrigger;
+	}
+
+	private void unregisterHitAreaTrigger() {
+		if (hitAreaTrigger != null) {
+			hitAreaTrigger.unregister();
+			hitAreaTrigger = null;
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		super.invalidate();
+		unregisterHitAreaTrigger();
+	}
+
+	@Override
+	public void onChunkUnload() {
+		super.onChunkUnload();
+		unregisterHitAreaTrigger();
+	}
+
 	@Override
 	public NBTTagCompound writeToNBT(NBTTagCompound nbt) {
 		super.writeToNBT(nbt);
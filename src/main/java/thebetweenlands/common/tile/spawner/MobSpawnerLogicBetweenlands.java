@@ -2,18 +2,23 @@ package thebetweenlands.common.tile.spawner;
 
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityList;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.IEntityLivingData;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.Blocks;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.EntitySelectors;
 import net.minecraft.util.StringUtils;
 import net.minecraft.util.WeightedRandom;
 import net.minecraft.util.WeightedSpawnerEntity;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.RayTraceResult;
+import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.storage.AnvilChunkLoader;
 import net.minecraftforge.event.ForgeEventFactory;
@@ -27,6 +32,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 public abstract class MobSpawnerLogicBetweenlands {
+    private static final int MAX_ACTIVATION_CHECK_INTERVAL = 20;
+
     private final List<WeightedSpawnerEntity> entitySpawnList = new ArrayList<WeightedSpawnerEntity>();
     public double entityRotation;
     public double lastEntityRotation;
@@ -42,6 +49,15 @@ public abstract class MobSpawnerLogicBetweenlands {
     private double checkRange = 8.0D;
     private boolean hasParticles = true;
     private boolean spawnInAir = true;
+    private boolean cheapChecks = false;
+
+    private boolean activated;
+    private long nextActivationCheck = Long.MIN_VALUE;
+
+    private boolean spawnEntityClassResolved;
+    private Class<? extends Entity> spawnEntityClass;
+    private float spawnEntityWidth = -1;
+    private float spawnEntityHeight = -1;
 
     /**
      * Gets the entity name that should be spawned.
@@ -60,6 +76,7 @@ public abstract class MobSpawnerLogicBetweenlands {
      */
     public MobSpawnerLogicBetweenlands setNextEntityName(String name) {
         this.randomEntity.getNbt().setString("id", name);
+        this.clearSpawnEntityCache();
         if (this.getSpawnerWorld() != null && this.getSpawnerWorld().isRemote) {
             this.cachedEntity = null;
         }
@@ -73,6 +90,7 @@ public abstract class MobSpawnerLogicBetweenlands {
      */
     public MobSpawnerLogicBetweenlands setNextEntity(WeightedSpawnerEntity entity) {
         this.randomEntity = entity;
+        this.clearSpawnEntityCache();
         if (this.getSpawnerWorld() != null && this.getSpawnerWorld().isRemote) {
             this.cachedEntity = null;
         }
@@ -249,13 +267,93 @@ public abstract class MobSpawnerLogicBetweenlands {
         return this;
     }
 
+    /**
+     * Sets whether the spawner uses cheap checks. Cheap spawners only check the distance
+     * to players that are within a few chunks, and wait a few ticks before checking again if all players
+     * are far away. They also only count the nearby entities once per spawn cycle and only create
+     * an entity once the spawn position has passed the ground check
+     *
+     * @param cheapChecks
+     * @return
+     */
+    public MobSpawnerLogicBetweenlands setCheapChecks(boolean cheapChecks) {
+        this.cheapChecks = cheapChecks;
+        this.nextActivationCheck = Long.MIN_VALUE;
+        return this;
+    }
+
+    /**
+     * Returns whether the spawner uses cheap checks
+     *
+     * @return
+     */
+    public boolean hasCheapChecks() {
+        return this.cheapChecks;
+    }
+
     /**
      * Returns true if there's a player close enough to this mob spawner to activate it.
      */
     public boolean isActivated() {
+        if (this.cheapChecks) {
+            long time = this.getSpawnerWorld().getTotalWorldTime();
+            if (time >= this.nextActivationCheck) {
+                this.nextActivationCheck = time + this.checkActivation();
+            }
+            return this.activated;
+        }
         return this.getSpawnerWorld().getClosestPlayer((double) this.getSpawnerX() + 0.5D, (double) this.getSpawnerY() + 0.5D, (double) this.getSpawnerZ() + 0.5D, (double) this.activatingRangeFromPlayer, false) != null;
     }
 
+    /**
+     * Updates {@link #activated} and returns the number of ticks until the next check.
+     * Players are bucketed by their chunk distance to the spawner, and only players in the
+     * bucket that can reach the activation range are checked exactly
+     *
+     * @return
+     */
+    private int checkActivation() {
+        World world = this.getSpawnerWorld();
+        double x = (double) this.getSpawnerX() + 0.5D;
+        double y = (double) this.getSpawnerY() + 0.5D;
+        double z = (double) this.getSpawnerZ() + 0.5D;
+        int chunkX = this.getSpawnerX() >> 4;
+        int chunkZ = this.getSpawnerZ() >> 4;
+        int rangeChunks = (this.activatingRangeFromPlayer >> 4) + 1;
+        double rangeSq = (double) this.activatingRangeFromPlayer * (double) this.activatingRangeFromPlayer;
+
+        int minChunkDistance = Integer.MAX_VALUE;
+
+        for (int i = 0; i < world.playerEntities.size(); i++) {
+            EntityPlayer player = world.playerEntities.get(i);
+
+            if (EntitySelectors.NOT_SPECTATING.apply(player)) {
+                int chunkDistance = Math.max(Math.abs((MathHelper.floor(player.posX) >> 4) - chunkX), Math.abs((MathHelper.floor(player.posZ) >> 4) - chunkZ));
+
+                if (chunkDistance <= rangeChunks && player.getDistanceSq(x, y, z) < rangeSq) {
+                    this.activated = true;
+                    return 1;
+                }
+
+                minChunkDistance = Math.min(minChunkDistance, chunkDistance);
+            }
+        }
+
+        this.activated = false;
+
+        if (minChunkDistance == Integer.MAX_VALUE) {
+            //No player that could activate the spawner
+            return MAX_ACTIVATION_CHECK_INTERVAL;
+        }
+
+        if (minChunkDistance <= rangeChunks) {
+            return 1;
+        }
+
+        //Clamped before multiplying so that far away players can't overflow the interval
+        return Math.min(Math.min(minChunkDistance - rangeChunks, MAX_ACTIVATION_CHECK_INTERVAL) * 4, MAX_ACTIVATION_CHECK_INTERVAL);
+    }
+
     /**
      * Updates the spawner logic
      */
@@ -288,6 +386,18 @@ public abstract class MobSpawnerLogicBetweenlands {
 
                 boolean entitySpawned = false;
 
+                int nearbyEntities = 0;
+
+                if (this.cheapChecks) {
+                    Class<? extends Entity> entityClass = this.getSpawnEntityClass();
+
+                    if (entityClass == null) {
+                        return;
+                    }
+
+                    nearbyEntities = this.countNearbyEntities(entityClass);
+                }
+
                 for (int i = 0; i < 128; ++i) {
                     if (spawnCount <= 0) {
                         break;
@@ -307,23 +417,38 @@ public abstract class MobSpawnerLogicBetweenlands {
                     rx = tags >= 1 ? posNbt.getDoubleAt(0) : rx;
                     ry = tags >= 2 ? posNbt.getDoubleAt(1) : ry;
                     rz = tags >= 3 ? posNbt.getDoubleAt(2) : rz;
+                    if (this.cheapChecks) {
+                        if (nearbyEntities >= this.maxNearbyEntities) {
+                            this.resetTimer();
+                            return;
+                        }
+
+                        //Reject the position before creating the entity if its size is already known
+                        if (!this.canSpawnInAir() && this.spawnEntityHeight >= 0.0F) {
+                            double halfWidth = this.spawnEntityWidth / 2.0D;
+                            AxisAlignedBB entityBoundingBox = new AxisAlignedBB(rx - halfWidth, ry, rz - halfWidth, rx + halfWidth, ry + this.spawnEntityHeight, rz + halfWidth);
+                            if (Double.isNaN(this.getGroundSpawnY(entityBoundingBox, rx, ry, rz))) {
+                                continue;
+                            }
+                        }
+                    }
+
                     Entity entity = AnvilChunkLoader.readWorldEntityPos(entityNbt, world, rx, ry, rz, false);
 
                     if (entity == null) {
                         return;
                     }
 
-                    List<Entity> entitiesInReach = this.getSpawnerWorld().getEntitiesWithinAABB(entity.getClass(), new AxisAlignedBB((double) this.getSpawnerX(), (double) this.getSpawnerY(), (double) this.getSpawnerZ(), (double) (this.getSpawnerX() + 1), (double) (this.getSpawnerY() + 1), (double) (this.getSpawnerZ() + 1)).grow(this.checkRange, this.checkRange, this.checkRange));
-                    int nearbyEntities = 0;
-                    for (Entity e : entitiesInReach) {
-                        if (e.getDistance(this.getSpawnerX() + 0.5D, this.getSpawnerY() + 0.5D, this.getSpawnerZ() + 0.5D) <= this.checkRange) {
-                            nearbyEntities++;
-                        }
-                    }
+                    if (this.cheapChecks) {
+                        this.spawnEntityWidth = entity.width;
+                        this.spawnEntityHeight = entity.height;
+                    } else {
+                        nearbyEntities = this.countNearbyEntities(entity.getClass());
 
-                    if (nearbyEntities >= this.maxNearbyEntities) {
-                        this.resetTimer();
-                        return;
+                        if (nearbyEntities >= this.maxNearbyEntities) {
+                            this.resetTimer();
+                            return;
+                        }
                     }
 
                     entity.setLocationAndAngles(rx, ry, rz, this.getSpawnerWorld().rand.nextFloat() * 360.0F, 0.0F);
@@ -332,21 +457,10 @@ public abstract class MobSpawnerLogicBetweenlands {
 
                     //Check if entity can stand on block below and set position
                     if (!canSpawn) {
-                        BlockPos down = new BlockPos(rx, ry, rz).down();
-                        IBlockState blockState = this.getSpawnerWorld().getBlockState(down);
-                        if (blockState.getBlock() != Blocks.AIR) {
-                            AxisAlignedBB boundingBox = blockState.getCollisionBoundingBox(this.getSpawnerWorld(), down);
-                            if (boundingBox != null) {
-                                boundingBox = boundingBox.offset(down);
-                                AxisAlignedBB entityBoundingBox = entity.getEntityBoundingBox();
-                                if (boundingBox.intersects(entityBoundingBox.minX, boundingBox.minY, entityBoundingBox.minZ, entityBoundingBox.maxX, boundingBox.maxY, entityBoundingBox.maxZ)) {
-                                    RayTraceResult intercept = boundingBox.calculateIntercept(entity.getPositionVector(), entity.getPositionVector().add(0, -2, 0));
-                                    if (intercept != null) {
-                                        canSpawn = true;
-                                        entity.setLocationAndAngles(entity.posX, intercept.hitVec.y + 0.1D, entity.posZ, entity.rotationYaw, entity.rotationPitch);
-                                    }
-                                }
-                            }
+                        double spawnY = this.getGroundSpawnY(entity.getEntityBoundingBox(), entity.posX, entity.posY, entity.posZ);
+                        if (!Double.isNaN(spawnY)) {
+                            canSpawn = true;
+                            entity.setLocationAndAngles(entity.posX, spawnY, entity.posZ, entity.rotationYaw, entity.rotationPitch);
                         }
                     }
 
@@ -370,6 +484,10 @@ public abstract class MobSpawnerLogicBetweenlands {
                             spawnCount--;
 
                             entitySpawned = true;
+
+                            if (this.cheapChecks && entity.getDistance(this.getSpawnerX() + 0.5D, this.getSpawnerY() + 0.5D, this.getSpawnerZ() + 0.5D) <= this.checkRange) {
+                                nearbyEntities++;
+                            }
                         }
                     }
                 }
@@ -381,6 +499,74 @@ public abstract class MobSpawnerLogicBetweenlands {
         }
     }
 
+    /**
+     * Counts the entities of the specified type within the check range
+     *
+     * @param entityClass
+     * @return
+     */
+    private int countNearbyEntities(Class<? extends Entity> entityClass) {
+        List<? extends Entity> entitiesInReach = this.getSpawnerWorld().getEntitiesWithinAABB(entityClass, new AxisAlignedBB((double) this.getSpawnerX(), (double) this.getSpawnerY(), (double) this.getSpawnerZ(), (double) (this.getSpawnerX() + 1), (double) (this.getSpawnerY() + 1), (double) (this.getSpawnerZ() + 1)).grow(this.checkRange, this.checkRange, this.checkRange));
+        int nearbyEntities = 0;
+        for (Entity e : entitiesInReach) {
+            if (e.getDistance(this.getSpawnerX() + 0.5D, this.getSpawnerY() + 0.5D, this.getSpawnerZ() + 0.5D) <= this.checkRange) {
+                nearbyEntities++;
+            }
+        }
+        return nearbyEntities;
+    }
+
+    /**
+     * Returns the y position an entity with the specified bounding box can stand at
+     * on the block below, or NaN if there is no such block
+     *
+     * @param entityBoundingBox
+     * @param x
+     * @param y
+     * @param z
+     * @return
+     */
+    private double getGroundSpawnY(AxisAlignedBB entityBoundingBox, double x, double y, double z) {
+        BlockPos down = new BlockPos(x, y, z).down();
+        IBlockState blockState = this.getSpawnerWorld().getBlockState(down);
+        if (blockState.getBlock() != Blocks.AIR) {
+            AxisAlignedBB boundingBox = blockState.getCollisionBoundingBox(this.getSpawnerWorld(), down);
+            if (boundingBox != null) {
+                boundingBox = boundingBox.offset(down);
+                if (boundingBox.intersects(entityBoundingBox.minX, boundingBox.minY, entityBoundingBox.minZ, entityBoundingBox.maxX, boundingBox.maxY, entityBoundingBox.maxZ)) {
+                    Vec3d pos = new Vec3d(x, y, z);
+                    RayTraceResult intercept = boundingBox.calculateIntercept(pos, pos.add(0, -2, 0));
+                    if (intercept != null) {
+                        return intercept.hitVec.y + 0.1D;
+                    }
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Returns the class of the entity that should be spawned
+     *
+     * @return
+     */
+    @Nullable
+    private Class<? extends Entity> getSpawnEntityClass() {
+        if (!this.spawnEntityClassResolved) {
+            ResourceLocation id = this.getEntityId();
+            this.spawnEntityClass = id != null ? EntityList.getClass(id) : null;
+            this.spawnEntityClassResolved = true;
+        }
+        return this.spawnEntityClass;
+    }
+
+    private void clearSpawnEntityCache() {
+        this.spawnEntityClassResolved = false;
+        this.spawnEntityClass = null;
+        this.spawnEntityWidth = -1;
+        this.spawnEntityHeight = -1;
+    }
+
     /**
      * Spawns the particles
      */
@@ -459,6 +645,7 @@ public abstract class MobSpawnerLogicBetweenlands {
         if (nbt.hasKey("SpawnInAir")) {
             this.spawnInAir = nbt.getBoolean("SpawnInAir");
         }
+        this.setCheapChecks(nbt.getBoolean("CheapChecks"));
         if (this.getSpawnerWorld() != null && this.getSpawnerWorld().isRemote) {
             this.cachedEntity = null;
         }
@@ -485,6 +672,7 @@ public abstract class MobSpawnerLogicBetweenlands {
         nbt.setDouble("CheckRange", this.checkRange);
         nbt.setBoolean("HasParticles", this.hasParticles);
         nbt.setBoolean("SpawnInAir", this.spawnInAir);
+        nbt.setBoolean("CheapChecks", this.cheapChecks);
     }
 
     /**
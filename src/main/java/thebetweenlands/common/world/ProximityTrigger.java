@@ -0,0 +1,206 @@
+package thebetweenlands.common.world;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Predicate;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.EntitySelectors;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import thebetweenlands.common.handler.ProximityTriggerHandler;
+
+/**
+ * Tracks the entities of a type within a fixed area. Once no entity of that type is
+ * in any of the chunk sections around the area the trigger goes dormant and {@link #getEntities()}
+ * returns an empty list without querying the world, until an entity of that type enters one of
+ * the chunks again, see {@link ProximityTriggerHandler}.
+ * The trigger must be unregistered with {@link #unregister()} when it is no longer used.
+ * @param <T> Entity type
+ */
+public class ProximityTrigger<T extends Entity> {
+	private final World world;
+	private final AxisAlignedBB aabb;
+	private final Class<? extends T> entityClass;
+	private final Predicate<? super T> filter;
+
+	private final int minChunkX, minChunkZ, maxChunkX, maxChunkZ;
+	private final int minSection, maxSection;
+
+	private final List<T> entities = new ArrayList<>();
+	private long updateTime = Long.MIN_VALUE;
+	private boolean awake = true;
+	private boolean registered = false;
+
+	/**
+	 * Creates a trigger for all non spectating entities of the specified type
+	 * @param world
+	 * @param aabb
+	 * @param entityClass
+	 */
+	public ProximityTrigger(World world, AxisAlignedBB aabb, Class<? extends T> entityClass) {
+		this(world, aabb, entityClass, EntitySelectors.NOT_SPECTATING);
+	}
+
+	/**
+	 * @param world
+	 * @param aabb Area to check for entities
+	 * @param entityClass Entity type
+	 * @param filter Optional entity filter
+	 */
+	public ProximityTrigger(World world, AxisAlignedBB aabb, Class<? extends T> entityClass, @Nullable Predicate<? super T> filter) {
+		this.world = world;
+		this.aabb = aabb;
+		this.entityClass = entityClass;
+		this.filter = filter;
+
+		//Same range as World#getEntitiesWithinAABB
+		this.minChunkX = MathHelper.floor((aabb.minX - World.MAX_ENTITY_RADIUS) / 16.0D);
+		this.maxChunkX = MathHelper.floor((aabb.maxX + World.MAX_ENTITY_RADIUS) / 16.0D);
+		this.minChunkZ = MathHelper.floor((aabb.minZ - World.MAX_ENTITY_RADIUS) / 16.0D);
+		this.maxChunkZ = MathHelper.floor((aabb.maxZ + World.MAX_ENTITY_RADIUS) / 16.0D);
+		this.minSection = MathHelper.clamp(MathHelper.floor((aabb.minY - World.MAX_ENTITY_RADIUS) / 16.0D), 0, 15);
+		this.maxSection = MathHelper.clamp(MathHelper.floor((aabb.maxY + World.MAX_ENTITY_RADIUS) / 16.0D), 0, 15);
+	}
+
+	/**
+	 * Registers the trigger so that it is woken up when an entity enters one of its chunks.
+	 * Unregistered triggers never go dormant
+	 */
+	public void register() {
+		if(!this.registered) {
+			ProximityTriggerHandler.register(this);
+			this.registered = true;
+			this.wake();
+		}
+	}
+
+	/**
+	 * Unregisters the trigger
+	 */
+	public void unregister() {
+		if(this.registered) {
+			ProximityTriggerHandler.unregister(this);
+			this.registered = false;
+			this.wake();
+		}
+	}
+
+	public World getWorld() {
+		return this.world;
+	}
+
+	public AxisAlignedBB getAabb() {
+		return this.aabb;
+	}
+
+	public int getMinChunkX() {
+		return this.minChunkX;
+	}
+
+	public int getMinChunkZ() {
+		return this.minChunkZ;
+	}
+
+	public int getMaxChunkX() {
+		return this.maxChunkX;
+	}
+
+	public int getMaxChunkZ() {
+		return this.maxChunkZ;
+	}
+
+	/**
+	 * Returns whether the specified entity is of the type tracked by this trigger
+	 * @param entity
+	 * @return
+	 */
+	public boolean isTracked(Entity entity) {
+		return this.entityClass.isInstance(entity);
+	}
+
+	/**
+	 * Wakes the trigger up so that the next call of {@link #getEntities()} queries the world again
+	 */
+	public void wake() {
+		this.awake = true;
+		this.updateTime = Long.MIN_VALUE;
+	}
+
+	/**
+	 * Returns whether the trigger is dormant, i.e. there were no entities of its type
+	 * around the area the last time it was checked
+	 * @return
+	 */
+	public boolean isDormant() {
+		return !this.awake;
+	}
+
+	/**
+	 * Returns all entities within the area. The world is queried at most once per tick, and the
+	 * returned list is reused and must not be modified
+	 * @return
+	 */
+	public List<T> getEntities() {
+		if(!this.awake) {
+			return Collections.emptyList();
+		}
+
+		long time = this.world.getTotalWorldTime();
+		if(time != this.updateTime) {
+			this.updateTime = time;
+			this.update();
+		}
+
+		return this.entities;
+	}
+
+	/**
+	 * Returns whether there is any entity within the area
+	 * @return
+	 */
+	public boolean isOccupied() {
+		return !this.getEntities().isEmpty();
+	}
+
+	private void update() {
+		this.entities.clear();
+
+		for(int cx = this.minChunkX; cx <= this.maxChunkX; cx++) {
+			for(int cz = this.minChunkZ; cz <= this.maxChunkZ; cz++) {
+				Chunk chunk = this.world.getChunkProvider().getLoadedChunk(cx, cz);
+				if(chunk != null) {
+					chunk.getEntitiesOfTypeWithinAABB(this.entityClass, this.aabb, this.entities, this.filter);
+				}
+			}
+		}
+
+		if(this.registered && this.entities.isEmpty() && !this.hasCandidates()) {
+			this.awake = false;
+		}
+	}
+
+	private boolean hasCandidates() {
+		for(int cx = this.minChunkX; cx <= this.maxChunkX; cx++) {
+			for(int cz = this.minChunkZ; cz <= this.maxChunkZ; cz++) {
+				Chunk chunk = this.world.getChunkProvider().getLoadedChunk(cx, cz);
+				if(chunk != null) {
+					ClassInheritanceMultiMap<Entity>[] entityLists = chunk.getEntityLists();
+					for(int i = this.minSection; i <= this.maxSection; i++) {
+						if(entityLists[i].getByClass(this.entityClass).iterator().hasNext()) {
+							return true;
+						}
+					}
+				}
+			}
+		}
+		return false;
+	}
+}
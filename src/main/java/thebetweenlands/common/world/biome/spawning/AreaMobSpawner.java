@@ -3,8 +3,8 @@ package thebetweenlands.common.world.biome.spawning;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -12,6 +12,9 @@ import java.util.function.Predicate;
 import javax.annotation.Nullable;
 
 import gnu.trove.map.hash.TObjectIntHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLiving;
@@ -35,7 +38,6 @@ import thebetweenlands.api.entity.spawning.ICustomSpawnEntriesProvider;
 import thebetweenlands.api.entity.spawning.ICustomSpawnEntry;
 import thebetweenlands.common.config.BetweenlandsConfig;
 import thebetweenlands.common.lib.ModInfo;
-import thebetweenlands.util.WeightedList;
 
 public abstract class AreaMobSpawner {
 	@Nullable
@@ -43,6 +45,16 @@ public abstract class AreaMobSpawner {
 
 	protected boolean strictDynamicLimit = true;
 
+	protected boolean trackEntityCounts = false;
+	private int trackedLivingEntityCount = 0;
+	private int trackedCountedEntityCount = 0;
+
+	//State of the current incremental spawning pass, see populateIncrementally
+	private final LongList passChunks = new LongArrayList();
+	private int passIndex = 0;
+	private int passEntityLimit = 0;
+	private float passLoadedAreas = 1.0f;
+
 	/**
 	 * Sets whether the dynamic limit is strict, i.e. enforced and not
 	 * just approximated by randomness and weight.
@@ -353,13 +365,73 @@ public abstract class AreaMobSpawner {
 		public void onSpawned(EntityLivingBase entity) { }
 	}
 
-	public void populate(WorldServer world, boolean spawnHostiles, boolean spawnAnimals) {
+	/**
+	 * Sets whether the entity counts are kept up to date through {@link #onEntityAdded(World, Entity)}
+	 * and {@link #onEntityRemoved(World, Entity)} instead of being recounted for every spawning pass.
+	 * Tracked entity counts include all loaded entities and not only those in the spawner chunks.
+	 * @param world
+	 * @param track
+	 */
+	public void setTrackEntityCounts(World world, boolean track) {
+		this.trackEntityCounts = track;
+		this.entityCounts.clear();
+		this.trackedLivingEntityCount = 0;
+		this.trackedCountedEntityCount = 0;
+
+		if(track) {
+			for(Entity entity : world.loadedEntityList) {
+				this.onEntityAdded(world, entity);
+			}
+		}
+	}
+
+	/**
+	 * Called when an entity is added to the world if the entity counts are tracked
+	 * @param world
+	 * @param entity
+	 */
+	public void onEntityAdded(World world, Entity entity) {
+		if(this.trackEntityCounts && entity instanceof EntityLivingBase) {
+			this.trackedLivingEntityCount++;
+
+			if(this.isCountedEntity(world, entity)) {
+				this.entityCounts.adjustOrPutValue(entity.getClass(), 1, 1);
+				this.trackedCountedEntityCount++;
+			}
+		}
+	}
+
+	/**
+	 * Called when an entity is removed from the world if the entity counts are tracked
+	 * @param world
+	 * @param entity
+	 */
+	public void onEntityRemoved(World world, Entity entity) {
+		if(this.trackEntityCounts && entity instanceof EntityLivingBase) {
+			this.trackedLivingEntityCount = Math.max(0, this.trackedLivingEntityCount - 1);
+
+			if(this.isCountedEntity(world, entity) && this.entityCounts.adjustValue(entity.getClass(), -1)) {
+				this.trackedCountedEntityCount = Math.max(0, this.trackedCountedEntityCount - 1);
+			}
+		}
+	}
+
+	private int getTotalWorldEntityCount(World world) {
+		if(this.trackEntityCounts) {
+			return this.trackedLivingEntityCount;
+		}
+
 		int totalWorldEntityCount = 0;
-		for(Entity entity : (List<Entity>)world.loadedEntityList) {
+		for(Entity entity : world.loadedEntityList) {
 			if(entity instanceof EntityLivingBase) {
 				totalWorldEntityCount++;
 			}
 		}
+		return totalWorldEntityCount;
+	}
+
+	public void populate(WorldServer world, boolean spawnHostiles, boolean spawnAnimals) {
+		int totalWorldEntityCount = this.getTotalWorldEntityCount(world);
 
 		if(totalWorldEntityCount >= this.getHardEntityLimit()) {
 			//Hard limit reached, don't spawn any more entities
@@ -383,11 +455,7 @@ public abstract class AreaMobSpawner {
 			}
 		}
 
-		this.updateEntityCounts(world, this.entityCounts);
-		int totalEligibleEntityCount = 0;
-		for(int count : this.entityCounts.values()) {
-			totalEligibleEntityCount += count;
-		}
+		int totalEligibleEntityCount = this.getEligibleEntityCount(world);
 
 		int maxEntitiesForLoadedArea = Math.min(this.getHardEntityLimit(), (int) (spawnerChunks.size() * this.getMaxEntitiesPerSpawnChunkFraction(spawnerChunks.size())));
 
@@ -407,6 +475,131 @@ public abstract class AreaMobSpawner {
 		}
 	}
 
+	private int getEligibleEntityCount(World world) {
+		if(this.trackEntityCounts) {
+			return this.trackedCountedEntityCount;
+		}
+
+		this.updateEntityCounts(world, this.entityCounts);
+		int totalEligibleEntityCount = 0;
+		for(int count : this.entityCounts.values()) {
+			totalEligibleEntityCount += count;
+		}
+		return totalEligibleEntityCount;
+	}
+
+	/**
+	 * Same as {@link #populate(WorldServer, boolean, boolean)} but spreads the spawning pass over multiple calls.
+	 * Each call populates spawner chunks until the time budget is used up and the next call resumes where
+	 * the previous one left off. Works best with {@link #setTrackEntityCounts(World, boolean)} enabled,
+	 * since the entity counts are otherwise recounted at the start of every pass.
+	 * @param world
+	 * @param spawnHostiles
+	 * @param spawnAnimals
+	 * @param budgetNanos Time budget in nanoseconds. At least one chunk is populated per call
+	 * @param startPass Whether a new pass should be started if there is no pass in progress
+	 * @return Whether a pass is still in progress
+	 */
+	public boolean populateIncrementally(WorldServer world, boolean spawnHostiles, boolean spawnAnimals, long budgetNanos, boolean startPass) {
+		long start = System.nanoTime();
+
+		if(this.passIndex >= this.passChunks.size() && (!startPass || !this.startIncrementalPass(world))) {
+			return false;
+		}
+
+		do {
+			if(this.getTotalWorldEntityCount(world) >= this.getHardEntityLimit() || (this.trackEntityCounts && this.trackedCountedEntityCount >= this.passEntityLimit)) {
+				//Limits reached, end pass early
+				this.passIndex = this.passChunks.size();
+				break;
+			}
+
+			long chunk = this.passChunks.getLong(this.passIndex++);
+			int chunkX = (int) chunk;
+			int chunkZ = (int) (chunk >> 32);
+
+			//Don't load chunks
+			if(world.getChunkProvider().getLoadedChunk(chunkX, chunkZ) != null) {
+				this.populateSpawnerChunk(world, new ChunkPos(chunkX, chunkZ), spawnHostiles, spawnAnimals, this.passEntityLimit, this.passLoadedAreas);
+			}
+		} while(this.passIndex < this.passChunks.size() && System.nanoTime() - start < budgetNanos);
+
+		return this.passIndex < this.passChunks.size();
+	}
+
+	private boolean startIncrementalPass(WorldServer world) {
+		this.passChunks.clear();
+		this.passIndex = 0;
+
+		if(this.getTotalWorldEntityCount(world) >= this.getHardEntityLimit()) {
+			//Hard limit reached, don't spawn any more entities
+			return false;
+		}
+
+		this.gatherSpawnerChunks(world, this.passChunks);
+
+		//Don't load chunks
+		for(int i = this.passChunks.size() - 1; i >= 0; i--) {
+			long chunk = this.passChunks.getLong(i);
+			if(world.getChunkProvider().getLoadedChunk((int) chunk, (int) (chunk >> 32)) == null) {
+				this.passChunks.removeLong(i);
+			}
+		}
+
+		int spawnerChunks = this.passChunks.size();
+
+		if(spawnerChunks == 0) {
+			//No spawning chunks
+			return false;
+		}
+
+		this.passEntityLimit = Math.min(this.getHardEntityLimit(), (int) (spawnerChunks * this.getMaxEntitiesPerSpawnChunkFraction(spawnerChunks)));
+
+		if(this.getEligibleEntityCount(world) >= this.passEntityLimit) {
+			//Too many entities, don't spawn any more entities
+			this.passChunks.clear();
+			return false;
+		}
+
+		//The approximate number of loaded areas (one area is the area loaded by one player)
+		this.passLoadedAreas = Math.max(1.0f, this.getLoadedAreasCount(spawnerChunks));
+
+		for(int i = spawnerChunks - 1; i > 0; i--) {
+			int j = world.rand.nextInt(i + 1);
+			long chunk = this.passChunks.getLong(i);
+			this.passChunks.set(i, this.passChunks.getLong(j));
+			this.passChunks.set(j, chunk);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Adds all chunks that are eligible for mob spawning to the list of an incremental spawning pass, see {@link ChunkPos#asLong(int, int)}
+	 * @param world
+	 * @param chunks
+	 */
+	protected void gatherSpawnerChunks(WorldServer world, LongList chunks) {
+		this.updateSpawnerChunks(world, this.eligibleChunksForSpawning);
+		for(ChunkPos chunkPos : this.eligibleChunksForSpawning) {
+			chunks.add(ChunkPos.asLong(chunkPos.x, chunkPos.z));
+		}
+	}
+
+	/**
+	 * Populates a spawner chunk during an incremental spawning pass
+	 * @param world
+	 * @param chunkPos
+	 * @param spawnHostiles
+	 * @param spawnAnimals
+	 * @param entityLimit
+	 * @param loadedAreas
+	 */
+	protected void populateSpawnerChunk(WorldServer world, ChunkPos chunkPos, boolean spawnHostiles, boolean spawnAnimals, int entityLimit, float loadedAreas) {
+		this.populateChunk(world, chunkPos, spawnHostiles, spawnAnimals, true, false,
+				this.getSpawningAttempsPerChunk(), this.getMaxSpawnsPerChunk(), this.getSpawningAttemptsPerGroup(), entityLimit, loadedAreas);
+	}
+
 	public int populateChunk(World world, ChunkPos chunkPos, boolean spawnHostiles, boolean spawnAnimals, boolean loadChunks, boolean ignoreRestrictions,
 			int attemptsPerChunk, int maxSpawnsPerChunk, int attemptsPerGroup, int entityLimit, float loadedAreas) {
 		loadedAreas = Math.max(1.0f, loadedAreas);
@@ -424,36 +617,20 @@ public abstract class AreaMobSpawner {
 
 				Biome biome = world.getBiome(spawnPos);
 
-				int totalBaseWeight = 0;
-				int totalWeight = 0;
-
 				//Get possible spawn entries and update weights
-				List<ICustomSpawnEntry> possibleSpawns = new ArrayList<>();
-				possibleSpawns.addAll(this.getSpawnEntries(world, spawnPos, biome instanceof ICustomSpawnEntriesProvider ? (ICustomSpawnEntriesProvider) biome : null));
-
-				Iterator<ICustomSpawnEntry> spawnEntriesIT = possibleSpawns.iterator();
-				while(spawnEntriesIT.hasNext()) {
-					ICustomSpawnEntry spawnEntry = spawnEntriesIT.next();
+				List<ICustomSpawnEntry> possibleSpawns = this.getSpawnEntries(world, spawnPos, biome instanceof ICustomSpawnEntriesProvider ? (ICustomSpawnEntriesProvider) biome : null);
 
-					if((spawnEntry.isHostile() && !spawnHostiles) || (!spawnEntry.isHostile() && !spawnAnimals)) {
-						spawnEntriesIT.remove();
-						continue;
-					}
+				SpawnEntrySampler sampler = this.getSpawnEntrySampler(biome, spawnHostiles, spawnAnimals);
+				sampler.update(world, spawnPos, possibleSpawns);
 
-					spawnEntry.update(world, spawnPos);
-					totalBaseWeight += spawnEntry.getBaseWeight();
-					totalWeight += spawnEntry.getWeight();
-				}
+				int totalBaseWeight = sampler.getTotalBaseWeight();
+				int totalWeight = sampler.getTotalWeight();
 
-				if(possibleSpawns.isEmpty() || totalWeight == 0 || totalBaseWeight == 0) {
+				if(sampler.isEmpty() || totalWeight == 0 || totalBaseWeight == 0) {
 					continue;
 				}
 
-				WeightedList<ICustomSpawnEntry> weightedPossibleSpawns = new WeightedList<>();
-				weightedPossibleSpawns.addAll(possibleSpawns);
-				weightedPossibleSpawns.recalculateWeight();
-
-				ICustomSpawnEntry spawnEntry = weightedPossibleSpawns.getRandomItem(world.rand);
+				ICustomSpawnEntry spawnEntry = sampler.getRandomEntry(world.rand);
 				if(spawnEntry == null) {
 					continue;
 				}
@@ -597,7 +774,8 @@ public abstract class AreaMobSpawner {
 
 										spawnEntry.onSpawned(spawningEntity);
 
-										if(this.isCountedEntity(world, spawningEntity)) {
+										//Tracked entity counts are already updated when the entity is added to the world
+										if(!this.trackEntityCounts && this.isCountedEntity(world, spawningEntity)) {
 											this.entityCounts.adjustOrPutValue(spawningEntity.getClass(), 1, 1);
 										}
 
@@ -629,6 +807,27 @@ public abstract class AreaMobSpawner {
 		return chunkSpawnedEntities;
 	}
 
+	/**
+	 * Returns the cached spawn entry sampler for the specified biome and spawning flags.
+	 * The sampler rebuilds its weights whenever it is updated with different spawn entries
+	 * @param biome
+	 * @param spawnHostiles
+	 * @param spawnAnimals
+	 * @return
+	 */
+	protected SpawnEntrySampler getSpawnEntrySampler(Biome biome, boolean spawnHostiles, boolean spawnAnimals) {
+		SpawnEntrySampler[] samplers = this.spawnEntrySamplers.get(biome);
+		if(samplers == null) {
+			this.spawnEntrySamplers.put(biome, samplers = new SpawnEntrySampler[4]);
+		}
+		int index = (spawnHostiles ? 2 : 0) | (spawnAnimals ? 1 : 0);
+		SpawnEntrySampler sampler = samplers[index];
+		if(sampler == null) {
+			samplers[index] = sampler = new SpawnEntrySampler(spawnHostiles, spawnAnimals);
+		}
+		return sampler;
+	}
+
 	/**
 	 * Generates a random position to potentially spawn a mob at
 	 * @param world
@@ -659,6 +858,9 @@ public abstract class AreaMobSpawner {
 
 	private final Set<ChunkPos> eligibleChunksForSpawning = new HashSet<>();
 
+	//Spawn entry samplers by biome and spawning flags
+	private final Map<Biome, SpawnEntrySampler[]> spawnEntrySamplers = new Reference2ObjectOpenHashMap<>();
+
 	/**
 	 * Finds all chunks that are eligible for mob spawning and updates the specified set accordingly
 	 * @param world
@@ -0,0 +1,161 @@
+package thebetweenlands.common.world.biome.spawning;
+
+import java.util.List;
+import java.util.Random;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import thebetweenlands.api.entity.spawning.ICustomSpawnEntry;
+
+/**
+ * Weighted random selection of spawn entries, filtered by the hostile and animal flags.
+ * The entries and their cumulative weights are kept in arrays and are only rebuilt
+ * when the entries or the weight of an entry change, so selecting an entry doesn't allocate.
+ * Selection is equivalent to {@link thebetweenlands.util.WeightedList#getRandomItem(Random)}.
+ */
+public class SpawnEntrySampler {
+	private final boolean spawnHostiles;
+	private final boolean spawnAnimals;
+
+	private ICustomSpawnEntry[] entries = new ICustomSpawnEntry[0];
+	private short[] weights = new short[0];
+	private int[] cumulativeWeights = new int[0];
+	private int size = 0;
+
+	private int totalWeight = 0;
+	private int totalBaseWeight = 0;
+
+	public SpawnEntrySampler(boolean spawnHostiles, boolean spawnAnimals) {
+		this.spawnHostiles = spawnHostiles;
+		this.spawnAnimals = spawnAnimals;
+	}
+
+	/**
+	 * Updates all matching spawn entries for the specified position, see {@link ICustomSpawnEntry#update(World, BlockPos)},
+	 * and recalculates the cumulative weights if any entry or weight has changed
+	 * @param world
+	 * @param pos
+	 * @param spawnEntries
+	 */
+	public void update(World world, BlockPos pos, List<ICustomSpawnEntry> spawnEntries) {
+		boolean changed = false;
+		int index = 0;
+
+		for(int i = 0; i < spawnEntries.size(); i++) {
+			ICustomSpawnEntry spawnEntry = spawnEntries.get(i);
+
+			if((spawnEntry.isHostile() && !this.spawnHostiles) || (!spawnEntry.isHostile() && !this.spawnAnimals)) {
+				continue;
+			}
+
+			if(index >= this.entries.length) {
+				this.grow(spawnEntries.size());
+			}
+
+			if(this.entries[index] != spawnEntry) {
+				this.entries[index] = spawnEntry;
+				changed = true;
+			}
+
+			spawnEntry.update(world, pos);
+
+			short weight = spawnEntry.getWeight();
+			if(this.weights[index] != weight) {
+				this.weights[index] = weight;
+				changed = true;
+			}
+
+			index++;
+		}
+
+		if(index != this.size) {
+			for(int i = index; i < this.size; i++) {
+				this.entries[i] = null;
+			}
+			this.size = index;
+			changed = true;
+		}
+
+		if(changed) {
+			this.totalWeight = 0;
+			this.totalBaseWeight = 0;
+			for(int i = 0; i < this.size; i++) {
+				this.totalWeight += this.weights[i];
+				this.totalBaseWeight += this.entries[i].getBaseWeight();
+				this.cumulativeWeights[i] = this.totalWeight;
+			}
+		}
+	}
+
+	private void grow(int minSize) {
+		int newSize = Math.max(minSize, this.entries.length * 2);
+
+		ICustomSpawnEntry[] newEntries = new ICustomSpawnEntry[newSize];
+		System.arraycopy(this.entries, 0, newEntries, 0, this.entries.length);
+		this.entries = newEntries;
+
+		short[] newWeights = new short[newSize];
+		System.arraycopy(this.weights, 0, newWeights, 0, this.weights.length);
+		this.weights = newWeights;
+
+		this.cumulativeWeights = new int[newSize];
+	}
+
+	/**
+	 * Returns whether there are no matching spawn entries
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Returns the total weight of all matching spawn entries
+	 * @return
+	 */
+	public int getTotalWeight() {
+		return this.totalWeight;
+	}
+
+	/**
+	 * Returns the total base weight of all matching spawn entries
+	 * @return
+	 */
+	public int getTotalBaseWeight() {
+		return this.totalBaseWeight;
+	}
+
+	/**
+	 * Returns a random spawn entry based on the weights of the last update
+	 * @param rand
+	 * @return
+	 */
+	@Nullable
+	public ICustomSpawnEntry getRandomEntry(Random rand) {
+		if(this.size == 0) {
+			return null;
+		}
+
+		if(this.totalWeight == 0) {
+			return this.entries[0];
+		}
+
+		int weight = rand.nextInt(this.totalWeight);
+
+		//Finds the first entry whose cumulative weight exceeds the random weight
+		int low = 0;
+		int high = this.size - 1;
+		while(low < high) {
+			int mid = (low + high) >>> 1;
+			if(this.cumulativeWeights[mid] > weight) {
+				high = mid;
+			} else {
+				low = mid + 1;
+			}
+		}
+
+		return this.entries[low];
+	}
+}
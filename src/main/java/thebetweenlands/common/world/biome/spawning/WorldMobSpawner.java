@@ -5,18 +5,32 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import gnu.trove.map.hash.TObjectIntHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.util.SoundCategory;
+import net.minecraft.util.SoundEvent;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.IWorldEventListener;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.biome.Biome;
+import net.minecraft.world.border.WorldBorder;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.event.world.ChunkWatchEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent.Phase;
 import net.minecraftforge.fml.common.gameevent.TickEvent.ServerTickEvent;
@@ -41,6 +55,60 @@ public class WorldMobSpawner extends AreaMobSpawner {
 
 	private boolean firstSpawnPass = false;
 
+	//Incremental spawning state, only used if incremental mob spawning is enabled
+	@Nullable
+	private WorldServer trackedWorld;
+	private final EntityCountListener entityCountListener = new EntityCountListener();
+	private final Long2IntMap watchedChunks = new Long2IntOpenHashMap();
+	private final LongSet spawnerChunks = new LongOpenHashSet();
+	private final LongSet nearPlayerChunks = new LongOpenHashSet();
+	private boolean spawnerChunksDirty = true;
+
+	/**
+	 * Keeps the tracked entity counts up to date
+	 */
+	private class EntityCountListener implements IWorldEventListener {
+		@Override
+		public void onEntityAdded(Entity entity) {
+			WorldMobSpawner.this.onEntityAdded(entity.world, entity);
+		}
+
+		@Override
+		public void onEntityRemoved(Entity entity) {
+			WorldMobSpawner.this.onEntityRemoved(entity.world, entity);
+		}
+
+		@Override
+		public void notifyBlockUpdate(World world, BlockPos pos, IBlockState oldState, IBlockState newState, int flags) { }
+
+		@Override
+		public void notifyLightSet(BlockPos pos) { }
+
+		@Override
+		public void markBlockRangeForRenderUpdate(int x1, int y1, int z1, int x2, int y2, int z2) { }
+
+		@Override
+		public void playSoundToAllNearExcept(EntityPlayer player, SoundEvent sound, SoundCategory category, double x, double y, double z, float volume, float pitch) { }
+
+		@Override
+		public void playRecord(SoundEvent sound, BlockPos pos) { }
+
+		@Override
+		public void spawnParticle(int particleID, boolean ignoreRange, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) { }
+
+		@Override
+		public void spawnParticle(int id, boolean ignoreRange, boolean minimiseParticleLevel, double x, double y, double z, double xSpeed, double ySpeed, double zSpeed, int... parameters) { }
+
+		@Override
+		public void broadcastSound(int soundID, BlockPos pos, int data) { }
+
+		@Override
+		public void playEvent(EntityPlayer player, int type, BlockPos pos, int data) { }
+
+		@Override
+		public void sendBlockBreakProgress(int breakerId, BlockPos pos, int progress) { }
+	}
+
 	public WorldMobSpawner() {
 		this.setStrictDynamicLimit(false);
 	}
@@ -109,6 +177,106 @@ public class WorldMobSpawner extends AreaMobSpawner {
 		}
 	}
 
+	@Override
+	protected void gatherSpawnerChunks(WorldServer world, LongList chunks) {
+		if(world != this.trackedWorld) {
+			super.gatherSpawnerChunks(world, chunks);
+			return;
+		}
+
+		if(this.spawnerChunksDirty) {
+			this.spawnerChunksDirty = false;
+
+			this.spawnerChunks.clear();
+			this.nearPlayerChunks.clear();
+
+			WorldBorder border = world.getWorldBorder();
+
+			for (EntityPlayer entityplayer : world.playerEntities) {
+				if (!entityplayer.isSpectator()) {
+					int cx = MathHelper.floor(entityplayer.posX / 16.0D);
+					int cz = MathHelper.floor(entityplayer.posZ / 16.0D);
+
+					for (int xo = -SPAWN_CHUNK_MAX_RANGE; xo <= SPAWN_CHUNK_MAX_RANGE; ++xo) {
+						for (int zo = -SPAWN_CHUNK_MAX_RANGE; zo <= SPAWN_CHUNK_MAX_RANGE; ++zo) {
+							int x = xo + cx;
+							int z = zo + cz;
+							long chunk = ChunkPos.asLong(x, z);
+
+							if(Math.abs(xo) <= SPAWN_CHUNK_MIN_RANGE && Math.abs(zo) <= SPAWN_CHUNK_MIN_RANGE) {
+								this.nearPlayerChunks.add(chunk);
+							} else if(this.watchedChunks.containsKey(chunk) && x * 16 + 15 > border.minX() && x * 16 < border.maxX() && z * 16 + 15 > border.minZ() && z * 16 < border.maxZ()) {
+								this.spawnerChunks.add(chunk);
+							}
+						}
+					}
+				}
+			}
+
+			this.spawnerChunks.removeAll(this.nearPlayerChunks);
+		}
+
+		chunks.addAll(this.spawnerChunks);
+	}
+
+	@Override
+	protected void populateSpawnerChunk(WorldServer world, ChunkPos chunkPos, boolean spawnHostiles, boolean spawnAnimals, int entityLimit, float loadedAreas) {
+		//Runs both spawning passes per chunk instead of one after the other over all chunks
+		this.firstSpawnPass = true;
+		super.populateSpawnerChunk(world, chunkPos, spawnHostiles, spawnAnimals, entityLimit, loadedAreas);
+
+		this.firstSpawnPass = false;
+		super.populateSpawnerChunk(world, chunkPos, spawnHostiles, spawnAnimals, entityLimit, loadedAreas);
+	}
+
+	@SubscribeEvent
+	public void onWorldLoad(WorldEvent.Load event) {
+		if(!event.getWorld().isRemote && event.getWorld().provider.getDimension() == BetweenlandsConfig.WORLD_AND_DIMENSION.dimensionId
+				&& BetweenlandsConfig.PERFORMANCE.incrementalMobSpawning) {
+			this.trackedWorld = (WorldServer) event.getWorld();
+			this.watchedChunks.clear();
+			this.spawnerChunksDirty = true;
+			this.setTrackEntityCounts(this.trackedWorld, true);
+			this.trackedWorld.addEventListener(this.entityCountListener);
+		}
+	}
+
+	@SubscribeEvent
+	public void onWorldUnload(WorldEvent.Unload event) {
+		if(event.getWorld() == this.trackedWorld) {
+			this.trackedWorld.removeEventListener(this.entityCountListener);
+			this.setTrackEntityCounts(this.trackedWorld, false);
+			this.trackedWorld = null;
+			this.watchedChunks.clear();
+			this.spawnerChunks.clear();
+			this.nearPlayerChunks.clear();
+		}
+	}
+
+	@SubscribeEvent
+	public void onWatchChunk(ChunkWatchEvent.Watch event) {
+		if(this.trackedWorld != null && event.getChunkInstance().getWorld() == this.trackedWorld) {
+			ChunkPos pos = event.getChunkInstance().getPos();
+			this.watchedChunks.put(ChunkPos.asLong(pos.x, pos.z), this.watchedChunks.get(ChunkPos.asLong(pos.x, pos.z)) + 1);
+			this.spawnerChunksDirty = true;
+		}
+	}
+
+	@SubscribeEvent
+	public void onUnwatchChunk(ChunkWatchEvent.UnWatch event) {
+		if(this.trackedWorld != null && event.getChunkInstance().getWorld() == this.trackedWorld) {
+			ChunkPos pos = event.getChunkInstance().getPos();
+			long chunk = ChunkPos.asLong(pos.x, pos.z);
+			int watchers = this.watchedChunks.get(chunk) - 1;
+			if(watchers <= 0) {
+				this.watchedChunks.remove(chunk);
+			} else {
+				this.watchedChunks.put(chunk, watchers);
+			}
+			this.spawnerChunksDirty = true;
+		}
+	}
+
 	@Override
 	protected void updateEntityCounts(World world, TObjectIntHashMap<Class<? extends Entity>> entityCounts) {
 		if(this.firstSpawnPass) {
@@ -158,7 +326,13 @@ public class WorldMobSpawner extends AreaMobSpawner {
 			if(world == null || world.playerEntities.isEmpty())
 				return;
 
-			if(world.provider instanceof WorldProviderBetweenlands && world.getGameRules().getBoolean("doMobSpawning") && world.getTotalWorldTime() % 4 == 0) {
+			if(world == this.trackedWorld && world.provider instanceof WorldProviderBetweenlands && world.getGameRules().getBoolean("doMobSpawning")) {
+				boolean spawnHostiles = ((WorldProviderBetweenlands)world.provider).getCanSpawnHostiles();
+				boolean spawnAnimals = ((WorldProviderBetweenlands)world.provider).getCanSpawnAnimals();
+
+				//Continues the pass of the previous tick or starts a new pass every 4 ticks
+				this.populateIncrementally(world, spawnHostiles, spawnAnimals, BetweenlandsConfig.PERFORMANCE.mobSpawningTickBudget * 1000L, world.getTotalWorldTime() % 4 == 0);
+			} else if(world.provider instanceof WorldProviderBetweenlands && world.getGameRules().getBoolean("doMobSpawning") && world.getTotalWorldTime() % 4 == 0) {
 				boolean spawnHostiles = ((WorldProviderBetweenlands)world.provider).getCanSpawnHostiles();
 				boolean spawnAnimals = ((WorldProviderBetweenlands)world.provider).getCanSpawnAnimals();
 
@@ -30,11 +30,22 @@ public abstract class BLEnvironmentEvent implements IEnvironmentEvent, IRemotely
 
 	protected final GenericDataManager dataManager;
 
+	private final boolean locationDependent;
+
 	public BLEnvironmentEvent(BLEnvironmentEventRegistry registry) {
 		this.registry = registry;
 		this.world = registry.getWorld();
 		this.dataManager = new GenericDataManager(this);
 		this.initDataParameters();
+
+		//Only events that override isActiveAt can differ from isActive
+		boolean locationDependent;
+		try {
+			locationDependent = this.getClass().getMethod("isActiveAt", double.class, double.class, double.class).getDeclaringClass() != BLEnvironmentEvent.class;
+		} catch(NoSuchMethodException ex) {
+			locationDependent = true;
+		}
+		this.locationDependent = locationDependent;
 	}
 
 	protected void initDataParameters() {
@@ -54,8 +65,14 @@ public abstract class BLEnvironmentEvent implements IEnvironmentEvent, IRemotely
 			this.isStateFromRemoteOverridden = true;
 		}
 
+		boolean wasActive = this.isActive();
+
 		this.dataManager.set(ACTIVE, active);
 
+		if(wasActive != active) {
+			this.registry.onEventStateChanged(this);
+		}
+
 		if (active)
 			for (EntityPlayerMP player: getWorld().getPlayers(EntityPlayerMP.class, player -> player.dimension == BetweenlandsConfig.WORLD_AND_DIMENSION.dimensionId))
 				AdvancementCriterionRegistry.EVENT.trigger(player, getEventName());
@@ -139,6 +156,11 @@ public abstract class BLEnvironmentEvent implements IEnvironmentEvent, IRemotely
 		return this.isActive();
 	}
 
+	@Override
+	public boolean isLocationDependent() {
+		return this.locationDependent;
+	}
+
 	@Override
 	public void resetActiveState() {
 		if(this.isActive()) {
@@ -166,7 +188,11 @@ public abstract class BLEnvironmentEvent implements IEnvironmentEvent, IRemotely
 	@Override
 	public final void readFromNBT(NBTTagCompound compound) {
 		this.nbtt = compound.getCompoundTag("environmentEvent:" + this.getEventName());
+		boolean wasActive = this.isActive();
 		this.dataManager.set(ACTIVE, this.nbtt.getBoolean("active"));
+		if(wasActive != this.isActive()) {
+			this.registry.onEventStateChanged(this);
+		}
 		this.loadEventData();
 		this.loaded = true;
 	}
@@ -67,6 +67,17 @@ public class BLEnvironmentEventRegistry implements IEnvironmentEventRegistry {
 
 	private boolean disabled = false;
 
+	private final List<StateListener> stateListeners = new ArrayList<>();
+	private int stateVersion = 0;
+
+	//Snapshot of the event states, rebuilt lazily after an event's state has changed
+	private boolean snapshotDirty = true;
+	private IEnvironmentEvent[] snapshotEvents = new IEnvironmentEvent[0];
+	private boolean[] snapshotStates = new boolean[0];
+	private List<IEnvironmentEvent> snapshotActiveEvents = Collections.emptyList();
+	private List<IEnvironmentEvent> snapshotInactiveEvents = Collections.emptyList();
+	private boolean snapshotHasLocationDependentEvents = false;
+
 	@Override
 	public void register(IEnvironmentEvent event) {
 		if(registeredEvents.containsKey(event.getEventName())) {
@@ -76,11 +87,91 @@ public class BLEnvironmentEventRegistry implements IEnvironmentEventRegistry {
 			throw new RuntimeException(String.format("Environment event %s is already registered in another registry: %s", event.getEventName(), this));
 		}
 		registeredEvents.put(event.getEventName(), event);
+		this.onEventStateChanged(event);
 	}
 
 	@Override
 	public IEnvironmentEvent unregister(IEnvironmentEvent event) {
-		return registeredEvents.remove(event.getEventName());
+		IEnvironmentEvent removed = registeredEvents.remove(event.getEventName());
+		if(removed != null) {
+			this.onEventStateChanged(removed);
+		}
+		return removed;
+	}
+
+	/**
+	 * Invalidates the state snapshot and notifies the state listeners. Called by the events when they
+	 * are activated or deactivated
+	 * @param event
+	 */
+	public void onEventStateChanged(IEnvironmentEvent event) {
+		this.snapshotDirty = true;
+		this.stateVersion++;
+		for(int i = 0; i < this.stateListeners.size(); i++) {
+			this.stateListeners.get(i).onStateChanged(this, event);
+		}
+	}
+
+	/**
+	 * Checks whether the state of any event has changed without notifying the registry,
+	 * e.g. events of other mods, and if so invalidates the snapshot. Called once per tick
+	 */
+	public void validateSnapshot() {
+		if(!this.snapshotDirty) {
+			for(int i = 0; i < this.snapshotEvents.length; i++) {
+				IEnvironmentEvent event = this.snapshotEvents[i];
+				if(event.isActive() != this.snapshotStates[i]) {
+					this.onEventStateChanged(event);
+					break;
+				}
+			}
+		}
+	}
+
+	private void updateSnapshot() {
+		if(this.snapshotDirty) {
+			this.snapshotDirty = false;
+
+			IEnvironmentEvent[] events = this.registeredEvents.values().toArray(new IEnvironmentEvent[0]);
+			boolean[] states = new boolean[events.length];
+			List<IEnvironmentEvent> activeEvents = new ArrayList<>();
+			List<IEnvironmentEvent> inactiveEvents = new ArrayList<>();
+			boolean hasLocationDependentEvents = false;
+
+			for(int i = 0; i < events.length; i++) {
+				IEnvironmentEvent event = events[i];
+				states[i] = event.isActive();
+				if(states[i]) {
+					activeEvents.add(event);
+				} else {
+					inactiveEvents.add(event);
+				}
+				hasLocationDependentEvents |= event.isLocationDependent();
+			}
+
+			this.snapshotEvents = events;
+			this.snapshotStates = states;
+			this.snapshotActiveEvents = Collections.unmodifiableList(activeEvents);
+			this.snapshotInactiveEvents = Collections.unmodifiableList(inactiveEvents);
+			this.snapshotHasLocationDependentEvents = hasLocationDependentEvents;
+		}
+	}
+
+	@Override
+	public int getStateVersion() {
+		return this.stateVersion;
+	}
+
+	@Override
+	public void addStateListener(StateListener listener) {
+		if(!this.stateListeners.contains(listener)) {
+			this.stateListeners.add(listener);
+		}
+	}
+
+	@Override
+	public void removeStateListener(StateListener listener) {
+		this.stateListeners.remove(listener);
 	}
 
 	@Override
@@ -98,24 +189,25 @@ public class BLEnvironmentEventRegistry implements IEnvironmentEventRegistry {
 
 	@Override
 	public List<IEnvironmentEvent> getEventsOfState(boolean isActive) {
-		List<IEnvironmentEvent> list = new ArrayList<IEnvironmentEvent>();
-		for (IEnvironmentEvent event : registeredEvents.values()) {
-			if (event.isActive() == isActive) {
-				list.add(event);
-			}
-		}
-		return list;
+		this.updateSnapshot();
+		return isActive ? this.snapshotActiveEvents : this.snapshotInactiveEvents;
 	}
 
 	@Override
 	public List<IEnvironmentEvent> getEventsOfStateAt(double x, double y, double z, boolean active) {
+		this.updateSnapshot();
+		if(!this.snapshotHasLocationDependentEvents) {
+			return active ? this.snapshotActiveEvents : this.snapshotInactiveEvents;
+		}
 		List<IEnvironmentEvent> list = new ArrayList<IEnvironmentEvent>();
-		for (IEnvironmentEvent event : this.getEvents().values()) {
-			if (event.isActiveAt(x, y, z) == active) {
+		for (int i = 0; i < this.snapshotEvents.length; i++) {
+			IEnvironmentEvent event = this.snapshotEvents[i];
+			boolean eventActive = event.isLocationDependent() ? event.isActiveAt(x, y, z) : this.snapshotStates[i];
+			if (eventActive == active) {
 				list.add(event);
 			}
 		}
-		return list;
+		return Collections.unmodifiableList(list);
 	}
 
 	public List<ResourceLocation> getEventNames() {
@@ -192,6 +284,6 @@ public class BLEnvironmentEventRegistry implements IEnvironmentEventRegistry {
 	@Override
 	public boolean isEventActiveAt(double x, double y, double z, ResourceLocation eventId) {
 		IEnvironmentEvent event = this.getEvent(eventId);
-		return event != null && event.isActiveAt(x, y, z);
+		return event != null && (event.isLocationDependent() ? event.isActiveAt(x, y, z) : event.isActive());
 	}
 }
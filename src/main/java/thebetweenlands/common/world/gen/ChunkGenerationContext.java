@@ -0,0 +1,155 @@
+package thebetweenlands.common.world.gen;
+
+import java.util.Random;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableSet;
+
+import net.minecraft.init.Biomes;
+import net.minecraft.world.biome.Biome;
+import net.minecraft.world.gen.MapGenBase;
+import net.minecraft.world.gen.layer.GenLayer;
+import thebetweenlands.common.registries.BiomeRegistry;
+import thebetweenlands.common.world.gen.biome.BiomeProviderBetweenlands;
+import thebetweenlands.common.world.gen.biome.BiomeWeights;
+import thebetweenlands.common.world.gen.feature.MapGenCavesBetweenlands;
+import thebetweenlands.common.world.gen.feature.MapGenFloatingIslands;
+import thebetweenlands.common.world.gen.feature.MapGenGiantRoots;
+import thebetweenlands.common.world.gen.feature.MapGenRavineBetweenlands;
+import thebetweenlands.common.world.gen.layer.InstancedIntCache;
+
+/**
+ * Holds all per chunk buffers and generators used by {@link ChunkGeneratorBetweenlands} to generate
+ * the terrain of a chunk. A context must only be used by one thread at a time, but multiple
+ * concurrent contexts can generate chunks in parallel, see {@link ChunkGeneratorBetweenlands#generateChunkPrimer(ChunkGenerationContext, int, int)}.
+ * Concurrent contexts have their own biome gen layers since gen layers aren't thread safe.
+ */
+public class ChunkGenerationContext {
+	final boolean concurrent;
+
+	@Nullable
+	private final InstancedIntCache intCache;
+	@Nullable
+	private final GenLayer genBiomes;
+	@Nullable
+	private final GenLayer biomeIndexLayer;
+
+	final Random rand;
+
+	/**
+	 * Technically this isn't a heightmap, it's a 3D density map
+	 */
+	final double[] heightMap = new double[825];
+	double[] surfaceNoiseBuffer = new double[256];
+	final float[] terrainBiomeWeights = new float[25];
+	final float[] interpolatedTerrainBiomeWeights = new float[256];
+	Biome[] biomesForGeneration;
+	double[] mainNoiseRegion;
+	double[] minLimitRegion;
+	double[] maxLimitRegion;
+	double[] depthRegion;
+	BiomeWeights biomeWeights;
+
+	final MapGenCavesBetweenlands caveGenerator;
+	final MapGenBase ravineGenerator;
+	final MapGenBase giantRootGenerator;
+	final MapGenBase floatingIslandGenerator;
+
+	/**
+	 * @param seed World seed
+	 * @param biomeProvider If not null this context is used to generate chunks off the main thread and
+	 * generates biomes with its own gen layers created by the specified biome provider. Otherwise biomes
+	 * are taken from the world's biome provider
+	 */
+	public ChunkGenerationContext(long seed, @Nullable BiomeProviderBetweenlands biomeProvider) {
+		this.concurrent = biomeProvider != null;
+		if(biomeProvider != null) {
+			this.intCache = new InstancedIntCache();
+			GenLayer[] biomeGenerators = biomeProvider.createBiomeGenerators(this.intCache);
+			this.genBiomes = biomeGenerators[0];
+			this.biomeIndexLayer = biomeGenerators[1];
+		} else {
+			this.intCache = null;
+			this.genBiomes = null;
+			this.biomeIndexLayer = null;
+		}
+		this.rand = new Random(seed);
+		this.caveGenerator = new MapGenCavesBetweenlands(seed);
+		this.ravineGenerator = new MapGenRavineBetweenlands();
+		this.giantRootGenerator = new MapGenGiantRoots(seed, ImmutableSet.of(BiomeRegistry.COARSE_ISLANDS, BiomeRegistry.RAISED_ISLES));
+		this.floatingIslandGenerator = new MapGenFloatingIslands(seed);
+	}
+
+	/**
+	 * Returns whether this context is used to generate chunks off the main thread
+	 * @return
+	 */
+	public boolean isConcurrent() {
+		return this.concurrent;
+	}
+
+	/**
+	 * Releases the pooled biome gen layer arrays of this context. Should be called once a concurrent
+	 * context is no longer needed, e.g. when the thread pool generating the chunks is shut down
+	 */
+	public void release() {
+		if(this.intCache != null) {
+			this.intCache.release();
+		}
+	}
+
+	/**
+	 * Returns the 16x16 biomes of the last chunk generated with this context
+	 * @return
+	 */
+	public Biome[] getBiomes() {
+		return this.biomesForGeneration;
+	}
+
+	/**
+	 * Generates the biomes used for the terrain generation with the gen layers of this concurrent context.
+	 * Same as {@link net.minecraft.world.biome.BiomeProvider#getBiomesForGeneration(Biome[], int, int, int, int)}
+	 * @param biomes
+	 * @param x
+	 * @param z
+	 * @param width
+	 * @param depth
+	 * @return
+	 */
+	Biome[] getBiomesForGeneration(@Nullable Biome[] biomes, int x, int z, int width, int depth) {
+		return getBiomesFromLayer(this.genBiomes, biomes, x, z, width, depth);
+	}
+
+	/**
+	 * Generates the block biomes with the gen layers of this concurrent context.
+	 * Same as {@link net.minecraft.world.biome.BiomeProvider#getBiomes(Biome[], int, int, int, int, boolean)} without the biome cache
+	 * @param biomes
+	 * @param x
+	 * @param z
+	 * @param width
+	 * @param depth
+	 * @return
+	 */
+	Biome[] getBiomes(@Nullable Biome[] biomes, int x, int z, int width, int depth) {
+		return getBiomesFromLayer(this.biomeIndexLayer, biomes, x, z, width, depth);
+	}
+
+	private static Biome[] getBiomesFromLayer(@Nullable GenLayer layer, @Nullable Biome[] biomes, int x, int z, int width, int depth) {
+		if(layer == null) {
+			throw new IllegalStateException("Only concurrent generation contexts have their own biome generators");
+		}
+
+		if(biomes == null || biomes.length < width * depth) {
+			biomes = new Biome[width * depth];
+		}
+
+		int[] biomeIds = layer.getInts(x, z, width, depth);
+
+		for(int i = 0; i < width * depth; i++) {
+			biomes[i] = Biome.getBiome(biomeIds[i], Biomes.DEFAULT);
+		}
+
+		return biomes;
+	}
+}
@@ -14,13 +14,16 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.Nullable;
 import javax.imageio.ImageIO;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 
 import net.minecraft.block.Block;
@@ -35,26 +38,23 @@ import net.minecraft.world.WorldEntitySpawner;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.biome.Biome;
 import net.minecraft.world.biome.Biome.SpawnListEntry;
+import net.minecraft.world.biome.BiomeProvider;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.chunk.ChunkPrimer;
 import net.minecraft.world.gen.IChunkGenerator;
-import net.minecraft.world.gen.MapGenBase;
 import net.minecraft.world.gen.NoiseGeneratorOctaves;
 import net.minecraft.world.gen.NoiseGeneratorPerlin;
 import net.minecraft.world.gen.NoiseGeneratorSimplex;
 import net.minecraftforge.event.ForgeEventFactory;
 import thebetweenlands.common.TheBetweenlands;
-import thebetweenlands.common.registries.BiomeRegistry;
+import thebetweenlands.common.config.BetweenlandsConfig;
 import thebetweenlands.common.world.biome.BiomeBetweenlands;
 import thebetweenlands.common.world.biome.spawning.WorldMobSpawner;
+import thebetweenlands.common.world.gen.biome.BiomeProviderBetweenlands;
 import thebetweenlands.common.world.gen.biome.BiomeWeights;
 import thebetweenlands.common.world.gen.biome.decorator.BiomeDecoratorBetweenlands;
 import thebetweenlands.common.world.gen.biome.generator.BiomeGenerator;
 import thebetweenlands.common.world.gen.biome.generator.BiomeGenerator.EnumGeneratorPass;
-import thebetweenlands.common.world.gen.feature.MapGenCavesBetweenlands;
-import thebetweenlands.common.world.gen.feature.MapGenFloatingIslands;
-import thebetweenlands.common.world.gen.feature.MapGenGiantRoots;
-import thebetweenlands.common.world.gen.feature.MapGenRavineBetweenlands;
 
 public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 	/**
@@ -81,26 +81,19 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 	public NoiseGeneratorOctaves scaleNoise;
 	public NoiseGeneratorOctaves depthNoise;
 	private final World worldObj;
-	/**
-	 * Technically this isn't a heightmap, it's a 3D density map
-	 */
-	private final double[] heightMap;
 	private final float[] biomeWeights;
-	private double[] surfaceNoiseBuffer = new double[256];
-	private float[] terrainBiomeWeights = new float[25];
-	private float[] interpolatedTerrainBiomeWeights = new float[256];
-	private Biome[] biomesForGeneration;
-	private double[] mainNoiseRegion;
-	private double[] minLimitRegion;
-	private double[] maxLimitRegion;
-	private double[] depthRegion;
 	private final long seed;
 	private final int layerHeight;
 
-	private MapGenCavesBetweenlands caveGenerator;
-	private MapGenBase ravineGenerator;
-	private MapGenBase giantRootGenerator;
-	private MapGenBase floatingIslandGenerator;
+	//Buffers and generators of the chunks generated on the main thread
+	private final ChunkGenerationContext context;
+
+	//Biome block generators are shared by all contexts and must only be used by one thread at a time.
+	//The biome gen layers aren't shared, concurrent contexts have their own
+	private static final Object BIOME_GENERATOR_LOCK = new Object();
+
+	private static ExecutorService debugConcurrentGenerationExecutor;
+	private ChunkGenerationContext debugConcurrentContext;
 
 	private NoiseGeneratorSimplex treeNoise;
 	private NoiseGeneratorSimplex speleothemDensityNoise;
@@ -114,7 +107,6 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 		this.worldObj = world;
 		this.seed = seed;
 		this.rand = new Random(seed);
-		this.heightMap = new double[825];
 		this.biomeWeights = new float[25];
 		for (int i = -2; i <= 2; ++i) {
 			for (int j = -2; j <= 2; ++j) {
@@ -141,23 +133,141 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 		this.treeNoise = ctx.getTreeNoise();
 		this.speleothemDensityNoise = ctx.getSpeleothemDensityNoise();
 		world.setSeaLevel(layerHeight);
-		this.caveGenerator = new MapGenCavesBetweenlands(seed);
-		this.ravineGenerator = new MapGenRavineBetweenlands();
-		this.giantRootGenerator = new MapGenGiantRoots(seed, ImmutableSet.of(BiomeRegistry.COARSE_ISLANDS, BiomeRegistry.RAISED_ISLES));
-		this.floatingIslandGenerator = new MapGenFloatingIslands(seed);
+		this.context = new ChunkGenerationContext(seed, null);
 	}
 
+	/**
+	 * Creates a new generation context for generating chunks off the main thread with
+	 * {@link #generateChunkPrimer(ChunkGenerationContext, int, int)}. Each thread needs its own context.
+	 * The context has its own biome gen layers, which are created by the world's biome provider
+	 * @return
+	 */
+	public ChunkGenerationContext createConcurrentContext() {
+		BiomeProvider biomeProvider = this.worldObj.getBiomeProvider();
+		if(!(biomeProvider instanceof BiomeProviderBetweenlands)) {
+			throw new IllegalStateException("Concurrent chunk generation requires the Betweenlands biome provider");
+		}
+		return new ChunkGenerationContext(this.seed, (BiomeProviderBetweenlands) biomeProvider);
+	}
 
 	//TODO Not sure at all about this
 	@Override
 	public Chunk generateChunk(int chunkX, int chunkZ) {
-		this.rand.setSeed((long)chunkX * 341873128712L + (long)chunkZ * 132897987541L);
 		debugProvideHandle(chunkX, chunkZ);
 
-		ChunkPrimer chunkprimer = new ChunkPrimer();
+		Future<ChunkPrimer> concurrentPrimer = null;
+		if(BetweenlandsConfig.DEBUG.debugConcurrentChunkGeneration) {
+			concurrentPrimer = this.generateDebugConcurrentChunkPrimer(chunkX, chunkZ);
+		}
+
+		ChunkPrimer chunkprimer = this.generateChunkPrimer(this.context, chunkX, chunkZ);
+
+		if(concurrentPrimer != null) {
+			this.verifyDebugConcurrentChunkPrimer(chunkX, chunkZ, chunkprimer, concurrentPrimer);
+		}
+
+		this.generatePostCaveFeatures(this.context, chunkX, chunkZ, chunkprimer);
+
+		Chunk chunk = new Chunk(this.worldObj, chunkprimer, chunkX, chunkZ);
+		byte[] biomeArray = chunk.getBiomeArray();
+
+		for (int i = 0; i < biomeArray.length; ++i) {
+			biomeArray[i] = (byte)Biome.getIdForBiome(this.context.biomesForGeneration[i]);
+		}
+
+		chunk.generateSkylightMap();
+		return chunk;
+	}
+
+	private static synchronized ExecutorService getDebugConcurrentGenerationExecutor() {
+		if(debugConcurrentGenerationExecutor == null) {
+			debugConcurrentGenerationExecutor = Executors.newSingleThreadExecutor(r -> {
+				Thread thread = new Thread(r);
+				thread.setName("BL Concurrent Chunk Generation Check");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return debugConcurrentGenerationExecutor;
+	}
+
+	/**
+	 * Starts generating the chunk primer of a chunk with a concurrent context on another thread,
+	 * so that it can be compared to the chunk primer generated on the main thread
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return
+	 */
+	private Future<ChunkPrimer> generateDebugConcurrentChunkPrimer(int chunkX, int chunkZ) {
+		if(this.debugConcurrentContext == null) {
+			this.debugConcurrentContext = this.createConcurrentContext();
+		}
+		final ChunkGenerationContext ctx = this.debugConcurrentContext;
+		return getDebugConcurrentGenerationExecutor().submit(() -> this.generateChunkPrimer(ctx, chunkX, chunkZ));
+	}
+
+	/**
+	 * Compares the blocks and biomes of a chunk primer generated with a concurrent context to those
+	 * of the chunk primer generated on the main thread and logs any differences
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param primer
+	 * @param concurrentPrimerFuture
+	 */
+	private void verifyDebugConcurrentChunkPrimer(int chunkX, int chunkZ, ChunkPrimer primer, Future<ChunkPrimer> concurrentPrimerFuture) {
+		ChunkPrimer concurrentPrimer;
+		try {
+			concurrentPrimer = concurrentPrimerFuture.get();
+		} catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch(ExecutionException ex) {
+			TheBetweenlands.logger.error(String.format("Failed generating chunk at %s with a concurrent generation context", "[x=" + chunkX + ", z=" + chunkZ + "]"), ex.getCause());
+			return;
+		}
+
+		int differentBlocks = 0;
+		for(int x = 0; x < 16; x++) {
+			for(int z = 0; z < 16; z++) {
+				for(int y = 0; y < 256; y++) {
+					if(primer.getBlockState(x, y, z) != concurrentPrimer.getBlockState(x, y, z)) {
+						differentBlocks++;
+					}
+				}
+			}
+		}
+
+		int differentBiomes = 0;
+		Biome[] biomes = this.context.biomesForGeneration;
+		Biome[] concurrentBiomes = this.debugConcurrentContext.biomesForGeneration;
+		for(int i = 0; i < 256; i++) {
+			if(biomes[i] != concurrentBiomes[i]) {
+				differentBiomes++;
+			}
+		}
+
+		if(differentBlocks > 0 || differentBiomes > 0) {
+			TheBetweenlands.logger.warn(String.format("Chunk at %s generated with a concurrent generation context differs from the serially generated chunk: %d blocks and %d biomes are different", "[x=" + chunkX + ", z=" + chunkZ + "]", differentBlocks, differentBiomes));
+		}
+	}
 
+	/**
+	 * Generates the base terrain, biome blocks and caves of a chunk into a new chunk primer.
+	 * With a concurrent context (see {@link #createConcurrentContext()}) this is thread safe, so many chunks can
+	 * be generated in parallel. Only the biome blocks are generated one chunk at a time since the biome block generators are shared.
+	 * The chunk must then be finished on the main thread with {@link #generatePostCaveFeatures(ChunkGenerationContext, int, int, ChunkPrimer)}
+	 * before the context is used again, which produces the same chunk as {@link #generateChunk(int, int)}.
+	 * @param ctx
+	 * @param chunkX
+	 * @param chunkZ
+	 * @return
+	 */
+	public ChunkPrimer generateChunkPrimer(ChunkGenerationContext ctx, int chunkX, int chunkZ) {
+		ctx.rand.setSeed((long)chunkX * 341873128712L + (long)chunkZ * 132897987541L);
+
+		ChunkPrimer chunkprimer = new ChunkPrimer();
 
-		this.setBlocksInChunk(chunkX, chunkZ, chunkprimer);
+		this.setBlocksInChunk(ctx, chunkX, chunkZ, chunkprimer);
 
 		//Interpolate biome weights
 		for(int z = 0; z < 16; z++) {
@@ -167,59 +277,84 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 				int biomeWeightZ = z / 4;
 				int biomeWeightX = x / 4;
 
-				float weightXCZC = this.terrainBiomeWeights[biomeWeightX + biomeWeightZ * 5];
-				float weightXNZC = this.terrainBiomeWeights[biomeWeightX+1 + biomeWeightZ * 5];
-				float weightXCZN = this.terrainBiomeWeights[biomeWeightX + (biomeWeightZ+1) * 5];
-				float weightXNZN = this.terrainBiomeWeights[biomeWeightX+1 + (biomeWeightZ+1) * 5];
+				float weightXCZC = ctx.terrainBiomeWeights[biomeWeightX + biomeWeightZ * 5];
+				float weightXNZC = ctx.terrainBiomeWeights[biomeWeightX+1 + biomeWeightZ * 5];
+				float weightXCZN = ctx.terrainBiomeWeights[biomeWeightX + (biomeWeightZ+1) * 5];
+				float weightXNZN = ctx.terrainBiomeWeights[biomeWeightX+1 + (biomeWeightZ+1) * 5];
 
 				float interpZAxisXC = weightXCZC + (weightXCZN - weightXCZC) * fractionZ;
 				float interpZAxisXN = weightXNZC + (weightXNZN - weightXNZC) * fractionZ;
 				float currentVal = interpZAxisXC + (interpZAxisXN - interpZAxisXC) * fractionX;
 
-				this.interpolatedTerrainBiomeWeights[x + z * 16] = currentVal;
+				ctx.interpolatedTerrainBiomeWeights[x + z * 16] = currentVal;
 			}
 		}
 
-		BiomeWeights biomeWeights = new BiomeWeights(this.interpolatedTerrainBiomeWeights);
+		ctx.biomeWeights = new BiomeWeights(ctx.interpolatedTerrainBiomeWeights);
 
-		this.biomesForGeneration = this.worldObj.getBiomeProvider().getBiomes(this.biomesForGeneration, chunkX * 16, chunkZ * 16, 16, 16);
+		if(ctx.concurrent) {
+			//The gen layers and biome cache of the world aren't thread safe, so concurrent contexts use their own gen layers
+			ctx.biomesForGeneration = ctx.getBiomes(ctx.biomesForGeneration, chunkX * 16, chunkZ * 16, 16, 16);
+		} else {
+			ctx.biomesForGeneration = this.worldObj.getBiomeProvider().getBiomes(ctx.biomesForGeneration, chunkX * 16, chunkZ * 16, 16, 16, true);
+		}
 
-		this.replaceBiomeBlocks(chunkX, chunkZ, chunkprimer, this.biomesForGeneration, biomeWeights);
+		synchronized(BIOME_GENERATOR_LOCK) {
+			this.replaceBiomeBlocks(ctx, chunkX, chunkZ, chunkprimer, ctx.biomesForGeneration, ctx.biomeWeights);
+		}
 
 		//Gen caves
-		this.caveGenerator.setBiomeTerrainWeights(biomeWeights);
-		this.caveGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
+		ctx.caveGenerator.setBiomeTerrainWeights(ctx.biomeWeights);
+		ctx.caveGenerator.setBiomes(ctx.concurrent ? ctx.biomesForGeneration : null);
+		ctx.caveGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
+
+		return chunkprimer;
+	}
+
+	/**
+	 * Generates the ravines, post cave biome features, floating islands and giant roots of a chunk
+	 * generated by {@link #generateChunkPrimer(ChunkGenerationContext, int, int)}. These access
+	 * the world and must be generated on the main thread.
+	 * @param ctx
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param chunkprimer
+	 */
+	public void generatePostCaveFeatures(ChunkGenerationContext ctx, int chunkX, int chunkZ, ChunkPrimer chunkprimer) {
+		BiomeWeights biomeWeights = ctx.biomeWeights;
 
 		//Gen ravines
-		this.ravineGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
-		
-		//Add biome features (post cave)
-		for(int z = 0; z < 16; z++) {
-			for(int x = 0; x < 16; x++) {
-				double baseBlockNoise = this.surfaceNoiseBuffer[z + x * 16];
-				Biome biome = this.biomesForGeneration[z + x * 16];
-				if(biome instanceof BiomeBetweenlands) {
-					BiomeGenerator generator = ((BiomeBetweenlands)biome).getBiomeGenerator();
-					generator.runBiomeFeatures(chunkZ * 16 + z, chunkX * 16 + x, z, x, baseBlockNoise, chunkprimer, this, this.biomesForGeneration, biomeWeights, EnumGeneratorPass.POST_GEN_CAVES);
+		ctx.ravineGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
+
+		synchronized(BIOME_GENERATOR_LOCK) {
+			List<BiomeGenerator> foundGenerators = new ArrayList<BiomeGenerator>();
+
+			//Add biome features (post cave)
+			for(int z = 0; z < 16; z++) {
+				for(int x = 0; x < 16; x++) {
+					double baseBlockNoise = ctx.surfaceNoiseBuffer[z + x * 16];
+					Biome biome = ctx.biomesForGeneration[z + x * 16];
+					if(biome instanceof BiomeBetweenlands) {
+						BiomeGenerator generator = ((BiomeBetweenlands)biome).getBiomeGenerator();
+						//Another chunk may have been generated since replaceBiomeBlocks, so the noise of this chunk is generated again
+						generator.initializeGenerators(this.seed);
+						generator.generateNoise(chunkZ, chunkX);
+						foundGenerators.add(generator);
+						generator.runBiomeFeatures(chunkZ * 16 + z, chunkX * 16 + x, z, x, baseBlockNoise, chunkprimer, this, ctx.biomesForGeneration, biomeWeights, EnumGeneratorPass.POST_GEN_CAVES);
+					}
 				}
 			}
-		}
-		
-		//Generate floating islands
-		this.floatingIslandGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
-		
-		//Generate giant roots
-		this.giantRootGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
-
-		Chunk chunk = new Chunk(this.worldObj, chunkprimer, chunkX, chunkZ);
-		byte[] biomeArray = chunk.getBiomeArray();
 
-		for (int i = 0; i < biomeArray.length; ++i) {
-			biomeArray[i] = (byte)Biome.getIdForBiome(this.biomesForGeneration[i]);
+			for(BiomeGenerator gen : foundGenerators) {
+				gen.resetNoise();
+			}
 		}
 
-		chunk.generateSkylightMap();
-		return chunk;
+		//Generate floating islands
+		ctx.floatingIslandGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
+
+		//Generate giant roots
+		ctx.giantRootGenerator.generate(this.worldObj, chunkX, chunkZ, chunkprimer);
 	}
 
 	/**
@@ -229,9 +364,24 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 	 * @param primer
 	 */
 	public void setBlocksInChunk(int chunkX, int chunkZ, ChunkPrimer primer) {
-		this.biomesForGeneration = this.worldObj.getBiomeProvider().getBiomesForGeneration(this.biomesForGeneration, chunkX * 4 - 5, chunkZ * 4 - 5, 15, 15);
+		this.setBlocksInChunk(this.context, chunkX, chunkZ, primer);
+	}
 
-		this.generateHeightmap(chunkX * 4, 0, chunkZ * 4);
+	/**
+	 * Generates the base terrain
+	 * @param ctx
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param primer
+	 */
+	public void setBlocksInChunk(ChunkGenerationContext ctx, int chunkX, int chunkZ, ChunkPrimer primer) {
+		if(ctx.concurrent) {
+			ctx.biomesForGeneration = ctx.getBiomesForGeneration(ctx.biomesForGeneration, chunkX * 4 - 5, chunkZ * 4 - 5, 15, 15);
+		} else {
+			ctx.biomesForGeneration = this.worldObj.getBiomeProvider().getBiomesForGeneration(ctx.biomesForGeneration, chunkX * 4 - 5, chunkZ * 4 - 5, 15, 15);
+		}
+
+		this.generateHeightmap(ctx, chunkX * 4, 0, chunkZ * 4);
 
 		//X
 		for (int heightMapX = 0; heightMapX < 4; ++heightMapX) {
@@ -257,14 +407,14 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 				//Y
 				for (int heightMapY = 0; heightMapY < 32; ++heightMapY) {
 					//Values
-					double valXCZCYC = this.heightMap[indexXCZC + heightMapY]; //1
-					double valXCZNYC = this.heightMap[indexXCZN + heightMapY]; //2
-					double valXNZCYC = this.heightMap[indexXNZC + heightMapY]; //3
-					double valXNZNYC = this.heightMap[indexXNZN + heightMapY]; //4
-					double valXCZCYN = this.heightMap[indexXCZC + heightMapY + 1]; //5
-					double valXCZNYN = this.heightMap[indexXCZN + heightMapY + 1]; //6
-					double valXNZCYN = this.heightMap[indexXNZC + heightMapY + 1]; //7
-					double valXNZNYN = this.heightMap[indexXNZN + heightMapY + 1]; //8
+					double valXCZCYC = ctx.heightMap[indexXCZC + heightMapY]; //1
+					double valXCZNYC = ctx.heightMap[indexXCZN + heightMapY]; //2
+					double valXNZCYC = ctx.heightMap[indexXNZC + heightMapY]; //3
+					double valXNZNYC = ctx.heightMap[indexXNZN + heightMapY]; //4
+					double valXCZCYN = ctx.heightMap[indexXCZC + heightMapY + 1]; //5
+					double valXCZNYN = ctx.heightMap[indexXCZN + heightMapY + 1]; //6
+					double valXNZCYN = ctx.heightMap[indexXNZC + heightMapY + 1]; //7
+					double valXNZNYN = ctx.heightMap[indexXNZN + heightMapY + 1]; //8
 
 					//Step along Y axis (1/8 of the difference)
 					double stepYAxisXCZC = (valXCZCYN - valXCZCYC) * 0.125D;
@@ -332,17 +482,18 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 
 	/**
 	 * Generates a 33x5x5 (Y*X*Z) heightmap
+	 * @param ctx
 	 * @param x
 	 * @param y
 	 * @param z
 	 */
-	private void generateHeightmap(int x, int y, int z) {
-		this.depthRegion = this.depthNoise.generateNoiseOctaves(this.depthRegion, x, z, 5, 5, 200.0D, 200.0D, 0.5D);
+	private void generateHeightmap(ChunkGenerationContext ctx, int x, int y, int z) {
+		ctx.depthRegion = this.depthNoise.generateNoiseOctaves(ctx.depthRegion, x, z, 5, 5, 200.0D, 200.0D, 0.5D);
 		float scaleXZ = 684.412F * 8;
 		float scaleY = 684.412F * 8;
-		this.mainNoiseRegion = this.mainPerlinNoise.generateNoiseOctaves(this.mainNoiseRegion, x, y, z, 5, 33, 5, (double)(scaleXZ / 80.0F), (double)(scaleY / 160.0F), (double)(scaleXZ / 80.0F));
-		this.minLimitRegion = this.minLimitPerlinNoise.generateNoiseOctaves(this.minLimitRegion, x, y, z, 5, 33, 5, (double)scaleXZ, (double)scaleY, (double)scaleXZ);
-		this.maxLimitRegion = this.maxLimitPerlinNoise.generateNoiseOctaves(this.maxLimitRegion, x, y, z, 5, 33, 5, (double)scaleXZ, (double)scaleY, (double)scaleXZ);
+		ctx.mainNoiseRegion = this.mainPerlinNoise.generateNoiseOctaves(ctx.mainNoiseRegion, x, y, z, 5, 33, 5, (double)(scaleXZ / 80.0F), (double)(scaleY / 160.0F), (double)(scaleXZ / 80.0F));
+		ctx.minLimitRegion = this.minLimitPerlinNoise.generateNoiseOctaves(ctx.minLimitRegion, x, y, z, 5, 33, 5, (double)scaleXZ, (double)scaleY, (double)scaleXZ);
+		ctx.maxLimitRegion = this.maxLimitPerlinNoise.generateNoiseOctaves(ctx.maxLimitRegion, x, y, z, 5, 33, 5, (double)scaleXZ, (double)scaleY, (double)scaleXZ);
 
 		int noiseIndex = 0;
 		int heightMapIndex = 0;
@@ -352,14 +503,14 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 				float biomeVariation = 0.0F;
 				float biomeDepth = 0.0F;
 				float totalBiomeWeight = 0.0F;
-				Biome centerBiome = this.biomesForGeneration[heightMapX + 5 + (heightMapZ + 5) * 15];
+				Biome centerBiome = ctx.biomesForGeneration[heightMapX + 5 + (heightMapZ + 5) * 15];
 
 				float nearestOtherBiomeSq = 50;
 
 				//Averages biome height and variation in a 5x5 area and calculates the biome terrain weight from an 11x11 area
 				for (int offsetX = -5; offsetX <= 5; ++offsetX) {
 					for (int offsetZ = -5; offsetZ <= 5; ++offsetZ) {
-						Biome nearbyBiome = this.biomesForGeneration[heightMapX + 5 + offsetX + (heightMapZ + 5 + offsetZ) * 15];
+						Biome nearbyBiome = ctx.biomesForGeneration[heightMapX + 5 + offsetX + (heightMapZ + 5 + offsetZ) * 15];
 						float nearbyBiomeDepth = nearbyBiome.getBaseHeight();
 						float nearbyBiomeVariation = nearbyBiome.getHeightVariation();
 
@@ -390,13 +541,13 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 				}
 
 				//The 0 point is offset by some blocks so that the lerp doesn't cause problems later on
-				this.terrainBiomeWeights[heightMapIndex] = MathHelper.clamp(Math.max((nearestOtherBiomeSq - 2) / 46.0F, 0.0F), 0.0F, 1.0F);
+				ctx.terrainBiomeWeights[heightMapIndex] = MathHelper.clamp(Math.max((nearestOtherBiomeSq - 2) / 46.0F, 0.0F), 0.0F, 1.0F);
 
 				biomeVariation = biomeVariation / totalBiomeWeight;
 				biomeDepth = biomeDepth / totalBiomeWeight;
 
 				//Small offset for biome depth?
-				double depthPerturbation = this.depthRegion[heightMapIndex] / 8000.0D;
+				double depthPerturbation = ctx.depthRegion[heightMapIndex] / 8000.0D;
 
 				//depthPerturbation = 0.0D;
 
@@ -445,12 +596,12 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 					}
 					maxGenDensity8 /= 2.0D;*/
 
-					double minDensity = (this.minLimitRegion[noiseIndex] / maxGenDensity16) * biomeVariation / 256.0D;
-					double maxDensity = (this.maxLimitRegion[noiseIndex] / maxGenDensity16) * biomeVariation / 256.0D;
-					double mainDensity = (this.mainNoiseRegion[noiseIndex] / maxGenDensity8);
+					double minDensity = (ctx.minLimitRegion[noiseIndex] / maxGenDensity16) * biomeVariation / 256.0D;
+					double maxDensity = (ctx.maxLimitRegion[noiseIndex] / maxGenDensity16) * biomeVariation / 256.0D;
+					double mainDensity = (ctx.mainNoiseRegion[noiseIndex] / maxGenDensity8);
 
 					//TODO Not sure if clampedlerp is the right thing to use
-					this.heightMap[noiseIndex] = MathHelper.clampedLerp(minDensity, maxDensity, mainDensity) - densityOffset;
+					ctx.heightMap[noiseIndex] = MathHelper.clampedLerp(minDensity, maxDensity, mainDensity) - densityOffset;
 
 					++noiseIndex;
 				}
@@ -466,17 +617,29 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 	 * @param biomesIn
 	 */
 	public void replaceBiomeBlocks(int chunkX, int chunkZ, ChunkPrimer primer, Biome[] biomesIn, BiomeWeights biomeWeights) {
+		this.replaceBiomeBlocks(this.context, chunkX, chunkZ, primer, biomesIn, biomeWeights);
+	}
+
+	/**
+	 * Modifies the terrain with biome specific features
+	 * @param ctx
+	 * @param chunkX
+	 * @param chunkZ
+	 * @param primer
+	 * @param biomesIn
+	 */
+	public void replaceBiomeBlocks(ChunkGenerationContext ctx, int chunkX, int chunkZ, ChunkPrimer primer, Biome[] biomesIn, BiomeWeights biomeWeights) {
 		if (!net.minecraftforge.event.ForgeEventFactory.onReplaceBiomeBlocks(this, chunkX, chunkZ, primer, this.worldObj))
 			return;
 
-		this.surfaceNoiseBuffer = this.surfaceNoise.getRegion(this.surfaceNoiseBuffer, (double)(chunkX * 16), (double)(chunkZ * 16), 16, 16, 0.0625D, 0.0625D, 1.0D);
+		ctx.surfaceNoiseBuffer = this.surfaceNoise.getRegion(ctx.surfaceNoiseBuffer, (double)(chunkX * 16), (double)(chunkZ * 16), 16, 16, 0.0625D, 0.0625D, 1.0D);
 
 
 		List<BiomeGenerator> foundGenerators = new ArrayList<BiomeGenerator>();
 
 		for(int z = 0; z < 16; z++) {
 			for(int x = 0; x < 16; x++) {
-				double baseBlockNoise = this.surfaceNoiseBuffer[z + x * 16];
+				double baseBlockNoise = ctx.surfaceNoiseBuffer[z + x * 16];
 				Biome biome = biomesIn[z + x * 16];
 				if(biome instanceof BiomeBetweenlands) {
 					BiomeGenerator generator = ((BiomeBetweenlands)biome).getBiomeGenerator();
@@ -484,10 +647,10 @@ public class ChunkGeneratorBetweenlands implements IChunkGenerator {
 					generator.generateNoise(chunkZ, chunkX);
 					foundGenerators.add(generator);
 					generator.runBiomeFeatures(chunkZ * 16 + z, chunkX * 16 + x, z, x, baseBlockNoise, primer, this, biomesIn, biomeWeights, EnumGeneratorPass.PRE_REPLACE_BIOME_BLOCKS);
-					generator.replaceBiomeBlocks(chunkZ * 16 + z, chunkX * 16 + x, z, x, baseBlockNoise, this.rand, this.seed, primer, this, biomesIn, biomeWeights);
+					generator.replaceBiomeBlocks(chunkZ * 16 + z, chunkX * 16 + x, z, x, baseBlockNoise, ctx.rand, this.seed, primer, this, biomesIn, biomeWeights);
 					generator.runBiomeFeatures(chunkZ * 16 + z, chunkX * 16 + x, z, x, baseBlockNoise, primer, this, biomesIn, biomeWeights, EnumGeneratorPass.POST_REPLACE_BIOME_BLOCKS);
 				} else {
-					biome.genTerrainBlocks(this.worldObj, this.rand, primer, chunkX * 16 + x, chunkZ * 16 + z, baseBlockNoise);
+					biome.genTerrainBlocks(this.worldObj, ctx.rand, primer, chunkX * 16 + x, chunkZ * 16 + z, baseBlockNoise);
 				}
 			}
 		}
@@ -11,15 +11,31 @@ import net.minecraft.world.gen.layer.GenLayer;
 import net.minecraft.world.storage.WorldInfo;
 import thebetweenlands.common.world.WorldProviderBetweenlands;
 import thebetweenlands.common.world.gen.layer.GenLayerBetweenlands;
+import thebetweenlands.common.world.gen.layer.InstancedIntCache;
 
 public class BiomeProviderBetweenlands extends BiomeProvider {
 	public static final List<Biome> ALLOWED_SPAWN_BIOMES = Lists.newArrayList(/*TODO: Add biomes suitable for spawning*/);
 
 	protected final WorldProviderBetweenlands provider;
+	protected final long seed;
+	protected final WorldType worldType;
 	
 	public BiomeProviderBetweenlands(WorldProviderBetweenlands provider, WorldInfo worldInfo) {
 		super(worldInfo);
 		this.provider = provider;
+		this.seed = worldInfo.getSeed();
+		this.worldType = worldInfo.getTerrainType();
+	}
+
+	/**
+	 * Creates a new, independent set of the biome gen layers used by this biome provider.
+	 * Gen layers aren't thread safe, so this allows biomes to be generated on other threads
+	 * @param cache Int cache used by the new gen layers
+	 * @return Biome gen layer and biome index gen layer
+	 */
+	public GenLayer[] createBiomeGenerators(InstancedIntCache cache) {
+		GenLayer[] generators = GenLayerBetweenlands.initializeAllBiomeGenerators(this.seed, this.worldType, cache);
+		return super.getModdedBiomeGenerators(this.worldType, this.seed, generators);
 	}
 
 	@Override
@@ -1,5 +1,7 @@
 package thebetweenlands.common.world.gen.feature;
 
+import java.util.Arrays;
+
 import thebetweenlands.util.OpenSimplexNoise;
 
 public class FractalOpenSimplexNoise {
@@ -37,4 +39,55 @@ public class FractalOpenSimplexNoise {
             eval += octaves[o].eval(x * (1 << o) * scale, y * (1 << o) * scale, z * (1 << o) * scale, w * (1 << o) * scale) * Math.pow(0.5, o);
         return Math.max(-1, Math.min(eval, 1));
     }
+
+    /**
+     * Fills the noise array with the 2D fractal noise at all grid points, see {@link OpenSimplexNoise#eval(double[], double[], double[])}.
+     * The octaves are summed up in the noise array, so the frequency and amplitude of each octave are only calculated once
+     * @param noiseArray Array to store the noise in. If null or too small a new array is created
+     * @param xs
+     * @param ys
+     * @return
+     */
+    public double[] eval(double[] noiseArray, double[] xs, double[] ys) {
+        int size = xs.length * ys.length;
+        if (noiseArray == null || noiseArray.length < size)
+            noiseArray = new double[size];
+        Arrays.fill(noiseArray, 0, size, 0);
+        for (int o = 0; o < octaves.length; o++)
+            octaves[o].add(noiseArray, scaleCoordinates(xs, o), scaleCoordinates(ys, o), Math.pow(0.5, o));
+        clamp(noiseArray, size);
+        return noiseArray;
+    }
+
+    /**
+     * Fills the noise array with the 3D fractal noise at all grid points, see {@link OpenSimplexNoise#eval(double[], double[], double[], double[])}.
+     * The octaves are summed up in the noise array, so the frequency and amplitude of each octave are only calculated once
+     * @param noiseArray Array to store the noise in. If null or too small a new array is created
+     * @param xs
+     * @param ys
+     * @param zs
+     * @return
+     */
+    public double[] eval(double[] noiseArray, double[] xs, double[] ys, double[] zs) {
+        int size = xs.length * ys.length * zs.length;
+        if (noiseArray == null || noiseArray.length < size)
+            noiseArray = new double[size];
+        Arrays.fill(noiseArray, 0, size, 0);
+        for (int o = 0; o < octaves.length; o++)
+            octaves[o].add(noiseArray, scaleCoordinates(xs, o), scaleCoordinates(ys, o), scaleCoordinates(zs, o), Math.pow(0.5, o));
+        clamp(noiseArray, size);
+        return noiseArray;
+    }
+
+    private double[] scaleCoordinates(double[] coords, int octave) {
+        double[] scaled = new double[coords.length];
+        for (int i = 0; i < coords.length; i++)
+            scaled[i] = coords[i] * (1 << octave) * scale;
+        return scaled;
+    }
+
+    private static void clamp(double[] noiseArray, int size) {
+        for (int i = 0; i < size; i++)
+            noiseArray[i] = Math.max(-1, Math.min(noiseArray[i], 1));
+    }
 }
@@ -2,6 +2,8 @@ package thebetweenlands.common.world.gen.feature;
 
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import com.google.common.collect.ImmutableSet;
 
 import net.minecraft.block.material.Material;
@@ -67,8 +69,21 @@ public class MapGenCavesBetweenlands extends MapGenBase {
 
 	private BiomeWeights biomeWeights;
 
+	@Nullable
+	private Biome[] biomes;
+
+	private static final double[] CAVE_Y_COORDINATES = OpenSimplexNoise.getGridCoordinates(0, 129, 1, Y_CAVE_SCALE);
+
+	private static final double[] FORM_Y_COORDINATES = OpenSimplexNoise.getGridCoordinates(0, 129, 1, Y_FORM_SCALE);
+
 	private final double[] noiseField = new double[9 * 9 * 129];
-	private final double[] seaBreakNoiseField = new double[16 * 16];
+	private final double[] formNoiseField = new double[9 * 9 * 129];
+	private final double[] cellDensity = new double[2 * 2 * 128];
+
+	private final double[] columnBreakWeights = new double[16 * 16];
+	private final int[] columnLevelStarts = new int[16 * 16];
+	private final int[] columnLevelEnds = new int[16 * 16];
+	private final int[] columnLevels = new int[16 * 16];
 
 	public MapGenCavesBetweenlands(long seed) {
 		cave = new OpenSimplexNoise(seed);
@@ -80,150 +95,222 @@ public class MapGenCavesBetweenlands extends MapGenBase {
 		this.biomeWeights = biomeWeights;
 	}
 
+	/**
+	 * Sets the 16x16 biomes of the chunk to be generated. If null the biomes are taken from the world
+	 * @param biomes
+	 */
+	public void setBiomes(@Nullable Biome[] biomes) {
+		this.biomes = biomes;
+	}
+
 	@Override
 	public void generate(World world, int chunkX, int chunkZ, ChunkPrimer primer) {
 		int cx = chunkX * CHUNK_SIZE;
 		int cz = chunkZ * CHUNK_SIZE;
-		MutableBlockPos pos = new MutableBlockPos();
 
 		//Generate cave noise field (9x9x129)
-		for(int x = 0; x < 9; x++) {
-			for(int z = 0; z < 9; z++) {
-				for(int y = 0; y < 129; y++) {
-					int index = ((x * 9) + z) * 129 + y;
-					int bx = cx + x * 2;
-					int bz = cz + z * 2;
-					int by = y;
-					this.noiseField[index] = this.sampleNoise(bx, by, bz);
+		this.cave.eval(this.noiseField,
+				OpenSimplexNoise.getGridCoordinates(cx, 9, 2, XZ_CAVE_SCALE),
+				CAVE_Y_COORDINATES,
+				OpenSimplexNoise.getGridCoordinates(cz, 9, 2, XZ_CAVE_SCALE));
+		this.form.eval(this.formNoiseField,
+				OpenSimplexNoise.getGridCoordinates(cx, 9, 2, XZ_FORM_SCALE),
+				FORM_Y_COORDINATES,
+				OpenSimplexNoise.getGridCoordinates(cz, 9, 2, XZ_FORM_SCALE));
+		for(int i = 0; i < this.noiseField.length; i++) {
+			this.noiseField[i] += this.formNoiseField[i] * FORM_SCALE;
+		}
+
+		this.prepareColumns(world, cx, cz, primer);
+
+		for(int x = 0; x < 8; x++) {
+			for(int z = 0; z < 8; z++) {
+				this.interpolateCellDensity(x, z);
+
+				for(int xo = 0; xo < 2; xo++) {
+					for(int zo = 0; zo < 2; zo++) {
+						this.carveColumn(x * 2 + xo, z * 2 + zo, (xo * 2 + zo) * 128, primer);
+					}
 				}
 			}
 		}
+	}
+
+	/**
+	 * Looks up the biome, surface level and break weight of all 16x16 columns of the chunk once
+	 * so that they don't need to be looked up again for every block of the column
+	 * @param world
+	 * @param cx
+	 * @param cz
+	 * @param primer
+	 */
+	private void prepareColumns(World world, int cx, int cz, ChunkPrimer primer) {
+		MutableBlockPos pos = new MutableBlockPos();
+
+		for(int bx = 0; bx < 16; bx++) {
+			for(int bz = 0; bz < 16; bz++) {
+				int column = bx * 16 + bz;
+
+				Biome biome = this.biomes != null ? this.biomes[bx + bz * 16] : world.getBiome(pos.setPos(cx + bx, 0, cz + bz));
+
+				// Only break in correct biomes and don't generate in biome transitions
+				double shouldntBreak = noBreakBiomes.contains(biome) ? SHOULDNT_BREAK : (1 - this.biomeWeights.get(bx, bz)) * SHOULDNT_BREAK;
+
+				double seaBreak = this.seaLevelBreak.eval((cx + bx) * XZ_BREAK_SCALE, (cz + bz) * XZ_BREAK_SCALE);
+
+				this.columnBreakWeights[column] = (shouldntBreak + MathUtils.linearTransformd(seaBreak, -1, 1, 0, 1)) * BREAK_SCALE;
 
-		//Generate sea break noise field
-		for(int x = 0; x < 16; x++) {
-			for(int z = 0; z < 16; z++) {
-				this.seaBreakNoiseField[x * 16 + z] = seaLevelBreak.eval((cx+x) * XZ_BREAK_SCALE, (cz+z) * XZ_BREAK_SCALE);
+				if(biome instanceof BiomeBetweenlands) {
+					this.columnLevelStarts[column] = (int) (biome.getBaseHeight() - biome.getHeightVariation());
+					this.columnLevelEnds[column] = (int) (biome.getBaseHeight() + biome.getHeightVariation());
+				} else {
+					this.columnLevelStarts[column] = 0;
+					this.columnLevelEnds[column] = WorldProviderBetweenlands.LAYER_HEIGHT + 20;
+				}
+
+				this.columnLevels[column] = this.findSurfaceLevel(primer, bx, bz, this.columnLevelStarts[column], this.columnLevelEnds[column]);
 			}
 		}
+	}
 
-		for(int x = 0; x < 8; x++) {
-			int indexXC = x * 9; //1
-			int indexXN = (x + 1) * 9; //2
+	/**
+	 * Returns the first air or liquid block in the specified range, or end + 1 if there is none
+	 * @param primer
+	 * @param bx
+	 * @param bz
+	 * @param level
+	 * @param end
+	 * @return
+	 */
+	private int findSurfaceLevel(ChunkPrimer primer, int bx, int bz, int level, int end) {
+		while(level <= end) {
+			if(isOpen(primer.getBlockState(bx, level, bz))) {
+				break;
+			}
+			level++;
+		}
+		return level;
+	}
 
-			for(int z = 0; z < 8; z++) {
-				int indexXCZC = (indexXC + z) * 129; //1
-				int indexXCZN = (indexXC + z + 1) * 129; //2
-				int indexXNZC = (indexXN + z) * 129; //3
-				int indexXNZN = (indexXN + z + 1) * 129; //4
-
-				for(int y = 0; y < 128; y++) {
-					//Values
-					double valXCZCYC = this.noiseField[indexXCZC + y]; //1
-					double valXCZNYC = this.noiseField[indexXCZN + y]; //2
-					double valXNZCYC = this.noiseField[indexXNZC + y]; //3
-					double valXNZNYC = this.noiseField[indexXNZN + y]; //4
-					double valXCZCYN = this.noiseField[indexXCZC + y + 1]; //5
-					double valXCZNYN = this.noiseField[indexXCZN + y + 1]; //6
-					double valXNZCYN = this.noiseField[indexXNZC + y + 1]; //7
-					double valXNZNYN = this.noiseField[indexXNZN + y + 1]; //8
-
-					//Step along X axis
-					double stepXAxisYCZC = (valXNZCYC - valXCZCYC) * 0.5D;
-					double stepXAxisYCZN = (valXNZNYC - valXCZNYC) * 0.5D;
-					double stepXAxisYNZC = (valXNZCYN - valXCZCYN) * 0.5D;
-					double stepXAxisYNZN = (valXNZNYN - valXCZNYN) * 0.5D;
-
-					double currentValXCZCYC = valXCZCYC;
-					double currentValXCZNYC = valXCZNYC;
-					double currentValXCZCYN = valXCZCYN;
-					double currentValXCZNYN = valXCZNYN;
-
-					//Step X axis
-					for (int xo = 0; xo < 2; xo++) {
-						double currentValYCZC = currentValXCZCYC;
-						double currentValYNZC = currentValXCZCYN;
-
-						//Step along Z axis
-						double stepZAxisYC = (currentValXCZNYC - currentValXCZCYC) * 0.5D;
-						double stepZAxisYN = (currentValXCZNYN - currentValXCZCYN) * 0.5D;
-
-						int bx = x * 2 + xo;
-
-						//Step Z axis
-						for (int zo = 0; zo < 2; zo++) {
-							//Step along Y axis
-							double stepYAxis = (currentValYNZC - currentValYCZC) * 0.5D;
-
-							double currentValYC = currentValYNZC - stepYAxis;
-
-							int bz = z * 2 + zo;
-
-							Biome biome = world.getBiome(pos.setPos(cx + bx, 0, cz + bz));
-
-							// Only break in correct biomes and don't generate in biome transitions
-							double shouldntBreak = noBreakBiomes.contains(biome) ? SHOULDNT_BREAK : (1 - this.biomeWeights.get(bx, bz)) * SHOULDNT_BREAK;
-
-							int level = 0;
-
-							if(biome instanceof BiomeBetweenlands) {
-								level = (int) (biome.getBaseHeight() - biome.getHeightVariation());
-								while (level <= (int) (biome.getBaseHeight() + biome.getHeightVariation())) {
-									IBlockState state = primer.getBlockState(bx, level, bz);
-									if (state.getMaterial() == Material.AIR || state.getMaterial().isLiquid()) {
-										break;
-									}
-									level++;
-								}
-							} else {
-								while (level <= WorldProviderBetweenlands.LAYER_HEIGHT + 20) {
-									IBlockState state = primer.getBlockState(bx, level, bz);
-									if (state.getMaterial() == Material.AIR || state.getMaterial().isLiquid()) {
-										break;
-									}
-									level++;
-								}
-							}
-
-							//Step Y axis
-							for (int yo = 0; yo < 1; yo++) {
-								double noise = currentValYC += stepYAxis;
-
-								int by = y + yo;
-
-								double limit = BASE_LIMIT;
-								if (by <= LOWER_BOUND) {
-									limit = (limit + 1) / LOWER_BOUND * by - 1;
-								}
-								int surfaceDist = level - by;
-								if (surfaceDist <= UPPER_BOUND) {
-									noise += (shouldntBreak + MathUtils.linearTransformd(this.seaBreakNoiseField[bx * 16 + bz], -1, 1, 0, 1)) * BREAK_SCALE * (1 - surfaceDist / (float) UPPER_BOUND);
-								}
-								//if (y == level) {   
-								//    primer.setBlockState(bx, 150, bz, Blocks.STAINED_GLASS.getDefaultState().withProperty(BlockStainedGlass.COLOR, EnumDyeColor.byMetadata((int) MathUtils.linearTransformd(noise, -0.5F, 1, 0, 15))));
-								//}
-								IBlockState state = primer.getBlockState(bx, by, bz);
-								if(state.getBlock() == BlockRegistry.SWAMP_WATER && noise < limit + 0.25 && noise > limit) {
-									primer.setBlockState(bx, by, bz, BlockRegistry.COARSE_SWAMP_DIRT.getDefaultState());
-								} else if (noise < limit && state.getBlock() != BlockRegistry.BETWEENLANDS_BEDROCK) {
-									primer.setBlockState(bx, by, bz, by > WorldProviderBetweenlands.CAVE_WATER_HEIGHT ? Blocks.AIR.getDefaultState() : BlockRegistry.SWAMP_WATER.getDefaultState());
-								}
-							}
-
-							currentValYCZC += stepZAxisYC;
-							currentValYNZC += stepZAxisYN;
-						}
-
-						currentValXCZCYC += stepXAxisYCZC;
-						currentValXCZNYC += stepXAxisYCZN;
-						currentValXCZCYN += stepXAxisYNZC;
-						currentValXCZNYN += stepXAxisYNZN;
-					}
+	private static boolean isOpen(IBlockState state) {
+		return state.getMaterial() == Material.AIR || state.getMaterial().isLiquid();
+	}
+
+	/**
+	 * Trilinearly interpolates the cave noise field of the specified 2x2 column cell
+	 * into {@link #cellDensity}
+	 * @param x
+	 * @param z
+	 */
+	private void interpolateCellDensity(int x, int z) {
+		int indexXC = x * 9; //1
+		int indexXN = (x + 1) * 9; //2
+
+		int indexXCZC = (indexXC + z) * 129; //1
+		int indexXCZN = (indexXC + z + 1) * 129; //2
+		int indexXNZC = (indexXN + z) * 129; //3
+		int indexXNZN = (indexXN + z + 1) * 129; //4
+
+		for(int y = 0; y < 128; y++) {
+			//Values
+			double valXCZCYC = this.noiseField[indexXCZC + y]; //1
+			double valXCZNYC = this.noiseField[indexXCZN + y]; //2
+			double valXNZCYC = this.noiseField[indexXNZC + y]; //3
+			double valXNZNYC = this.noiseField[indexXNZN + y]; //4
+			double valXCZCYN = this.noiseField[indexXCZC + y + 1]; //5
+			double valXCZNYN = this.noiseField[indexXCZN + y + 1]; //6
+			double valXNZCYN = this.noiseField[indexXNZC + y + 1]; //7
+			double valXNZNYN = this.noiseField[indexXNZN + y + 1]; //8
+
+			//Step along X axis
+			double stepXAxisYCZC = (valXNZCYC - valXCZCYC) * 0.5D;
+			double stepXAxisYCZN = (valXNZNYC - valXCZNYC) * 0.5D;
+			double stepXAxisYNZC = (valXNZCYN - valXCZCYN) * 0.5D;
+			double stepXAxisYNZN = (valXNZNYN - valXCZNYN) * 0.5D;
+
+			double currentValXCZCYC = valXCZCYC;
+			double currentValXCZNYC = valXCZNYC;
+			double currentValXCZCYN = valXCZCYN;
+			double currentValXCZNYN = valXCZNYN;
+
+			//Step X axis
+			for (int xo = 0; xo < 2; xo++) {
+				double currentValYCZC = currentValXCZCYC;
+				double currentValYNZC = currentValXCZCYN;
+
+				//Step along Z axis
+				double stepZAxisYC = (currentValXCZNYC - currentValXCZCYC) * 0.5D;
+				double stepZAxisYN = (currentValXCZNYN - currentValXCZCYN) * 0.5D;
+
+				//Step Z axis
+				for (int zo = 0; zo < 2; zo++) {
+					//Step along Y axis
+					double stepYAxis = (currentValYNZC - currentValYCZC) * 0.5D;
+
+					double currentValYC = currentValYNZC - stepYAxis;
+
+					this.cellDensity[(xo * 2 + zo) * 128 + y] = currentValYC + stepYAxis;
+
+					currentValYCZC += stepZAxisYC;
+					currentValYNZC += stepZAxisYN;
 				}
+
+				currentValXCZCYC += stepXAxisYCZC;
+				currentValXCZNYC += stepXAxisYCZN;
+				currentValXCZCYN += stepXAxisYNZC;
+				currentValXCZNYN += stepXAxisYNZN;
 			}
 		}
 	}
 
-	private double sampleNoise(int x, int y, int z) {
-		return this.cave.eval(x * XZ_CAVE_SCALE, y * Y_CAVE_SCALE, z * XZ_CAVE_SCALE) + form.eval(x * XZ_FORM_SCALE, y * Y_FORM_SCALE, z * XZ_FORM_SCALE) * FORM_SCALE;
+	/**
+	 * Carves the caves of one column from the bottom up. The surface level of the column is
+	 * kept up to date with the carved blocks instead of scanning the column again for every block
+	 * @param bx
+	 * @param bz
+	 * @param densityOffset
+	 * @param primer
+	 */
+	private void carveColumn(int bx, int bz, int densityOffset, ChunkPrimer primer) {
+		int column = bx * 16 + bz;
+
+		double breakWeight = this.columnBreakWeights[column];
+		int levelStart = this.columnLevelStarts[column];
+		int levelEnd = this.columnLevelEnds[column];
+		int level = this.columnLevels[column];
+
+		for(int by = 0; by < 128; by++) {
+			double noise = this.cellDensity[densityOffset + by];
+
+			double limit = BASE_LIMIT;
+			if (by <= LOWER_BOUND) {
+				limit = (limit + 1) / LOWER_BOUND * by - 1;
+			}
+			int surfaceDist = level - by;
+			if (surfaceDist <= UPPER_BOUND) {
+				noise += breakWeight * (1 - surfaceDist / (float) UPPER_BOUND);
+			}
+
+			IBlockState newState = null;
+			IBlockState state = primer.getBlockState(bx, by, bz);
+			if(state.getBlock() == BlockRegistry.SWAMP_WATER && noise < limit + 0.25 && noise > limit) {
+				newState = BlockRegistry.COARSE_SWAMP_DIRT.getDefaultState();
+			} else if (noise < limit && state.getBlock() != BlockRegistry.BETWEENLANDS_BEDROCK) {
+				newState = by > WorldProviderBetweenlands.CAVE_WATER_HEIGHT ? Blocks.AIR.getDefaultState() : BlockRegistry.SWAMP_WATER.getDefaultState();
+			}
+
+			if(newState != null) {
+				primer.setBlockState(bx, by, bz, newState);
+
+				//Only the block at by has changed, so the surface level can only move to or away from by
+				if(isOpen(newState)) {
+					if(by >= levelStart && by < level) {
+						level = by;
+					}
+				} else if(by == level && by <= levelEnd) {
+					level = this.findSurfaceLevel(primer, bx, bz, by + 1, levelEnd);
+				}
+			}
+		}
 	}
 }
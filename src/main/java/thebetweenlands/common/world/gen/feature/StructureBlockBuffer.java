@@ -0,0 +1,211 @@
+package thebetweenlands.common.world.gen.feature;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.BlockPos.MutableBlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * A sparse block buffer for structure generation. Blocks are stored per chunk section as indices
+ * into a palette of block states and are only placed in the world once the buffer is committed.
+ * Later writes to a position replace earlier ones, so only the final block of each position is placed.
+ * The buffer is committed chunk section by chunk section. Light is still checked for each placed block
+ * whose light opacity or light value changed, but these checks are deferred until all blocks of the section have been placed.
+ */
+public class StructureBlockBuffer {
+	private static final int MAX_PALETTE_SIZE = Character.MAX_VALUE;
+
+	//Index 0 is reserved for unset positions
+	private final List<IBlockState> palette = new ArrayList<>();
+	private final Reference2IntMap<IBlockState> paletteIndices = new Reference2IntOpenHashMap<>();
+
+	private final Long2ObjectMap<Section> sections = new Long2ObjectLinkedOpenHashMap<>();
+
+	private int size = 0;
+
+	private static final class Section {
+		private final int x, y, z;
+		private final char[] states = new char[4096];
+
+		private Section(int x, int y, int z) {
+			this.x = x;
+			this.y = y;
+			this.z = z;
+		}
+	}
+
+	public StructureBlockBuffer() {
+		this.palette.add(null);
+		this.paletteIndices.defaultReturnValue(0);
+	}
+
+	private static long getSectionKey(int sx, int sy, int sz) {
+		return ((long) sx & 0x3FFFFFFL) << 38 | ((long) sz & 0x3FFFFFFL) << 12 | (long) (sy & 0xFFF);
+	}
+
+	private static int getIndex(int x, int y, int z) {
+		return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+	}
+
+	@Nullable
+	private Section getSection(BlockPos pos, boolean create) {
+		int sx = pos.getX() >> 4;
+		int sy = pos.getY() >> 4;
+		int sz = pos.getZ() >> 4;
+		long key = getSectionKey(sx, sy, sz);
+		Section section = this.sections.get(key);
+		if(section == null && create) {
+			this.sections.put(key, section = new Section(sx, sy, sz));
+		}
+		return section;
+	}
+
+	/**
+	 * Buffers a block. Positions outside of the build height are ignored
+	 * @param pos
+	 * @param state
+	 */
+	public void set(BlockPos pos, IBlockState state) {
+		if(pos.getY() < 0 || pos.getY() >= 256) {
+			return;
+		}
+
+		int paletteIndex = this.paletteIndices.getInt(state);
+		if(paletteIndex == 0) {
+			if(this.palette.size() >= MAX_PALETTE_SIZE) {
+				throw new IllegalStateException("Too many different block states in structure block buffer");
+			}
+			paletteIndex = this.palette.size();
+			this.palette.add(state);
+			this.paletteIndices.put(state, paletteIndex);
+		}
+
+		Section section = this.getSection(pos, true);
+		int index = getIndex(pos.getX(), pos.getY(), pos.getZ());
+		if(section.states[index] == 0) {
+			this.size++;
+		}
+		section.states[index] = (char) paletteIndex;
+	}
+
+	/**
+	 * Returns the buffered block at the specified position, or null if there is none
+	 * @param pos
+	 * @return
+	 */
+	@Nullable
+	public IBlockState get(BlockPos pos) {
+		Section section = this.getSection(pos, false);
+		if(section != null) {
+			return this.palette.get(section.states[getIndex(pos.getX(), pos.getY(), pos.getZ())]);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns whether a block is buffered at the specified position
+	 * @param pos
+	 * @return
+	 */
+	public boolean contains(BlockPos pos) {
+		return this.get(pos) != null;
+	}
+
+	/**
+	 * Returns the number of buffered blocks
+	 * @return
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the number of chunk sections that contain buffered blocks
+	 * @return
+	 */
+	public int getSectionCount() {
+		return this.sections.size();
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Removes all buffered blocks
+	 */
+	public void clear() {
+		this.sections.clear();
+		this.palette.subList(1, this.palette.size()).clear();
+		this.paletteIndices.clear();
+		this.size = 0;
+	}
+
+	/**
+	 * Places all buffered blocks in the world section by section and clears the buffer.
+	 * Neighbours and clients are notified like {@link World#setBlockState(BlockPos, IBlockState, int)} does.
+	 * Light is checked for every block whose light opacity or light value changed, once all blocks of its section have been placed
+	 * @param world
+	 * @param flags Block update flags, see {@link World#setBlockState(BlockPos, IBlockState, int)}
+	 * @return Number of blocks that were changed
+	 */
+	public int commit(World world, int flags) {
+		int changed = 0;
+
+		MutableBlockPos pos = new MutableBlockPos();
+		List<BlockPos> lightChecks = new ArrayList<>();
+
+		for(Section section : this.sections.values()) {
+			Chunk chunk = world.getChunk(section.x, section.z);
+
+			int bx = section.x << 4;
+			int by = section.y << 4;
+			int bz = section.z << 4;
+
+			for(int i = 0; i < section.states.length; i++) {
+				int paletteIndex = section.states[i];
+
+				if(paletteIndex != 0) {
+					IBlockState state = this.palette.get(paletteIndex);
+
+					pos.setPos(bx + (i & 15), by + (i >> 8), bz + ((i >> 4) & 15));
+
+					IBlockState currentState = chunk.getBlockState(pos);
+					int oldOpacity = currentState.getLightOpacity(world, pos);
+					int oldLight = currentState.getLightValue(world, pos);
+
+					IBlockState oldState = chunk.setBlockState(pos, state);
+
+					if(oldState != null) {
+						changed++;
+
+						if(state.getLightOpacity(world, pos) != oldOpacity || state.getLightValue(world, pos) != oldLight) {
+							lightChecks.add(pos.toImmutable());
+						}
+
+						world.markAndNotifyBlock(pos, chunk, oldState, state, flags);
+					}
+				}
+			}
+
+			for(BlockPos lightPos : lightChecks) {
+				world.checkLight(lightPos);
+			}
+			lightChecks.clear();
+		}
+
+		this.clear();
+
+		return changed;
+	}
+}
@@ -0,0 +1,160 @@
+package thebetweenlands.common.world.gen.feature;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.chars.CharArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.BlockPos.MutableBlockPos;
+
+/**
+ * A recorded sequence of block placements relative to a structure origin. The offsets are recorded
+ * after rotation, so a template is only valid for the rotation it was recorded with.
+ * Offsets and block states are stored as packed ints and palette indices.
+ * Templates are created with a {@link Recorder}, see {@link WorldGenHelper#generateTemplate(net.minecraft.world.World, String, int, int, int, int, WorldGenHelper.TemplateBuilder)}
+ */
+public class StructureTemplate {
+	private static final int XZ_BITS = 11;
+	private static final int Y_BITS = 10;
+	private static final int XZ_MASK = (1 << XZ_BITS) - 1;
+	private static final int Y_MASK = (1 << Y_BITS) - 1;
+	private static final int XZ_OFFSET = 1 << (XZ_BITS - 1);
+	private static final int Y_OFFSET = 1 << (Y_BITS - 1);
+
+	@FunctionalInterface
+	public static interface BlockPlacer {
+		/**
+		 * Places a block. The position is reused and must not be stored
+		 * @param pos
+		 * @param state
+		 */
+		public void place(BlockPos pos, IBlockState state);
+	}
+
+	private final int[] positions;
+	private final char[] states;
+	private final IBlockState[] palette;
+
+	private StructureTemplate(int[] positions, char[] states, IBlockState[] palette) {
+		this.positions = positions;
+		this.states = states;
+		this.palette = palette;
+	}
+
+	/**
+	 * Returns the number of recorded block placements
+	 * @return
+	 */
+	public int size() {
+		return this.positions.length;
+	}
+
+	/**
+	 * Replays all recorded block placements in the order they were recorded
+	 * @param x Origin x
+	 * @param y Origin y
+	 * @param z Origin z
+	 * @param placer
+	 */
+	public void place(int x, int y, int z, BlockPlacer placer) {
+		MutableBlockPos pos = new MutableBlockPos();
+		for(int i = 0; i < this.positions.length; i++) {
+			int packed = this.positions[i];
+			pos.setPos(
+					x + ((packed >>> (Y_BITS + XZ_BITS)) & XZ_MASK) - XZ_OFFSET,
+					y + ((packed >>> XZ_BITS) & Y_MASK) - Y_OFFSET,
+					z + (packed & XZ_MASK) - XZ_OFFSET
+					);
+			placer.place(pos, this.palette[this.states[i]]);
+		}
+	}
+
+	/**
+	 * Records block placements relative to an origin. Recording is aborted once
+	 * {@link #invalidate()} was called, e.g. because the recorded builder depends on the world
+	 */
+	public static class Recorder {
+		private final int x, y, z;
+
+		private final IntArrayList positions = new IntArrayList();
+		private final CharArrayList states = new CharArrayList();
+		private final List<IBlockState> palette = new ArrayList<>();
+		private final Reference2IntMap<IBlockState> paletteIndices = new Reference2IntOpenHashMap<>();
+
+		private boolean valid = true;
+
+		/**
+		 * @param x Origin x
+		 * @param y Origin y
+		 * @param z Origin z
+		 */
+		public Recorder(int x, int y, int z) {
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.paletteIndices.defaultReturnValue(-1);
+		}
+
+		/**
+		 * Records a block placement
+		 * @param pos
+		 * @param state
+		 */
+		public void record(BlockPos pos, IBlockState state) {
+			if(!this.valid) {
+				return;
+			}
+
+			int dx = pos.getX() - this.x + XZ_OFFSET;
+			int dy = pos.getY() - this.y + Y_OFFSET;
+			int dz = pos.getZ() - this.z + XZ_OFFSET;
+
+			if(dx < 0 || dx > XZ_MASK || dy < 0 || dy > Y_MASK || dz < 0 || dz > XZ_MASK) {
+				this.invalidate();
+				return;
+			}
+
+			int index = this.paletteIndices.getInt(state);
+			if(index < 0) {
+				if(this.palette.size() > Character.MAX_VALUE) {
+					this.invalidate();
+					return;
+				}
+				index = this.palette.size();
+				this.palette.add(state);
+				this.paletteIndices.put(state, index);
+			}
+
+			this.positions.add(dx << (Y_BITS + XZ_BITS) | dy << XZ_BITS | dz);
+			this.states.add((char) index);
+		}
+
+		/**
+		 * Marks the recording as invalid so that no template is created
+		 */
+		public void invalidate() {
+			this.valid = false;
+			this.positions.clear();
+			this.states.clear();
+		}
+
+		public boolean isValid() {
+			return this.valid;
+		}
+
+		/**
+		 * Creates the template from the recorded block placements
+		 * @return
+		 */
+		public StructureTemplate build() {
+			if(!this.valid) {
+				throw new IllegalStateException("Structure template recording is invalid");
+			}
+			return new StructureTemplate(this.positions.toIntArray(), this.states.toCharArray(), this.palette.toArray(new IBlockState[0]));
+		}
+	}
+}
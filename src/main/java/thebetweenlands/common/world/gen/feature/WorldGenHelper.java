@@ -2,7 +2,9 @@ package thebetweenlands.common.world.gen.feature;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -18,9 +20,11 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.BlockPos.MutableBlockPos;
 import net.minecraft.world.World;
 import net.minecraft.world.gen.feature.WorldGenerator;
+import thebetweenlands.common.TheBetweenlands;
 import thebetweenlands.common.block.container.BlockLootPot;
 import thebetweenlands.common.block.container.BlockLootUrn;
 import thebetweenlands.common.block.structure.BlockMobSpawnerBetweenlands;
+import thebetweenlands.common.config.BetweenlandsConfig;
 import thebetweenlands.common.registries.BlockRegistry;
 import thebetweenlands.common.tile.TileEntityLootPot;
 import thebetweenlands.common.tile.TileEntityLootUrn;
@@ -58,6 +62,26 @@ public abstract class WorldGenHelper extends WorldGenerator {
 
 	private MutableBlockPos checkPos = new MutableBlockPos();
 
+	private static final Map<String, StructureTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+	@Nullable
+	private StructureTemplate.Recorder templateRecorder;
+
+	@Nullable
+	private StructureBlockBuffer buffer;
+	private long bufferStartTime;
+	private long bufferCommitTime;
+	private int bufferCommits;
+	private int bufferPlacedBlocks;
+
+	/**
+	 * Builds a part of a structure, see {@link WorldGenHelper#generateTemplate(World, String, int, int, int, int, TemplateBuilder)}
+	 */
+	@FunctionalInterface
+	public static interface TemplateBuilder {
+		public void build(World world, int x, int y, int z, int rotation);
+	}
+
 	protected MutableBlockPos getCheckPos(int x, int y, int z) {
 		this.checkPos.setPos(x, y, z);
 		return this.checkPos;
@@ -138,61 +162,89 @@ public abstract class WorldGenHelper extends WorldGenerator {
 	 */
 	@SafeVarargs
 	public final void rotatedCubeVolume(World world, @Nullable Predicate<BlockPos> pred, int x, int y, int z, int offsetX, int offsetY, int offsetZ, IBlockState blockState, int sizeWidth, int sizeHeight, int sizeDepth, int rotation, Consumer<BlockPos>... callbacks) {
+		if(rotation < 0 || rotation > 3) {
+			return;
+		}
+		if(this.templateRecorder != null && (pred != null || callbacks.length > 0)) {
+			this.templateRecorder.invalidate();
+		}
 		x -= width / 2;
 		z -= depth / 2;
-		switch (rotation) {
-		case 0:
+		//Predicates may read any block of the world, including blocks placed earlier in this volume,
+		//so the buffer is flushed and the volume is placed directly
+		StructureBlockBuffer suspendedBuffer = null;
+		if(pred != null && this.buffer != null) {
+			this.flushBuffer(world);
+			suspendedBuffer = this.buffer;
+			this.buffer = null;
+		}
+		try {
+			//Buffered blocks only need their coordinates, so the position can be reused
+			MutableBlockPos mutablePos = this.buffer != null ? new MutableBlockPos() : null;
 			for (int yy = y + offsetY; yy < y + offsetY + sizeHeight; yy++)
-				for (int xx = x + offsetX; xx < x + offsetX + sizeWidth; xx++)
-					for (int zz = z + offsetZ; zz < z + offsetZ + sizeDepth; zz++) {
-						BlockPos pos = new BlockPos(xx, yy, zz);
+				for (int lx = offsetX; lx < offsetX + sizeWidth; lx++)
+					for (int lz = offsetZ; lz < offsetZ + sizeDepth; lz++) {
+						int xx = this.getRotatedX(x, lx, lz, rotation);
+						int zz = this.getRotatedZ(z, lx, lz, rotation);
+						BlockPos pos = mutablePos != null ? mutablePos.setPos(xx, yy, zz) : new BlockPos(xx, yy, zz);
 						if(pred == null || pred.test(pos)) {
 							this.setBlockAndNotifyAdequately(world, pos, blockState);
-							for(Consumer<BlockPos> callback : callbacks) {
-								callback.accept(pos);
+							if(callbacks.length > 0) {
+								BlockPos immutablePos = pos.toImmutable();
+								for(Consumer<BlockPos> callback : callbacks) {
+									callback.accept(immutablePos);
+								}
 							}
 						}
 					}
-			break;
+		} finally {
+			if(suspendedBuffer != null) {
+				this.buffer = suspendedBuffer;
+			}
+		}
+	}
+
+	/**
+	 * Returns the world x coordinate of a structure position
+	 * @param x        x of the structure corner
+	 * @param offsetX  Unrotated x offset
+	 * @param offsetZ  Unrotated z offset
+	 * @param rotation The rotation (0 to 3)
+	 * @return
+	 */
+	private int getRotatedX(int x, int offsetX, int offsetZ, int rotation) {
+		switch (rotation) {
+		default:
+		case 0:
+			return x + offsetX;
 		case 1:
-			for (int yy = y + offsetY; yy < y + offsetY + sizeHeight; yy++)
-				for (int zz = z + depth - offsetX - 1; zz > z + depth - offsetX - sizeWidth - 1; zz--)
-					for (int xx = x + offsetZ; xx < x + offsetZ + sizeDepth; xx++) {
-						BlockPos pos = new BlockPos(xx, yy, zz);
-						if(pred == null || pred.test(pos)) {
-							this.setBlockAndNotifyAdequately(world, pos, blockState);
-							for(Consumer<BlockPos> callback : callbacks) {
-								callback.accept(pos);
-							}
-						}
-					}
-			break;
+			return x + offsetZ;
 		case 2:
-			for (int yy = y + offsetY; yy < y + offsetY + sizeHeight; yy++)
-				for (int xx = x + width - offsetX - 1; xx > x + width - offsetX - sizeWidth - 1; xx--)
-					for (int zz = z + depth - offsetZ - 1; zz > z + depth - offsetZ - sizeDepth - 1; zz--) {
-						BlockPos pos = new BlockPos(xx, yy, zz);
-						if(pred == null || pred.test(pos)) {
-							this.setBlockAndNotifyAdequately(world, pos, blockState);
-							for(Consumer<BlockPos> callback : callbacks) {
-								callback.accept(pos);
-							}
-						}
-					}
-			break;
+			return x + width - offsetX - 1;
 		case 3:
-			for (int yy = y + offsetY; yy < y + offsetY + sizeHeight; yy++)
-				for (int zz = z + offsetX; zz < z + offsetX + sizeWidth; zz++)
-					for (int xx = x + width - offsetZ - 1; xx > x + width - offsetZ - sizeDepth - 1; xx--) {
-						BlockPos pos = new BlockPos(xx, yy, zz);
-						if(pred == null || pred.test(pos)) {
-							this.setBlockAndNotifyAdequately(world, pos, blockState);
-							for(Consumer<BlockPos> callback : callbacks) {
-								callback.accept(pos);
-							}
-						}
-					}
-			break;
+			return x + width - offsetZ - 1;
+		}
+	}
+
+	/**
+	 * Returns the world z coordinate of a structure position
+	 * @param z        z of the structure corner
+	 * @param offsetX  Unrotated x offset
+	 * @param offsetZ  Unrotated z offset
+	 * @param rotation The rotation (0 to 3)
+	 * @return
+	 */
+	private int getRotatedZ(int z, int offsetX, int offsetZ, int rotation) {
+		switch (rotation) {
+		default:
+		case 0:
+			return z + offsetZ;
+		case 1:
+			return z + depth - offsetX - 1;
+		case 2:
+			return z + depth - offsetZ - 1;
+		case 3:
+			return z + offsetX;
 		}
 	}
 
@@ -353,24 +405,15 @@ public abstract class WorldGenHelper extends WorldGenerator {
 	 * @return whether or not it is replaceable
 	 */
 	public boolean isReplaceable(World world, int x, int y, int z, int offsetX, int offsetY, int offsetZ, int rotation) {
+		if(rotation < 0 || rotation > 3) {
+			return false;
+		}
 		x -= width / 2;
 		z -= depth / 2;
-		BlockPos pos;
-		switch (rotation) {
-		case 0:
-			pos = this.getCheckPos(x + offsetX, y + offsetY, z + offsetZ);
-			return world.isBlockLoaded(pos) && (world.getBlockState(pos).getBlock().isReplaceable(world, pos) || (replaceable != null && checkReplaceablePredicates(world.getBlockState(pos))));
-		case 1:
-			pos = this.getCheckPos(x + offsetZ, y + offsetY, z + depth - offsetX - 1);
-			return world.isBlockLoaded(pos) && (world.getBlockState(pos).getBlock().isReplaceable(world, pos) || (replaceable != null && checkReplaceablePredicates(world.getBlockState(pos))));
-		case 2:
-			pos = this.getCheckPos(x + width - offsetX - 1, y + offsetY, z + depth - offsetZ - 1);
-			return world.isBlockLoaded(pos) && (world.getBlockState(pos).getBlock().isReplaceable(world, pos) || (replaceable != null && checkReplaceablePredicates(world.getBlockState(pos))));
-		case 3:
-			pos = this.getCheckPos(x + width - offsetZ - 1, y + offsetY, z + offsetX);
-			return world.isBlockLoaded(pos) && (world.getBlockState(pos).getBlock().isReplaceable(world, pos) || (replaceable != null && checkReplaceablePredicates(world.getBlockState(pos))));
-		}
-		return false;
+		BlockPos pos = this.getCheckPos(this.getRotatedX(x, offsetX, offsetZ, rotation), y + offsetY, this.getRotatedZ(z, offsetX, offsetZ, rotation));
+		this.onWorldRead();
+		this.flushBuffer(world, pos);
+		return world.isBlockLoaded(pos) && (world.getBlockState(pos).getBlock().isReplaceable(world, pos) || (replaceable != null && checkReplaceablePredicates(world.getBlockState(pos))));
 	}
 	
 	private boolean checkReplaceablePredicates(IBlockState state) {
@@ -396,6 +439,8 @@ public abstract class WorldGenHelper extends WorldGenerator {
 	 * @return
 	 */
 	public boolean rotatedCubeMatches(World world, int x, int y, int z, int offsetX, int offsetY, int offsetZ, int sizeWidth, int sizeHeight, int sizeDepth,  int rotation, SurfaceType type) {
+		this.onWorldRead();
+		this.flushBuffer(world);
 		x -= width / 2;
 		z -= depth / 2;
 		switch (rotation) {
@@ -562,27 +607,25 @@ public abstract class WorldGenHelper extends WorldGenerator {
 		switch (rotation) {
 		case 0:
 			pos = pos.add(offsetX, offsetY, offsetZ);
-			this.setBlockAndNotifyAdequately(world, pos, spawner);
-			BlockMobSpawnerBetweenlands.setMob(world, pos, mob);
-			return BlockMobSpawnerBetweenlands.getLogic(world, pos);
+			break;
 		case 1:
 			pos = pos.add(offsetZ, offsetY, depth - offsetX - 1);
-			this.setBlockAndNotifyAdequately(world, pos, spawner);
-			BlockMobSpawnerBetweenlands.setMob(world, pos, mob);
-			return BlockMobSpawnerBetweenlands.getLogic(world, pos);
+			break;
 		case 2:
 			pos = pos.add(width - offsetX - 1, offsetY, depth - offsetZ - 1);
-			this.setBlockAndNotifyAdequately(world, pos, spawner);
-			BlockMobSpawnerBetweenlands.setMob(world, pos, mob);
-			return BlockMobSpawnerBetweenlands.getLogic(world, pos);
+			break;
 		default:
 		case 3:
 			pos = pos.add(width - offsetZ - 1, offsetY, offsetX);
-			this.setBlockAndNotifyAdequately(world, pos, spawner);
-			BlockMobSpawnerBetweenlands.setMob(world, pos, mob);
-			return BlockMobSpawnerBetweenlands.getLogic(world, pos);
+			break;
 		}
-
+		this.setBlockAndNotifyAdequately(world, pos, spawner);
+		BlockMobSpawnerBetweenlands.setMob(world, pos, mob);
+		MobSpawnerLogicBetweenlands logic = BlockMobSpawnerBetweenlands.getLogic(world, pos);
+		if (logic != null) {
+			logic.setCheapChecks(true);
+		}
+		return logic;
 	}
 
 	/**
@@ -601,6 +644,7 @@ public abstract class WorldGenHelper extends WorldGenerator {
 	 * @return
 	 */
 	public boolean rotatedCubeCantReplace(World world, int x, int y, int z, int offsetA, int offsetB, int offsetC, int sizeWidth, int sizeHeight, int sizeDepth, int direction) {
+		this.onWorldRead();
 		x -= width / 2;
 		z -= depth / 2;
 		switch (direction) {
@@ -750,8 +794,144 @@ public abstract class WorldGenHelper extends WorldGenerator {
 		}
 	}
 	
+	/**
+	 * Starts buffering the blocks placed by {@link #setBlockAndNotifyAdequately(World, BlockPos, IBlockState)}
+	 * in a {@link StructureBlockBuffer} until {@link #commitBuffer(World)} is called. Blocks with a tile entity
+	 * flush the buffer and are placed right away so that their tile entity can be accessed.
+	 * The read helpers of this class flush the buffer where necessary, but structures that read
+	 * blocks they have placed themselves must call {@link #flushBuffer(World)} or {@link #flushBuffer(World, BlockPos)} first.
+	 * Does nothing if buffered structure generation is disabled in the config
+	 */
+	protected void startBuffering() {
+		if(this.buffer == null && BetweenlandsConfig.PERFORMANCE.bufferedStructureGeneration) {
+			this.buffer = new StructureBlockBuffer();
+			this.bufferStartTime = System.nanoTime();
+			this.bufferCommitTime = 0;
+			this.bufferCommits = 0;
+			this.bufferPlacedBlocks = 0;
+		}
+	}
+
+	/**
+	 * Returns whether blocks are currently buffered, see {@link #startBuffering()}
+	 * @return
+	 */
+	protected boolean isBuffering() {
+		return this.buffer != null;
+	}
+
+	/**
+	 * Places all buffered blocks in the world. Buffering continues afterwards
+	 * @param world
+	 */
+	protected void flushBuffer(World world) {
+		if(this.buffer != null && !this.buffer.isEmpty()) {
+			long start = System.nanoTime();
+			this.bufferPlacedBlocks += this.buffer.commit(world, this.doBlockNotify ? 3 | 16 : 2 | 16);
+			this.bufferCommitTime += System.nanoTime() - start;
+			this.bufferCommits++;
+		}
+	}
+
+	/**
+	 * Places all buffered blocks in the world if a block is buffered at the specified position
+	 * @param world
+	 * @param pos
+	 */
+	protected void flushBuffer(World world, BlockPos pos) {
+		if(this.buffer != null && this.buffer.contains(pos)) {
+			this.flushBuffer(world);
+		}
+	}
+
+	/**
+	 * Places all buffered blocks in the world and stops buffering
+	 * @param world
+	 */
+	protected void commitBuffer(World world) {
+		if(this.buffer != null) {
+			this.flushBuffer(world);
+			this.buffer = null;
+
+			if(BetweenlandsConfig.DEBUG.debugStructureGeneration) {
+				TheBetweenlands.logger.info(String.format("Generated %s in %.2f ms, placed %d blocks in %d commits taking %.2f ms",
+						this.getClass().getSimpleName(), (System.nanoTime() - this.bufferStartTime) / 1000000.0D,
+						this.bufferPlacedBlocks, this.bufferCommits, this.bufferCommitTime / 1000000.0D));
+			}
+		}
+	}
+
+	/**
+	 * Generates a part of a structure from a cached template. The first time a part is generated
+	 * with a rotation the builder is run and its block placements are recorded into a {@link StructureTemplate}.
+	 * Afterwards the recorded placements are replayed without running the builder again.
+	 * The builder must only place blocks, must always place the same blocks for the same rotation and
+	 * must not use random numbers. Builders that read the world, place tile entities or use callbacks
+	 * or predicates in {@link #rotatedCubeVolume(World, Predicate, int, int, int, int, int, int, IBlockState, int, int, int, int, Consumer...)}
+	 * are detected and never cached.
+	 * @param world    The world
+	 * @param name     Name of the part, unique within the structure
+	 * @param x        x to generate relative from
+	 * @param y        y to generate relative from
+	 * @param z        z to generate relative from
+	 * @param rotation The rotation for the part (0 to 3)
+	 * @param builder  Builds the part
+	 */
+	public void generateTemplate(World world, String name, int x, int y, int z, int rotation, TemplateBuilder builder) {
+		String key = this.getClass().getName() + ":" + name + ":" + rotation;
+
+		StructureTemplate template = TEMPLATES.get(key);
+		if(template != null) {
+			template.place(x, y, z, (pos, state) -> this.setBlockAndNotifyAdequately(world, this.buffer != null ? pos : pos.toImmutable(), state));
+			return;
+		}
+
+		if(this.templateRecorder != null) {
+			//Nested parts are recorded as part of the outer template
+			builder.build(world, x, y, z, rotation);
+			return;
+		}
+
+		StructureTemplate.Recorder recorder = this.templateRecorder = new StructureTemplate.Recorder(x, y, z);
+		try {
+			builder.build(world, x, y, z, rotation);
+		} finally {
+			this.templateRecorder = null;
+		}
+
+		if(recorder.isValid()) {
+			TEMPLATES.putIfAbsent(key, recorder.build());
+		} else if(BetweenlandsConfig.DEBUG.debugStructureGeneration) {
+			TheBetweenlands.logger.warn(String.format("Structure part %s cannot be cached as a template", key));
+		}
+	}
+
+	/**
+	 * Must be called before a structure reads blocks from the world. Parts that read the world
+	 * are not cached as templates, see {@link #generateTemplate(World, String, int, int, int, int, TemplateBuilder)}
+	 */
+	protected void onWorldRead() {
+		if(this.templateRecorder != null) {
+			this.templateRecorder.invalidate();
+		}
+	}
+
 	@Override
 	protected void setBlockAndNotifyAdequately(World worldIn, BlockPos pos, IBlockState state) {
+		if(this.templateRecorder != null) {
+			if(state.getBlock().hasTileEntity(state)) {
+				this.templateRecorder.invalidate();
+			} else {
+				this.templateRecorder.record(pos, state);
+			}
+		}
+		if(this.buffer != null) {
+			if(!state.getBlock().hasTileEntity(state)) {
+				this.buffer.set(pos, state);
+				return;
+			}
+			this.flushBuffer(worldIn);
+		}
 		if (this.doBlockNotify) {
 			worldIn.setBlockState(pos, state, 3 | 16);
 		} else {
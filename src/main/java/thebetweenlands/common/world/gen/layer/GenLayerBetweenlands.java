@@ -14,11 +14,21 @@ public abstract class GenLayerBetweenlands extends GenLayer {
 	}
 
 	public static GenLayer[] initializeAllBiomeGenerators(long seed, WorldType worldType) {
+		return initializeAllBiomeGenerators(seed, worldType, new InstancedIntCache());
+	}
+
+	/**
+	 * Creates the biome gen layers with the specified int cache. The returned layers and
+	 * the cache must only be used by one thread at a time
+	 * @param seed
+	 * @param worldType
+	 * @param cache
+	 * @return
+	 */
+	public static GenLayer[] initializeAllBiomeGenerators(long seed, WorldType worldType, InstancedIntCache cache) {
 		int biomeSize = getModdedBiomeSize(worldType, (worldType == WorldType.LARGE_BIOMES ? 6 : 4));
 
 		biomeSize = Math.max(biomeSize, 3);
-		
-		final InstancedIntCache cache = new InstancedIntCache();
 
 		GenLayer genLayer = new GenLayerBetweenlandsBiome(cache, 100L);
 
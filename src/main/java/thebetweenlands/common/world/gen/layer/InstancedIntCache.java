@@ -1,57 +1,97 @@
 package thebetweenlands.common.world.gen.layer;
 
-import java.util.List;
+/**
+ * Int array cache for one set of gen layers. Arrays are pooled in power of two size classes and all
+ * arrays handed out are returned to the pools by {@link #resetIntCache()}, which marks the end of the
+ * scope of one gen layer lookup. Gen layers aren't thread safe, so just like the gen layers using it
+ * a cache must only be used by one thread at a time. Biomes can be generated in parallel by giving each
+ * thread its own gen layers and cache, see {@link thebetweenlands.common.world.gen.ChunkGenerationContext}.
+ */
+public class InstancedIntCache {
+	private static final int MIN_SIZE_CLASS = 8;
+	private static final int MAX_POOLED_SIZE_CLASS = 20;
+	private static final int MAX_FREE_ARRAYS_PER_CLASS = 64;
 
-import com.google.common.collect.Lists;
+	private Arena arena = new Arena();
 
-public class InstancedIntCache {
-	private int intCacheSize = 256;
-	private final List<int[]> freeSmallArrays = Lists.<int[]>newArrayList();
-	private final List<int[]> inUseSmallArrays = Lists.<int[]>newArrayList();
-	private final List<int[]> freeLargeArrays = Lists.<int[]>newArrayList();
-	private final List<int[]> inUseLargeArrays = Lists.<int[]>newArrayList();
-
-	public synchronized int[] getIntCache(int size) {
-		if (size <= 256) {
-			if (freeSmallArrays.isEmpty()) {
-				int[] aint4 = new int[256];
-				inUseSmallArrays.add(aint4);
-				return aint4;
+	/**
+	 * Returns an int array with at least the specified size. The array stays valid
+	 * until {@link #resetIntCache()} is called
+	 * @param size
+	 * @return
+	 */
+	public int[] getIntCache(int size) {
+		return this.arena.allocate(size);
+	}
+
+	/**
+	 * Releases all arrays that were handed out back to the pools
+	 */
+	public void resetIntCache() {
+		this.arena.releaseAll();
+	}
+
+	/**
+	 * Drops all pooled arrays so that they can be garbage collected. The cache
+	 * can still be used afterwards, but has to allocate new arrays
+	 */
+	public void release() {
+		this.arena = new Arena();
+	}
+
+	private static class Arena {
+		private final int[][][] freeArrays = new int[MAX_POOLED_SIZE_CLASS + 1][][];
+		private final int[] freeCounts = new int[MAX_POOLED_SIZE_CLASS + 1];
+
+		private int[][] inUseArrays = new int[32][];
+		private int inUseCount = 0;
+
+		private int[] allocate(int size) {
+			int sizeClass = Math.max(MIN_SIZE_CLASS, 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1));
+
+			int[] array;
+			if(sizeClass <= MAX_POOLED_SIZE_CLASS && this.freeCounts[sizeClass] > 0) {
+				int[][] free = this.freeArrays[sizeClass];
+				array = free[--this.freeCounts[sizeClass]];
+				free[this.freeCounts[sizeClass]] = null;
 			} else {
-				int[] aint3 = freeSmallArrays.remove(freeSmallArrays.size() - 1);
-				inUseSmallArrays.add(aint3);
-				return aint3;
+				array = new int[sizeClass <= MAX_POOLED_SIZE_CLASS ? 1 << sizeClass : size];
 			}
-		} else if (size > intCacheSize) {
-			intCacheSize = size;
-			freeLargeArrays.clear();
-			inUseLargeArrays.clear();
-			int[] aint2 = new int[intCacheSize];
-			inUseLargeArrays.add(aint2);
-			return aint2;
-		} else if (freeLargeArrays.isEmpty()) {
-			int[] aint1 = new int[intCacheSize];
-			inUseLargeArrays.add(aint1);
-			return aint1;
-		} else {
-			int[] aint = freeLargeArrays.remove(freeLargeArrays.size() - 1);
-			inUseLargeArrays.add(aint);
-			return aint;
-		}
-	}
 
-	public synchronized void resetIntCache() {
-		if (!freeLargeArrays.isEmpty()) {
-			freeLargeArrays.remove(freeLargeArrays.size() - 1);
-		}
+			if(this.inUseCount == this.inUseArrays.length) {
+				int[][] newInUseArrays = new int[this.inUseArrays.length * 2][];
+				System.arraycopy(this.inUseArrays, 0, newInUseArrays, 0, this.inUseCount);
+				this.inUseArrays = newInUseArrays;
+			}
+			this.inUseArrays[this.inUseCount++] = array;
 
-		if (!freeSmallArrays.isEmpty()) {
-			freeSmallArrays.remove(freeSmallArrays.size() - 1);
+			return array;
 		}
 
-		freeLargeArrays.addAll(inUseLargeArrays);
-		freeSmallArrays.addAll(inUseSmallArrays);
-		inUseLargeArrays.clear();
-		inUseSmallArrays.clear();
+		private void releaseAll() {
+			for(int i = 0; i < this.inUseCount; i++) {
+				int[] array = this.inUseArrays[i];
+				this.inUseArrays[i] = null;
+
+				//Only power of two arrays up to the max. pooled size class are kept, anything else is left to the GC
+				int sizeClass = Integer.numberOfTrailingZeros(array.length);
+				if(sizeClass >= MIN_SIZE_CLASS && sizeClass <= MAX_POOLED_SIZE_CLASS && array.length == 1 << sizeClass) {
+					int count = this.freeCounts[sizeClass];
+					if(count < MAX_FREE_ARRAYS_PER_CLASS) {
+						int[][] free = this.freeArrays[sizeClass];
+						if(free == null) {
+							this.freeArrays[sizeClass] = free = new int[8][];
+						} else if(count == free.length) {
+							int[][] newFree = new int[free.length * 2][];
+							System.arraycopy(free, 0, newFree, 0, count);
+							this.freeArrays[sizeClass] = free = newFree;
+						}
+						free[count] = array;
+						this.freeCounts[sizeClass] = count + 1;
+					}
+				}
+			}
+			this.inUseCount = 0;
+		}
 	}
-}
\ No newline at end of file
+}
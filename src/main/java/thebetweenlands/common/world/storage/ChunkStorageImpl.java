@@ -3,9 +3,11 @@ package thebetweenlands.common.world.storage;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -27,6 +29,7 @@ import thebetweenlands.api.storage.IWorldStorage;
 import thebetweenlands.api.storage.LocalStorageReference;
 import thebetweenlands.api.storage.StorageID;
 import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.config.BetweenlandsConfig;
 import thebetweenlands.common.network.clientbound.MessageSyncChunkStorage;
 import thebetweenlands.common.network.clientbound.MessageSyncLocalStorageReferences;
 
@@ -42,6 +45,14 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 
 	private final List<LocalStorageReference> localStorageReferences = new ArrayList<>();
 
+	//Handles of referenced local storages that are still being loaded in the background
+	private final Map<StorageID, ILocalStorageHandle> pendingReferences = new HashMap<>();
+	private boolean unloaded = false;
+
+	//Sync message shared by all players that start watching this chunk in the same tick
+	private MessageSyncChunkStorage syncMessage;
+	private long syncMessageTime;
+
 	protected boolean syncStorageLinks = false;
 
 	public ChunkStorageImpl(IWorldStorage worldStorage, Chunk chunk) {
@@ -82,7 +93,19 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 
 	@Override
 	public void onUnload() {
+		this.unloaded = true;
+
+		this.invalidateSyncMessage();
+
+		for(ILocalStorageHandle handle : this.pendingReferences.values()) {
+			handle.close();
+		}
+
 		for(LocalStorageReference ref : this.localStorageReferences) {
+			if(this.pendingReferences.containsKey(ref.getID())) {
+				continue;
+			}
+
 			ILocalStorage localStorage = this.getWorldStorage().getLocalStorageHandler().getLocalStorage(ref.getID());
 			if(localStorage != null) {
 				localStorage.unloadReference(ref);
@@ -91,6 +114,8 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 				}
 			}
 		}
+
+		this.pendingReferences.clear();
 	}
 
 	@Override
@@ -115,10 +140,42 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 			this.localStorageReferences.add(LocalStorageReference.readFromNBT((NBTTagCompound)localReferenceList.get(i)));
 		}
 
+		for(ILocalStorageHandle handle : this.pendingReferences.values()) {
+			handle.close();
+		}
+		this.pendingReferences.clear();
+
+		boolean loadAsync = !this.world.isRemote && BetweenlandsConfig.PERFORMANCE.localStorageAsyncLoading;
+
 		Iterator<LocalStorageReference> refIT = this.localStorageReferences.iterator();
 		while(refIT.hasNext()) {
 			LocalStorageReference ref = refIT.next();
 
+			if(loadAsync) {
+				ILocalStorageHandle handle = this.worldStorage.getLocalStorageHandler().getOrLoadLocalStorageAsync(ref);
+
+				if(handle != null && handle.isPending()) {
+					//Reference is loaded once the local storage has arrived
+					this.pendingReferences.put(ref.getID(), handle);
+					handle.onLoaded(h -> this.onPendingReferenceLoaded(ref, h));
+					continue;
+				}
+
+				try {
+					if(handle != null && handle.get() != null && handle.get().getLinkedChunks().contains(this.chunk.getPos())) {
+						handle.get().loadReference(ref);
+					} else {
+						refIT.remove();
+					}
+				} finally {
+					if(handle != null) {
+						handle.close();
+					}
+				}
+
+				continue;
+			}
+
 			try(ILocalStorageHandle handle = this.worldStorage.getLocalStorageHandler().getOrLoadLocalStorage(ref)) {
 				//Load reference if properly linked
 				if(handle != null && handle.get().getLinkedChunks().contains(this.chunk.getPos())) {
@@ -132,6 +189,39 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 		return nbt;
 	}
 
+	/**
+	 * Called once the local storage of a reference that was loaded in the background has arrived
+	 * @param ref
+	 * @param handle
+	 */
+	private void onPendingReferenceLoaded(LocalStorageReference ref, ILocalStorageHandle handle) {
+		try {
+			if(this.pendingReferences.get(ref.getID()) == handle && !this.unloaded) {
+				this.pendingReferences.remove(ref.getID());
+
+				if(this.localStorageReferences.contains(ref)) {
+					ILocalStorage localStorage = handle.get();
+
+					//Load reference if properly linked
+					if(localStorage != null && localStorage.getLinkedChunks().contains(this.chunk.getPos())) {
+						localStorage.loadReference(ref);
+
+						//Players may already be watching this chunk
+						for(EntityPlayerMP watcher : this.watchers) {
+							localStorage.addWatcher(this, watcher);
+						}
+					} else {
+						//Local storage doesn't exist or chunk shouldn't be linked to local storage, remove link
+						this.localStorageReferences.remove(ref);
+						this.syncStorageLinks = true;
+					}
+				}
+			}
+		} finally {
+			handle.close();
+		}
+	}
+
 	@Override
 	public NBTTagCompound writeToNBT(NBTTagCompound nbt, boolean packet) {
 		if(this.capabilities != null) {
@@ -175,13 +265,43 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 	 */
 	protected void onWatched(EntityPlayerMP player) {
 		for(LocalStorageReference ref : this.localStorageReferences) {
+			if(this.pendingReferences.containsKey(ref.getID())) {
+				continue;
+			}
+
 			ILocalStorage localStorage = this.getWorldStorage().getLocalStorageHandler().getLocalStorage(ref.getID());
 			if(localStorage != null) {
 				localStorage.addWatcher(this, player);
 			}
 		}
 
-		TheBetweenlands.networkWrapper.sendTo(new MessageSyncChunkStorage(this), player);
+		TheBetweenlands.networkWrapper.sendTo(this.getSyncMessage(), player);
+	}
+
+	/**
+	 * Returns the sync message of this chunk storage. The message is only serialized once
+	 * per tick and is reused until the storage is marked dirty or the tick has passed
+	 * @return
+	 */
+	protected MessageSyncChunkStorage getSyncMessage() {
+		long time = this.world.getTotalWorldTime();
+		if(this.syncMessage == null || this.syncMessageTime != time) {
+			this.invalidateSyncMessage();
+			this.syncMessage = new MessageSyncChunkStorage(this);
+			this.syncMessage.preserialize();
+			this.syncMessageTime = time;
+		}
+		return this.syncMessage;
+	}
+
+	/**
+	 * Releases the cached sync message, see {@link #getSyncMessage()}
+	 */
+	protected void invalidateSyncMessage() {
+		if(this.syncMessage != null) {
+			this.syncMessage.release();
+			this.syncMessage = null;
+		}
 	}
 
 	@Override
@@ -199,6 +319,10 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 	 */
 	protected void onUnwatched(EntityPlayerMP player) {
 		for(LocalStorageReference ref : this.localStorageReferences) {
+			if(this.pendingReferences.containsKey(ref.getID())) {
+				continue;
+			}
+
 			ILocalStorage localStorage = this.getWorldStorage().getLocalStorageHandler().getLocalStorage(ref.getID());
 			if(localStorage != null) {
 				localStorage.removeWatcher(this, player);
@@ -220,6 +344,7 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 	public void setDirty(boolean dirty) {
 		if(dirty) {
 			this.chunk.setModified(true);
+			this.invalidateSyncMessage();
 		}
 		this.dirty = dirty;
 	}
@@ -308,12 +433,24 @@ public abstract class ChunkStorageImpl implements IChunkStorage, ITickable {
 
 	@Override
 	public void update() {
+		//Sync message is only shared within one tick, so its buffer isn't kept alive any longer
+		if(this.syncMessage != null && this.syncMessageTime != this.world.getTotalWorldTime()) {
+			this.invalidateSyncMessage();
+		}
+
 		if(this.syncStorageLinks) {
 			this.syncStorageLinks = false;
 
-			MessageSyncLocalStorageReferences message = new MessageSyncLocalStorageReferences(this);
-			for(EntityPlayerMP watcher : this.watchers) {
-				TheBetweenlands.networkWrapper.sendTo(message, watcher);
+			if(!this.watchers.isEmpty()) {
+				MessageSyncLocalStorageReferences message = new MessageSyncLocalStorageReferences(this);
+				message.preserialize();
+				try {
+					for(EntityPlayerMP watcher : this.watchers) {
+						TheBetweenlands.networkWrapper.sendTo(message, watcher);
+					}
+				} finally {
+					message.release();
+				}
 			}
 		}
 	}
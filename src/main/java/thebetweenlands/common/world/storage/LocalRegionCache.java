@@ -3,22 +3,34 @@ package thebetweenlands.common.world.storage;
 import java.io.File;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.Nullable;
 
 import thebetweenlands.api.storage.LocalRegion;
+import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.config.BetweenlandsConfig;
 
 public class LocalRegionCache {
-	private final Map<LocalRegion, LocalRegionData> regionData = new HashMap<LocalRegion, LocalRegionData>();
+	//Access ordered so that the least recently used regions are iterated first
+	private final Map<LocalRegion, LocalRegionData> regionData = new LinkedHashMap<LocalRegion, LocalRegionData>(16, 0.75F, true);
+
+	private final Map<LocalRegion, CompletableFuture<LocalRegionData>> prefetchedRegions = new HashMap<>();
+	private final Map<LocalRegion, Long> prefetchTimes = new HashMap<>();
 
 	private final File dir;
 
 	private final LocalStorageHandlerImpl handler;
-	
+
 	public LocalRegionCache(LocalStorageHandlerImpl handler, File dir) {
 		this.dir = dir;
 		this.handler = handler;
 	}
-	
+
 	public LocalStorageHandlerImpl getLocalStorageHandler() {
 		return this.handler;
 	}
@@ -40,11 +52,51 @@ public class LocalRegionCache {
 	public LocalRegionData getOrCreateRegion(LocalRegion region) {
 		LocalRegionData data = this.regionData.get(region);
 		if(data == null) {
-			this.regionData.put(region, data = LocalRegionData.getOrCreateRegion(this, this.dir, region));
+			data = this.getPrefetchedRegion(region);
+			if(data == null) {
+				data = LocalRegionData.getOrCreateRegion(this, this.dir, region);
+			}
+			this.regionData.put(region, data);
 		}
+		data.setLastAccessTime(System.currentTimeMillis());
 		return data;
 	}
 
+	@Nullable
+	private LocalRegionData getPrefetchedRegion(LocalRegion region) {
+		CompletableFuture<LocalRegionData> prefetch = this.prefetchedRegions.remove(region);
+		if(prefetch != null) {
+			this.prefetchTimes.remove(region);
+			try {
+				//Waits if the region is still being read, which is no slower than reading it here
+				return prefetch.join();
+			} catch(Exception ex) {
+				TheBetweenlands.logger.error(String.format("Failed prefetching local region %s", region.getFileName()), ex);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Starts reading the specified region on the file IO threads
+	 * if it is not already cached, so that {@link #getOrCreateRegion(LocalRegion)}
+	 * doesn't have to wait for the file to be read and decompressed.
+	 * @param region
+	 * @return The future of the region being read, or null if the region is already cached
+	 */
+	@Nullable
+	public CompletableFuture<LocalRegionData> prefetchRegion(LocalRegion region) {
+		if(this.regionData.containsKey(region)) {
+			return null;
+		}
+		CompletableFuture<LocalRegionData> prefetch = this.prefetchedRegions.get(region);
+		if(prefetch == null) {
+			this.prefetchedRegions.put(region, prefetch = this.handler.getSaveHandler().supplyAsync(() -> LocalRegionData.getOrCreateRegion(this, this.dir, region)));
+		}
+		this.prefetchTimes.put(region, System.currentTimeMillis());
+		return prefetch;
+	}
+
 	/**
 	 * Removes a region without saving anything
 	 * @param region
@@ -53,6 +105,46 @@ public class LocalRegionCache {
 		this.regionData.remove(region);
 	}
 
+	/**
+	 * Saves and removes unreferenced regions that haven't been used
+	 * for a while or that exceed the maximum cache size, least recently used first
+	 */
+	public void evictRegions() {
+		long now = System.currentTimeMillis();
+		long maxAge = BetweenlandsConfig.PERFORMANCE.localStorageRegionCacheMaxAge * 1000L;
+
+		//Only unused regions count towards the cache size
+		int unreferenced = 0;
+		for(LocalRegionData data : this.regionData.values()) {
+			if(!data.hasReferences()) {
+				unreferenced++;
+			}
+		}
+		int excess = unreferenced - BetweenlandsConfig.PERFORMANCE.localStorageRegionCacheSize;
+
+		Iterator<LocalRegionData> regionIT = this.regionData.values().iterator();
+		while(regionIT.hasNext()) {
+			LocalRegionData data = regionIT.next();
+			if(!data.hasReferences() && (excess > 0 || now - data.getLastAccessTime() > maxAge)) {
+				if(data.isDirty()) {
+					data.saveRegion(this.dir);
+				}
+				regionIT.remove();
+				excess--;
+			}
+		}
+
+		//Discard prefetched regions that were never used
+		Iterator<Entry<LocalRegion, Long>> prefetchIT = this.prefetchTimes.entrySet().iterator();
+		while(prefetchIT.hasNext()) {
+			Entry<LocalRegion, Long> entry = prefetchIT.next();
+			if(now - entry.getValue() > maxAge) {
+				this.prefetchedRegions.remove(entry.getKey());
+				prefetchIT.remove();
+			}
+		}
+	}
+
 	/**
 	 * Saves all regions
 	 */
@@ -69,6 +161,8 @@ public class LocalRegionCache {
 	 */
 	public void clearCache() {
 		this.regionData.clear();
+		this.prefetchedRegions.clear();
+		this.prefetchTimes.clear();
 	}
 
 	/**
@@ -2,6 +2,11 @@ package thebetweenlands.common.world.storage;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.Nullable;
 
@@ -13,13 +18,26 @@ import net.minecraftforge.common.util.Constants;
 import thebetweenlands.api.storage.LocalRegion;
 import thebetweenlands.api.storage.StorageID;
 import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.config.BetweenlandsConfig;
 
 public class LocalRegionData {
+	//Log is compacted once it has this many more records than entries
+	private static final int LOG_COMPACTION_MIN_RECORDS = 64;
+	private static final int LOG_COMPACTION_RATIO = 2;
+
 	private String id;
 	private NBTTagCompound nbt;
 	private int refCounter;
 	private boolean dirty;
 
+	private final Set<String> dirtyEntries = new HashSet<>();
+	private boolean fullSave = false;
+	private int logRecords = 0;
+	@Nullable
+	private File obsoleteFile;
+
+	private long lastAccessTime;
+
 	private final LocalRegionCache cache;
 	
 	public LocalRegionData(LocalRegionCache cache, String id, NBTTagCompound nbt) {
@@ -60,6 +78,22 @@ public class LocalRegionData {
 		return this.refCounter > 0;
 	}
 
+	/**
+	 * Sets the time in milliseconds when this region was last used
+	 * @param time
+	 */
+	public void setLastAccessTime(long time) {
+		this.lastAccessTime = time;
+	}
+
+	/**
+	 * Returns the time in milliseconds when this region was last used
+	 * @return
+	 */
+	public long getLastAccessTime() {
+		return this.lastAccessTime;
+	}
+
 	@Nullable
 	public NBTTagCompound getLocalStorageNBT(StorageID id) {
 		if(this.nbt.hasKey(id.getStringID(), Constants.NBT.TAG_COMPOUND)) {
@@ -75,7 +109,7 @@ public class LocalRegionData {
 	 */
 	public void setLocalStorageNBT(StorageID id, NBTTagCompound nbt) {
 		this.nbt.setTag(id.getStringID(), nbt);
-		this.dirty = true;
+		this.markEntryDirty(id.getStringID());
 	}
 
 	/**
@@ -85,7 +119,7 @@ public class LocalRegionData {
 	 */
 	public void deleteLocalStorage(File dir, StorageID id) {
 		if(this.nbt.hasKey(id.getStringID(), Constants.NBT.TAG_COMPOUND)) {
-			this.dirty = true;
+			this.markEntryDirty(id.getStringID());
 			this.nbt.removeTag(id.getStringID());
 			if(this.nbt.getSize() == 0) {
 				this.deleteRegionFile(dir);
@@ -95,7 +129,7 @@ public class LocalRegionData {
 
 	public void setChunkNBT(ChunkPos chunk, NBTTagCompound nbt) {
 		this.nbt.setTag("ChunkData." + chunk.x + "." + chunk.z, nbt);
-		this.dirty = true;
+		this.markEntryDirty("ChunkData." + chunk.x + "." + chunk.z);
 	}
 	
 	@Nullable
@@ -106,6 +140,11 @@ public class LocalRegionData {
 		return null;
 	}
 
+	private void markEntryDirty(String key) {
+		this.dirtyEntries.add(key);
+		this.dirty = true;
+	}
+
 	/**
 	 * Returns whether the data is dirty
 	 * @return
@@ -115,17 +154,68 @@ public class LocalRegionData {
 	}
 	
 	/**
-	 * Tries to read the region from a file and if it doesn't exist a new region is created
+	 * Returns whether regions are saved as append-only logs instead of a single NBT file
+	 * @return
+	 */
+	public static boolean useLogFormat() {
+		return BetweenlandsConfig.PERFORMANCE.localStorageLogRegions;
+	}
+
+	/**
+	 * Tries to read the region from a file and if it doesn't exist a new region is created.
+	 * If the region was saved in the format that is currently not in use it is converted.
 	 * @param cache
 	 * @param dir
 	 * @param region
 	 * @return
 	 */
 	public static LocalRegionData getOrCreateRegion(LocalRegionCache cache, File dir, LocalRegion region) {
-		NBTTagCompound regionNbt = null;
-		File file = new File(dir, region.getFileName() + ".dat");
+		boolean useLog = useLogFormat();
+
+		File file = getRegionFile(dir, region.getFileName(), useLog);
+		File otherFormatFile = getRegionFile(dir, region.getFileName(), !useLog);
+
+		LocalRegionLog.Contents contents = readRegionFile(cache, file, useLog);
+
+		boolean converted = false;
+		if(contents == null && otherFormatFile.exists()) {
+			contents = readRegionFile(cache, otherFormatFile, !useLog);
+			converted = contents != null;
+		}
+
+		LocalRegionData data = new LocalRegionData(cache, region.getFileName(), contents != null ? contents.getNbt() : new NBTTagCompound());
+
+		if(contents != null) {
+			if(converted || !contents.isComplete()) {
+				//Region must be written in its entirety the next time it is saved
+				data.fullSave = true;
+				data.dirty = true;
+			} else {
+				data.logRecords = contents.getRecords();
+			}
+		}
+
+		if(otherFormatFile.exists()) {
+			data.obsoleteFile = otherFormatFile;
+		}
+
+		return data;
+	}
+
+	private static File getRegionFile(File dir, String id, boolean log) {
+		return new File(dir, id + (log ? LocalRegionLog.EXTENSION : ".dat"));
+	}
+
+	@Nullable
+	private static LocalRegionLog.Contents readRegionFile(LocalRegionCache cache, File file, boolean log) {
+		LocalStorageSaveHandler saveHandler = cache.getLocalStorageHandler().getSaveHandler();
 		try {
-			regionNbt = cache.getLocalStorageHandler().getSaveHandler().loadFileNbt(file);
+			if(log) {
+				return saveHandler.loadRegionLog(file);
+			} else {
+				NBTTagCompound regionNbt = saveHandler.loadFileNbt(file);
+				return regionNbt != null ? new LocalRegionLog.Contents(regionNbt, 0, true) : null;
+			}
 		} catch(Exception ex) {
 			TheBetweenlands.logger.error("Failed loading local region cache", ex);
 			File backup = new File(file.getAbsolutePath() + ".backup");
@@ -138,25 +228,51 @@ public class LocalRegionData {
 			try {
 				file.delete();
 			} catch(Exception e) {}
-			regionNbt = null;
-		}
-		if(regionNbt == null) {
-			regionNbt = new NBTTagCompound();
 		}
-		return new LocalRegionData(cache, region.getFileName(), regionNbt);
+		return null;
 	}
 
 	/**
-	 * Saves the region to a file
+	 * Saves the region to a file. If the log format is used only the entries
+	 * that have changed since the last save are written
 	 * @param dir
 	 */
 	public void saveRegion(File dir) {
 		if(this.nbt.getSize() > 0) {
-			File file = new File(dir, this.getID() + ".dat");
-			this.cache.getLocalStorageHandler().getSaveHandler().queueRegion(file, this.nbt.copy());
+			LocalStorageSaveHandler saveHandler = this.cache.getLocalStorageHandler().getSaveHandler();
+
+			if(useLogFormat()) {
+				File file = getRegionFile(dir, this.getID(), true);
+
+				Map<String, NBTTagCompound> records = new LinkedHashMap<>();
+				if(this.fullSave) {
+					for(String key : this.nbt.getKeySet()) {
+						records.put(key, this.nbt.getCompoundTag(key).copy());
+					}
+					this.logRecords = records.size();
+				} else {
+					for(String key : this.dirtyEntries) {
+						records.put(key, this.nbt.hasKey(key, Constants.NBT.TAG_COMPOUND) ? this.nbt.getCompoundTag(key).copy() : null);
+					}
+					this.logRecords += records.size();
+				}
+
+				boolean compact = this.logRecords > LOG_COMPACTION_MIN_RECORDS && this.logRecords > this.nbt.getSize() * LOG_COMPACTION_RATIO;
+				if(compact) {
+					this.logRecords = this.nbt.getSize();
+				}
+
+				saveHandler.queueRegionLog(file, records, this.fullSave, compact, this.obsoleteFile);
+			} else {
+				saveHandler.queueRegion(getRegionFile(dir, this.getID(), false), this.nbt.copy(), this.obsoleteFile);
+			}
+
+			this.obsoleteFile = null;
+			this.fullSave = false;
 		} else {
 			this.deleteRegionFile(dir);
 		}
+		this.dirtyEntries.clear();
 		this.dirty = false;
 	}
 
@@ -165,7 +281,13 @@ public class LocalRegionData {
 	 * @param dir
 	 */
 	public void deleteRegionFile(File dir) {
-		File file = new File(dir, this.getID() + ".dat");
-		this.cache.getLocalStorageHandler().getSaveHandler().queueRegion(file, null);
+		LocalStorageSaveHandler saveHandler = this.cache.getLocalStorageHandler().getSaveHandler();
+		if(useLogFormat()) {
+			saveHandler.queueRegionLog(getRegionFile(dir, this.getID(), true), Collections.emptyMap(), true, false, this.obsoleteFile);
+			this.logRecords = 0;
+		} else {
+			saveHandler.queueRegion(getRegionFile(dir, this.getID(), false), null, this.obsoleteFile);
+		}
+		this.obsoleteFile = null;
 	}
 }
@@ -0,0 +1,265 @@
+package thebetweenlands.common.world.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.io.FileUtils;
+
+import com.google.common.io.CountingInputStream;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import thebetweenlands.common.TheBetweenlands;
+
+/**
+ * Append-only log file format for local regions. Each record either sets or removes
+ * one entry (a local storage or the data of a chunk) of the region, so saving a region
+ * only needs to write the entries that have changed. Reading the log replays all records
+ * in order. The log is compacted by rewriting it with one record per remaining entry.
+ */
+public final class LocalRegionLog {
+	public static final String EXTENSION = ".log";
+
+	private static final int MAGIC = 0x424C524C;
+	private static final int VERSION = 1;
+
+	private static final byte RECORD_SET = 0;
+	private static final byte RECORD_REMOVE = 1;
+
+	private LocalRegionLog() { }
+
+	public static class Contents {
+		private final NBTTagCompound nbt;
+		private final int records;
+		private final boolean complete;
+
+		public Contents(NBTTagCompound nbt, int records, boolean complete) {
+			this.nbt = nbt;
+			this.records = records;
+			this.complete = complete;
+		}
+
+		/**
+		 * Returns the region NBT
+		 * @return
+		 */
+		public NBTTagCompound getNbt() {
+			return this.nbt;
+		}
+
+		/**
+		 * Returns the number of records in the log
+		 * @return
+		 */
+		public int getRecords() {
+			return this.records;
+		}
+
+		/**
+		 * Returns whether the log was read completely. If false the log
+		 * contains a damaged record, a backup of the log was created and
+		 * the log must be rewritten before appending to it
+		 * @return
+		 */
+		public boolean isComplete() {
+			return this.complete;
+		}
+	}
+
+	/**
+	 * Reads and replays the log
+	 * @param file
+	 * @return The region contents or null if the file does not exist
+	 * @throws IOException
+	 */
+	@Nullable
+	public static Contents read(File file) throws IOException {
+		if(!file.exists()) {
+			return null;
+		}
+
+		NBTTagCompound nbt = new NBTTagCompound();
+		int records = 0;
+		boolean complete = true;
+
+		long fileLength = file.length();
+
+		try(CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+				DataInputStream in = new DataInputStream(counter)) {
+			if(in.readInt() != MAGIC) {
+				throw new IOException("Invalid local region log: " + file.getAbsolutePath());
+			}
+
+			int version = in.readInt();
+			if(version != VERSION) {
+				throw new IOException(String.format("Unsupported local region log version %d: %s", version, file.getAbsolutePath()));
+			}
+
+			while(true) {
+				int type = in.read();
+				if(type < 0) {
+					break;
+				}
+
+				boolean damagedTail = false;
+
+				try {
+					String key = in.readUTF();
+
+					if(type == RECORD_SET) {
+						int length = in.readInt();
+						if(length < 0 || length > fileLength - counter.getCount()) {
+							//Length is garbage, so the rest of the log can't be read either
+							damagedTail = true;
+							throw new IOException(String.format("Invalid record length %d in local region log: %s", length, file.getAbsolutePath()));
+						}
+						byte[] data = new byte[length];
+						in.readFully(data);
+						nbt.setTag(key, CompressedStreamTools.readCompressed(new ByteArrayInputStream(data)));
+					} else if(type == RECORD_REMOVE) {
+						nbt.removeTag(key);
+					} else {
+						throw new IOException(String.format("Invalid record type %d in local region log: %s", type, file.getAbsolutePath()));
+					}
+
+					records++;
+				} catch(IOException ex) {
+					//Record was not fully or correctly written, e.g. due to a crash. This can't be told apart from
+					//damage in the middle of the log, so everything from here on is discarded
+					if(damagedTail || ex instanceof EOFException || counter.getCount() >= fileLength) {
+						TheBetweenlands.logger.warn(String.format("Discarding damaged record %d and all following records of local region log %s", records, file.getAbsolutePath()), ex);
+						complete = false;
+						break;
+					}
+					throw ex;
+				}
+			}
+		}
+
+		if(!complete) {
+			//The log is rewritten without the discarded records, so a copy is kept in case they can be recovered
+			File backup = new File(file.getAbsolutePath() + ".damaged");
+			try {
+				FileUtils.copyFile(file, backup);
+				TheBetweenlands.logger.info(String.format("Created a backup of damaged local region log at %s", backup.getAbsolutePath()));
+			} catch(IOException ex) {
+				TheBetweenlands.logger.error("Failed creating backup of damaged local region log", ex);
+			}
+		}
+
+		return new Contents(nbt, records, complete);
+	}
+
+	/**
+	 * Writes the records to the log
+	 * @param file
+	 * @param truncate Whether the previous records should be discarded
+	 * @param records The records to write. A null value removes the entry
+	 * @throws IOException
+	 */
+	public static void write(File file, boolean truncate, Map<String, NBTTagCompound> records) throws IOException {
+		file.getParentFile().mkdirs();
+
+		if(truncate || !file.exists()) {
+			File tempFile = new File(file.getAbsolutePath() + "_tmp");
+
+			try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				writeRecords(out, records);
+			}
+
+			if(file.exists()) {
+				file.delete();
+			}
+
+			if(!tempFile.renameTo(file)) {
+				throw new IOException(String.format("Failed renaming %s to %s", tempFile, file));
+			}
+		} else {
+			//Records are serialized first so that a serialization failure doesn't leave a partial record behind
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			try(DataOutputStream out = new DataOutputStream(buffer)) {
+				writeRecords(out, records);
+			}
+
+			try(FileOutputStream out = new FileOutputStream(file, true)) {
+				buffer.writeTo(out);
+			}
+		}
+	}
+
+	/**
+	 * Rewrites the log so that it only contains one record per entry
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void compact(File file) throws IOException {
+		Contents contents = read(file);
+
+		if(contents != null) {
+			Map<String, NBTTagCompound> records = new LinkedHashMap<>();
+			for(String key : contents.getNbt().getKeySet()) {
+				records.put(key, contents.getNbt().getCompoundTag(key));
+			}
+			write(file, true, records);
+		}
+	}
+
+	/**
+	 * Rewrites the log with the records that can still be read and the specified records,
+	 * e.g. after a failed append that may have left a partial record behind
+	 * @param file
+	 * @param records The records to write. A null value removes the entry
+	 * @throws IOException
+	 */
+	public static void repair(File file, Map<String, NBTTagCompound> records) throws IOException {
+		Contents contents = read(file);
+
+		NBTTagCompound nbt = contents != null ? contents.getNbt() : new NBTTagCompound();
+		for(Entry<String, NBTTagCompound> record : records.entrySet()) {
+			if(record.getValue() != null) {
+				nbt.setTag(record.getKey(), record.getValue());
+			} else {
+				nbt.removeTag(record.getKey());
+			}
+		}
+
+		Map<String, NBTTagCompound> repairedRecords = new LinkedHashMap<>();
+		for(String key : nbt.getKeySet()) {
+			repairedRecords.put(key, nbt.getCompoundTag(key));
+		}
+		write(file, true, repairedRecords);
+	}
+
+	private static void writeRecords(DataOutputStream out, Map<String, NBTTagCompound> records) throws IOException {
+		for(Entry<String, NBTTagCompound> record : records.entrySet()) {
+			if(record.getValue() != null) {
+				ByteArrayOutputStream data = new ByteArrayOutputStream();
+				CompressedStreamTools.writeCompressed(record.getValue(), data);
+
+				out.writeByte(RECORD_SET);
+				out.writeUTF(record.getKey());
+				out.writeInt(data.size());
+				data.writeTo(out);
+			} else {
+				out.writeByte(RECORD_REMOVE);
+				out.writeUTF(record.getKey());
+			}
+		}
+	}
+}
@@ -1,15 +1,28 @@
 package thebetweenlands.common.world.storage;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
 import thebetweenlands.api.storage.ILocalStorage;
 import thebetweenlands.api.storage.ILocalStorageHandle;
 import thebetweenlands.api.storage.LocalStorageReference;
 
 public class LocalStorageHandleImpl implements ILocalStorageHandle {
-	private final ILocalStorage storage;
-	private final LocalStorageReference handleRef;
+	private final LocalStorageReference reference;
+	private ILocalStorage storage;
+	private LocalStorageReference handleRef;
+
+	private boolean pending;
+	private boolean closed;
+	private List<Consumer<ILocalStorageHandle>> callbacks;
 
 	public LocalStorageHandleImpl(ILocalStorage storage, LocalStorageReference reference) {
+		this.reference = reference;
 		this.storage = storage;
+		this.pending = false;
 
 		if(!this.storage.getWorldStorage().getWorld().isRemote) {
 			this.handleRef = new LocalStorageReference(this, reference.getID(), reference.getRegion());
@@ -19,13 +32,77 @@ public class LocalStorageHandleImpl implements ILocalStorageHandle {
 		}
 	}
 
+	/**
+	 * Creates a pending handle whose local storage is still being loaded.
+	 * The handle is resolved by {@link #resolve(ILocalStorage)} once the local storage has arrived
+	 * @param reference
+	 */
+	LocalStorageHandleImpl(LocalStorageReference reference) {
+		this.reference = reference;
+		this.storage = null;
+		this.handleRef = null;
+		this.pending = true;
+	}
+
+	/**
+	 * Sets the local storage of a pending handle and runs the callbacks
+	 * @param storage The local storage or null if it failed to load
+	 */
+	void resolve(@Nullable ILocalStorage storage) {
+		if(!this.pending) {
+			return;
+		}
+
+		this.pending = false;
+
+		if(!this.closed) {
+			this.storage = storage;
+
+			if(storage != null) {
+				this.handleRef = new LocalStorageReference(this, this.reference.getID(), this.reference.getRegion());
+				storage.loadReference(this.handleRef);
+			}
+
+			if(this.callbacks != null) {
+				for(Consumer<ILocalStorageHandle> callback : this.callbacks) {
+					callback.accept(this);
+				}
+				this.callbacks = null;
+			}
+		}
+	}
+
 	@Override
 	public ILocalStorage get() {
 		return this.storage;
 	}
 
+	@Override
+	public boolean isPending() {
+		return this.pending;
+	}
+
+	@Override
+	public void onLoaded(Consumer<ILocalStorageHandle> callback) {
+		if(this.pending) {
+			if(this.callbacks == null) {
+				this.callbacks = new ArrayList<>(1);
+			}
+			this.callbacks.add(callback);
+		} else if(!this.closed) {
+			callback.accept(this);
+		}
+	}
+
 	@Override
 	public void close() {
+		if(this.closed) {
+			return;
+		}
+
+		this.closed = true;
+		this.callbacks = null;
+
 		if(this.handleRef != null) {
 			this.storage.unloadReference(this.handleRef);
 
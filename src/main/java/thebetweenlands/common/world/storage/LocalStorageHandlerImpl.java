@@ -8,18 +8,25 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
 
 import com.google.common.base.Predicate;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.ITickable;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
@@ -36,10 +43,18 @@ import thebetweenlands.api.storage.LocalRegion;
 import thebetweenlands.api.storage.LocalStorageReference;
 import thebetweenlands.api.storage.StorageID;
 import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.config.BetweenlandsConfig;
 import thebetweenlands.common.network.clientbound.MessageSyncLocalStorageData;
 import thebetweenlands.common.registries.StorageRegistry;
+import thebetweenlands.common.world.storage.location.LocationStorage;
 
 public class LocalStorageHandlerImpl implements ILocalStorageHandler {
+	//Size of a region in blocks, see LocalRegion
+	private static final int REGION_SIZE = 512;
+
+	//Distance in blocks to a region border at which neighbouring regions are prefetched
+	private static final int REGION_PREFETCH_DISTANCE = 160;
+
 	private final IWorldStorage worldStorage;
 	private final World world;
 	private final File localStorageDir;
@@ -48,10 +63,36 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 	private final List<ILocalStorage> tickableLocalStorage = new ArrayList<>();
 	private final List<ILocalStorage> pendingUnreferencedStorages = new ArrayList<>();
 
+	//Spatial index of all loaded local storages by their linked chunks
+	private final Long2ObjectMap<List<ILocalStorage>> storageIndex = new Long2ObjectOpenHashMap<>();
+	private final Map<StorageID, long[]> indexedChunks = new HashMap<>();
+
+	//Guarded locations of the most recently queried chunk
+	private final List<LocationStorage> guardedLocationsCache = new ArrayList<>();
+	private long guardedLocationsCacheChunk;
+	private boolean guardedLocationsCacheValid = false;
+
 	private final LocalRegionCache regionCache;
 
 	private final LocalStorageSaveHandler saveHandler = new LocalStorageSaveHandler();
 
+	//Local storages that are being read in the background, see getOrLoadLocalStorageAsync
+	private final Map<StorageID, PendingLoad> pendingLoads = new HashMap<>();
+
+	private static class PendingLoad {
+		private final LocalStorageReference reference;
+		private final CompletableFuture<?> future;
+		private final List<LocalStorageHandleImpl> handles = new ArrayList<>();
+
+		//Set if the local storage was loaded by other means in the meantime, which makes the read data outdated
+		private boolean stale;
+
+		private PendingLoad(LocalStorageReference reference, CompletableFuture<?> future) {
+			this.reference = reference;
+			this.future = future;
+		}
+	}
+
 	public LocalStorageHandlerImpl(IWorldStorage worldStorage) {
 		this.worldStorage = worldStorage;
 		this.world = worldStorage.getWorld();
@@ -73,6 +114,12 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 	protected boolean addLocalStorageInternal(ILocalStorage storage, boolean isInitialAdd) {
 		if(!this.localStorage.containsKey(storage.getID())) {
 			this.localStorage.put(storage.getID(), storage);
+			this.indexLocalStorage(storage);
+
+			PendingLoad pendingLoad = this.pendingLoads.get(storage.getID());
+			if(pendingLoad != null) {
+				pendingLoad.stale = true;
+			}
 
 			if(storage instanceof ITickable) {
 				this.tickableLocalStorage.add(storage);
@@ -126,6 +173,7 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 			}
 
 			this.localStorage.remove(storage.getID());
+			this.unindexLocalStorage(storage);
 
 			Iterator<ILocalStorage> tickableIt = this.tickableLocalStorage.iterator();
 			while(tickableIt.hasNext()) {
@@ -167,16 +215,13 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 		List<T> storages = new ArrayList<>();
 		int cx = MathHelper.floor(x) >> 4;
 		int cz = MathHelper.floor(z) >> 4;
-		Chunk chunk = this.world.getChunk(cx, cz);
-		IChunkStorage chunkStorage = this.getWorldStorage().getChunkStorage(chunk);
-		if(chunkStorage != null) {
-			for(LocalStorageReference ref : chunkStorage.getLocalStorageReferences()) {
-				ILocalStorage localStorage = this.getLocalStorage(ref.getID());
-				if(localStorage != null && localStorage.getBoundingBox() != null && type.isAssignableFrom(localStorage.getClass())
+		List<ILocalStorage> bucket = this.getIndexedLocalStorages(cx, cz);
+		if(bucket != null) {
+			for(int i = 0; i < bucket.size(); i++) {
+				ILocalStorage localStorage = bucket.get(i);
+				if(localStorage.getBoundingBox() != null && type.isAssignableFrom(localStorage.getClass())
 						&& (filter == null || filter.apply((T) localStorage))) {
-					if(!storages.contains(localStorage)) {
-						storages.add((T) localStorage);
-					}
+					storages.add((T) localStorage);
 				}
 			}
 		}
@@ -191,18 +236,17 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 		int sz = MathHelper.floor(aabb.minZ) >> 4;
 		int ex = MathHelper.floor(aabb.maxX) >> 4;
 		int ez = MathHelper.floor(aabb.maxZ) >> 4;
+		//Storages linked to multiple chunks are found more than once if the AABB spans multiple chunks
+		ReferenceOpenHashSet<ILocalStorage> visited = sx != ex || sz != ez ? new ReferenceOpenHashSet<>() : null;
 		for(int cx = sx; cx <= ex; cx++) {
 			for(int cz = sz; cz <= ez; cz++) {
-				Chunk chunk = this.world.getChunk(cx, cz);
-				IChunkStorage chunkStorage = this.getWorldStorage().getChunkStorage(chunk);
-				if(chunkStorage != null) {
-					for(LocalStorageReference ref : chunkStorage.getLocalStorageReferences()) {
-						ILocalStorage localStorage = this.getLocalStorage(ref.getID());
-						if(localStorage != null && localStorage.getBoundingBox() != null && type.isAssignableFrom(localStorage.getClass()) && localStorage.getBoundingBox().intersects(aabb)
+				List<ILocalStorage> bucket = this.getIndexedLocalStorages(cx, cz);
+				if(bucket != null) {
+					for(int i = 0; i < bucket.size(); i++) {
+						ILocalStorage localStorage = bucket.get(i);
+						if((visited == null || visited.add(localStorage)) && localStorage.getBoundingBox() != null && type.isAssignableFrom(localStorage.getClass()) && localStorage.getBoundingBox().intersects(aabb)
 								&& (filter == null || filter.apply((T) localStorage))) {
-							if(!storages.contains(localStorage)) {
-								storages.add((T) localStorage);
-							}
+							storages.add((T) localStorage);
 						}
 					}
 				}
@@ -211,6 +255,104 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 		return storages;
 	}
 
+	/**
+	 * Returns the loaded local storages that are linked to the specified chunk. If the chunk is
+	 * not yet loaded it is loaded first so that its local storages are loaded and indexed.
+	 * @param cx
+	 * @param cz
+	 * @return
+	 */
+	@Nullable
+	private List<ILocalStorage> getIndexedLocalStorages(int cx, int cz) {
+		if(!this.world.isRemote && this.world.getChunkProvider().getLoadedChunk(cx, cz) == null) {
+			this.world.getChunk(cx, cz);
+		}
+		return this.storageIndex.get(ChunkPos.asLong(cx, cz));
+	}
+
+	@Override
+	public boolean isAnyGuarded(World world, @Nullable Entity entity, BlockPos pos) {
+		List<LocationStorage> guardedLocations = this.getGuardedLocations(pos.getX() >> 4, pos.getZ() >> 4);
+		for(int i = 0; i < guardedLocations.size(); i++) {
+			LocationStorage location = guardedLocations.get(i);
+			if(location.isInside(pos) && location.getGuard().isGuarded(world, entity, pos)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns all loaded locations with a guard that are linked to the specified chunk.
+	 * The returned list is reused and only valid until the next query.
+	 * @param cx
+	 * @param cz
+	 * @return
+	 */
+	private List<LocationStorage> getGuardedLocations(int cx, int cz) {
+		long chunk = ChunkPos.asLong(cx, cz);
+		if(!this.guardedLocationsCacheValid || this.guardedLocationsCacheChunk != chunk) {
+			List<ILocalStorage> bucket = this.getIndexedLocalStorages(cx, cz);
+
+			//Loading the chunk may have changed the index and invalidated the cache
+			this.guardedLocationsCache.clear();
+			this.guardedLocationsCacheChunk = chunk;
+			this.guardedLocationsCacheValid = true;
+
+			if(bucket != null) {
+				for(int i = 0; i < bucket.size(); i++) {
+					ILocalStorage localStorage = bucket.get(i);
+					if(localStorage instanceof LocationStorage && ((LocationStorage) localStorage).getGuard() != null) {
+						this.guardedLocationsCache.add((LocationStorage) localStorage);
+					}
+				}
+			}
+		}
+		return this.guardedLocationsCache;
+	}
+
+	@Override
+	public void updateLocalStorageIndex(ILocalStorage storage) {
+		if(this.localStorage.get(storage.getID()) == storage) {
+			this.unindexLocalStorage(storage);
+			this.indexLocalStorage(storage);
+		}
+	}
+
+	private void indexLocalStorage(ILocalStorage storage) {
+		this.guardedLocationsCacheValid = false;
+		List<ChunkPos> linkedChunks = storage.getLinkedChunks();
+		long[] keys = new long[linkedChunks.size()];
+		for(int i = 0; i < keys.length; i++) {
+			ChunkPos chunk = linkedChunks.get(i);
+			long key = keys[i] = ChunkPos.asLong(chunk.x, chunk.z);
+			List<ILocalStorage> bucket = this.storageIndex.get(key);
+			if(bucket == null) {
+				this.storageIndex.put(key, bucket = new ArrayList<>(2));
+			}
+			if(!bucket.contains(storage)) {
+				bucket.add(storage);
+			}
+		}
+		this.indexedChunks.put(storage.getID(), keys);
+	}
+
+	private void unindexLocalStorage(ILocalStorage storage) {
+		this.guardedLocationsCacheValid = false;
+		long[] keys = this.indexedChunks.remove(storage.getID());
+		if(keys != null) {
+			for(long key : keys) {
+				List<ILocalStorage> bucket = this.storageIndex.get(key);
+				if(bucket != null) {
+					bucket.remove(storage);
+					if(bucket.isEmpty()) {
+						this.storageIndex.remove(key);
+					}
+				}
+			}
+		}
+	}
+
 	@Override
 	public void deleteLocalStorageFile(ILocalStorage storage) {
 		if(storage.getRegion() == null) {
@@ -238,9 +380,14 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 
 	@Nullable
 	private ILocalStorage loadLocalStorageUnsafe(LocalStorageReference reference) {
+		return this.loadLocalStorageUnsafe(reference, null);
+	}
+
+	@Nullable
+	private ILocalStorage loadLocalStorageUnsafe(LocalStorageReference reference, @Nullable NBTTagCompound preloadedNbt) {
 		if(!this.world.isRemote) {
 			try {
-				ILocalStorage storage = this.createLocalStorageFromFile(reference);
+				ILocalStorage storage = preloadedNbt != null ? this.createLocalStorageFromNBT(preloadedNbt, null) : this.createLocalStorageFromFile(reference);
 				if(storage != null) {
 					this.addLocalStorageInternal(storage, false);
 
@@ -279,6 +426,97 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 		return null;
 	}
 
+	@Override
+	public ILocalStorageHandle getOrLoadLocalStorageAsync(LocalStorageReference reference) {
+		ILocalStorage storage = this.getLocalStorage(reference.getID());
+
+		if(storage != null) {
+			return new LocalStorageHandleImpl(storage, reference);
+		}
+
+		if(this.world.isRemote) {
+			return null;
+		}
+
+		PendingLoad pendingLoad = this.pendingLoads.get(reference.getID());
+
+		if(pendingLoad == null) {
+			CompletableFuture<?> future;
+
+			if(reference.hasRegion()) {
+				future = this.regionCache.prefetchRegion(reference.getRegion());
+
+				if(future == null) {
+					//Region is already cached, nothing to read
+					return this.getOrLoadLocalStorage(reference);
+				}
+			} else {
+				File file = new File(this.getLocalStorageDirectory(), reference.getID().getStringID() + ".dat");
+				future = this.saveHandler.supplyAsync(() -> {
+					try {
+						return this.saveHandler.loadFileNbt(file);
+					} catch(Exception ex) {
+						TheBetweenlands.logger.error(String.format("Failed reading local storage %s from file: %s", reference.getID().getStringID(), file.getAbsolutePath()), ex);
+						return null;
+					}
+				});
+			}
+
+			this.pendingLoads.put(reference.getID(), pendingLoad = new PendingLoad(reference, future));
+		}
+
+		LocalStorageHandleImpl handle = new LocalStorageHandleImpl(reference);
+		pendingLoad.handles.add(handle);
+		return handle;
+	}
+
+	/**
+	 * Adds the local storages whose files have been read in the background
+	 * and resolves their pending handles
+	 */
+	private void completePendingLoads() {
+		List<PendingLoad> completedLoads = null;
+
+		Iterator<PendingLoad> it = this.pendingLoads.values().iterator();
+		while(it.hasNext()) {
+			PendingLoad pendingLoad = it.next();
+			if(pendingLoad.future.isDone()) {
+				if(completedLoads == null) {
+					completedLoads = new ArrayList<>();
+				}
+				completedLoads.add(pendingLoad);
+				it.remove();
+			}
+		}
+
+		if(completedLoads != null) {
+			for(PendingLoad pendingLoad : completedLoads) {
+				ILocalStorage storage = this.getLocalStorage(pendingLoad.reference.getID());
+
+				if(storage == null) {
+					if(pendingLoad.stale || pendingLoad.reference.hasRegion()) {
+						//Regions are taken from the prefetched regions of the region cache
+						storage = this.loadLocalStorageUnsafe(pendingLoad.reference);
+					} else {
+						NBTTagCompound nbt = (NBTTagCompound) pendingLoad.future.getNow(null);
+						if(nbt != null) {
+							storage = this.loadLocalStorageUnsafe(pendingLoad.reference, nbt);
+						}
+					}
+				}
+
+				for(LocalStorageHandleImpl handle : pendingLoad.handles) {
+					handle.resolve(storage);
+				}
+
+				if(storage != null && storage.getLoadedReferences().isEmpty()) {
+					//All handles were closed before the local storage arrived
+					this.unloadLocalStorage(storage);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Creates an instance of the local storage specified by the reference
 	 * @param reference
@@ -316,6 +554,7 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 			}
 
 			this.localStorage.remove(storage.getID());
+			this.unindexLocalStorage(storage);
 
 			Iterator<ILocalStorage> tickableIt = this.tickableLocalStorage.iterator();
 			while(tickableIt.hasNext()) {
@@ -336,15 +575,9 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 			storage.onUnloaded();
 
 			if(!this.world.isRemote && storage.getRegion() != null) {
+				//Unreferenced regions are saved and removed by the region cache once unused for a while
 				LocalRegionData data = this.regionCache.getOrCreateRegion(storage.getRegion());
 				data.decrRefCounter();
-
-				if(!data.hasReferences()) {
-					if(data.isDirty()) {
-						data.saveRegion(this.regionCache.getDir());
-					}
-					this.regionCache.removeRegion(storage.getRegion());
-				}
 			}
 
 			return true;
@@ -373,14 +606,26 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 				dataManager.update();
 				if(dataManager.isDirty()) {
 					MessageSyncLocalStorageData message = new MessageSyncLocalStorageData(localStorage, false);
-					for (EntityPlayerMP watcher : localStorage.getWatchers()) {
-						TheBetweenlands.networkWrapper.sendTo(message, watcher);
+					if(!localStorage.getWatchers().isEmpty()) {
+						//Serialized once and shared by all watchers
+						message.preserialize();
+						try {
+							for (EntityPlayerMP watcher : localStorage.getWatchers()) {
+								TheBetweenlands.networkWrapper.sendTo(message, watcher);
+							}
+						} finally {
+							message.release();
+						}
 					}
 				}
 			}
 		}
 
 		if(!this.world.isRemote) {
+			if(!this.pendingLoads.isEmpty()) {
+				this.completePendingLoads();
+			}
+
 			for(int i = 0; i < this.pendingUnreferencedStorages.size(); i++) {
 				ILocalStorage localStorage = this.pendingUnreferencedStorages.get(i);
 
@@ -390,10 +635,55 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 					this.unloadLocalStorage(localStorage);
 				}
 			}
+
+			if(this.world.getTotalWorldTime() % 20 == 0) {
+				if(BetweenlandsConfig.PERFORMANCE.localStorageRegionPrefetch) {
+					this.prefetchRegions();
+				}
+
+				this.regionCache.evictRegions();
+			}
 		}
 		this.pendingUnreferencedStorages.clear();
 	}
 
+	/**
+	 * Prefetches the regions that players are about to enter
+	 */
+	private void prefetchRegions() {
+		for(EntityPlayer player : this.world.playerEntities) {
+			int x = MathHelper.floor(player.posX);
+			int z = MathHelper.floor(player.posZ);
+
+			int dx = 0;
+			int dz = 0;
+
+			int rx = x & (REGION_SIZE - 1);
+			if(rx < REGION_PREFETCH_DISTANCE) {
+				dx = -1;
+			} else if(rx >= REGION_SIZE - REGION_PREFETCH_DISTANCE) {
+				dx = 1;
+			}
+
+			int rz = z & (REGION_SIZE - 1);
+			if(rz < REGION_PREFETCH_DISTANCE) {
+				dz = -1;
+			} else if(rz >= REGION_SIZE - REGION_PREFETCH_DISTANCE) {
+				dz = 1;
+			}
+
+			if(dx != 0) {
+				this.regionCache.prefetchRegion(LocalRegion.getFromBlockPos(x + dx * REGION_SIZE, z));
+			}
+			if(dz != 0) {
+				this.regionCache.prefetchRegion(LocalRegion.getFromBlockPos(x, z + dz * REGION_SIZE));
+			}
+			if(dx != 0 && dz != 0) {
+				this.regionCache.prefetchRegion(LocalRegion.getFromBlockPos(x + dx * REGION_SIZE, z + dz * REGION_SIZE));
+			}
+		}
+	}
+
 	@Override
 	public ILocalStorage createLocalStorageFromNBT(NBTTagCompound nbt, @Nullable LocalRegion region) {
 		ResourceLocation type = new ResourceLocation(nbt.getString("type"));
@@ -511,5 +801,8 @@ public class LocalStorageHandlerImpl implements ILocalStorageHandler {
 
 		//Save regional cache
 		this.regionCache.saveAllRegions();
+
+		//Retry the files that previously failed to be written
+		this.saveHandler.retryFailedWrites();
 	}
 }
@@ -29,6 +29,7 @@ import thebetweenlands.api.storage.LocalRegion;
 import thebetweenlands.api.storage.LocalStorageReference;
 import thebetweenlands.api.storage.StorageID;
 import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.network.MessageBase;
 import thebetweenlands.common.network.clientbound.MessageAddLocalStorage;
 import thebetweenlands.common.network.clientbound.MessageRemoveLocalStorage;
 import thebetweenlands.common.world.storage.operation.DeferredLinkOperation;
@@ -139,6 +140,7 @@ public abstract class LocalStorageImpl implements ILocalStorage {
 			NBTTagCompound referenceChunkNbt = referenceChunkList.getCompoundTagAt(i);
 			this.linkedChunks.add(new ChunkPos(referenceChunkNbt.getInteger("x"), referenceChunkNbt.getInteger("z")));
 		}
+		this.onLinkedChunksChanged();
 	}
 
 	@Override
@@ -171,6 +173,7 @@ public abstract class LocalStorageImpl implements ILocalStorage {
 	public void setLinkedChunks(List<ChunkPos> linkedChunks) {
 		this.linkedChunks.clear();
 		this.linkedChunks.addAll(linkedChunks);
+		this.onLinkedChunksChanged();
 	}
 
 	@Override
@@ -281,6 +284,7 @@ public abstract class LocalStorageImpl implements ILocalStorage {
 			this.setDirty(true);
 		}
 		this.linkedChunks.clear();
+		this.onLinkedChunksChanged();
 		return allUnlinked;
 	}
 
@@ -293,6 +297,7 @@ public abstract class LocalStorageImpl implements ILocalStorage {
 				if(this.linkedChunks.add(chunkPos)) {
 					//TODO Send packet
 					this.setDirty(true);
+					this.onLinkedChunksChanged();
 					return true;
 				}
 			}
@@ -304,6 +309,7 @@ public abstract class LocalStorageImpl implements ILocalStorage {
 	public void linkChunkDeferred(ChunkPos chunk) {
 		if(!this.linkedChunks.contains(chunk) && this.linkedChunks.add(chunk)) {
 			this.setDirty(true);
+			this.onLinkedChunksChanged();
 			this.worldStorage.getLocalStorageHandler().queueDeferredOperation(chunk, new DeferredLinkOperation(new LocalStorageReference(chunk, this.getID(), this.getRegion())));
 		}
 	}
@@ -318,6 +324,7 @@ public abstract class LocalStorageImpl implements ILocalStorage {
 				if(this.linkedChunks.remove(chunkPos)) {
 					//TODO Send packet
 					this.setDirty(true);
+					this.onLinkedChunksChanged();
 					return true;
 				}
 			}
@@ -325,12 +332,30 @@ public abstract class LocalStorageImpl implements ILocalStorage {
 		return false;
 	}
 
+	/**
+	 * Called when a chunk is linked or unlinked
+	 */
+	protected void onLinkedChunksChanged() {
+		this.worldStorage.getLocalStorageHandler().updateLocalStorageIndex(this);
+	}
+
 	/**
 	 * Sends the message to all watching players
 	 */
 	protected void sendMessageToAllWatchers(IMessage message) {
-		for (EntityPlayerMP watcher : this.getWatchers()) {
-			this.sendDataToPlayer(message, watcher);
+		boolean shared = message instanceof MessageBase && this.getWatchers().size() > 1;
+		if(shared) {
+			//Serialized once and shared by all watchers
+			((MessageBase) message).preserialize();
+		}
+		try {
+			for (EntityPlayerMP watcher : this.getWatchers()) {
+				this.sendDataToPlayer(message, watcher);
+			}
+		} finally {
+			if(shared) {
+				((MessageBase) message).release();
+			}
 		}
 	}
 
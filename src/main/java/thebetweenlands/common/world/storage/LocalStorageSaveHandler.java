@@ -3,48 +3,249 @@ package thebetweenlands.common.world.storage;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
 
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.world.storage.IThreadedFileIO;
-import net.minecraft.world.storage.ThreadedFileIOBase;
 import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.config.BetweenlandsConfig;
 
-public class LocalStorageSaveHandler implements IThreadedFileIO {
+public class LocalStorageSaveHandler {
 	private static final NBTTagCompound DELETE_NBT = new NBTTagCompound();
 
-	private final ConcurrentHashMap<File, NBTTagCompound> filesToSave = new ConcurrentHashMap<>();
+	private static final AtomicInteger IO_THREAD_ID = new AtomicInteger(0);
+
+	private static ExecutorService ioExecutor;
+
+	private final ConcurrentHashMap<File, PendingWrite> filesToSave = new ConcurrentHashMap<>();
 
 	private final Set<File> fileLocks = new HashSet<>();
 
+	private final Object flushLock = new Object();
+	private int runningWrites = 0;
+
+	private final AtomicLong writeCount = new AtomicLong();
+	private final AtomicLong totalFlushLatency = new AtomicLong();
+	private final AtomicLong maxFlushLatency = new AtomicLong();
+	private volatile long lastFlushLatency = 0;
+
+	private static class PendingWrite {
+		private final long queueTime;
+		@Nullable
+		private final File obsoleteFile;
+
+		//Full file
+		@Nullable
+		private final NBTTagCompound nbt;
+
+		//Region log
+		@Nullable
+		private final Map<String, NBTTagCompound> logRecords;
+		private final boolean truncateLog;
+		private final boolean compactLog;
+		//Whether the log must be rewritten because a previous append failed
+		private final boolean repairLog;
+
+		//Whether the write failed and is kept until it is retried
+		private final boolean failed;
+
+		private PendingWrite(long queueTime, NBTTagCompound nbt, @Nullable File obsoleteFile) {
+			this(queueTime, nbt, null, false, false, false, false, obsoleteFile);
+		}
+
+		private PendingWrite(long queueTime, Map<String, NBTTagCompound> logRecords, boolean truncateLog, boolean compactLog, @Nullable File obsoleteFile) {
+			this(queueTime, null, logRecords, truncateLog, compactLog, false, false, obsoleteFile);
+		}
+
+		private PendingWrite(long queueTime, @Nullable NBTTagCompound nbt, @Nullable Map<String, NBTTagCompound> logRecords, boolean truncateLog, boolean compactLog, boolean repairLog, boolean failed, @Nullable File obsoleteFile) {
+			this.queueTime = queueTime;
+			this.obsoleteFile = obsoleteFile;
+			this.nbt = nbt;
+			this.logRecords = logRecords;
+			this.truncateLog = truncateLog;
+			this.compactLog = compactLog;
+			this.repairLog = repairLog;
+			this.failed = failed;
+		}
+
+		/**
+		 * Returns a copy of this write that is kept queued after it has failed.
+		 * A failed append may have left a partial record behind, so the retry rewrites the log
+		 * @return
+		 */
+		private PendingWrite toFailed() {
+			boolean repairLog = this.repairLog || (this.logRecords != null && !this.truncateLog);
+			return new PendingWrite(this.queueTime, this.nbt, this.logRecords, this.truncateLog, this.compactLog, repairLog, true, this.obsoleteFile);
+		}
+
+		/**
+		 * Returns a copy of this failed write that is scheduled to be retried
+		 * @return
+		 */
+		private PendingWrite toRetry() {
+			return new PendingWrite(this.queueTime, this.nbt, this.logRecords, this.truncateLog, this.compactLog, this.repairLog, false, this.obsoleteFile);
+		}
+
+		/**
+		 * Merges the newer pending write into this one
+		 * @param newer
+		 * @return
+		 */
+		private PendingWrite merge(PendingWrite newer) {
+			File obsoleteFile = newer.obsoleteFile != null ? newer.obsoleteFile : this.obsoleteFile;
+			if(this.logRecords != null && newer.logRecords != null && !newer.truncateLog) {
+				//Newer records are appended to the still pending records
+				Map<String, NBTTagCompound> records = new LinkedHashMap<>(this.logRecords);
+				records.putAll(newer.logRecords);
+				return new PendingWrite(this.queueTime, null, records, this.truncateLog, this.compactLog || newer.compactLog, this.repairLog, false, obsoleteFile);
+			} else if(newer.logRecords != null) {
+				return new PendingWrite(this.queueTime, newer.logRecords, true, newer.compactLog, obsoleteFile);
+			}
+			return new PendingWrite(this.queueTime, newer.nbt, obsoleteFile);
+		}
+
+		private void write(File file) throws IOException {
+			if(this.logRecords != null) {
+				if(this.truncateLog && this.logRecords.isEmpty()) {
+					if(file.exists()) {
+						file.delete();
+					}
+				} else {
+					LocalRegionLog.write(file, this.truncateLog, this.logRecords);
+					if(this.compactLog) {
+						LocalRegionLog.compact(file);
+					}
+				}
+			} else if(this.nbt == DELETE_NBT) {
+				if(file.exists()) {
+					file.delete();
+				}
+			} else {
+				file.getParentFile().mkdirs();
+				CompressedStreamTools.safeWrite(this.nbt, file);
+			}
+		}
+	}
+
+	/**
+	 * Returns the executor that is shared by all save handlers to compress and write the files
+	 * @return
+	 */
+	private static synchronized ExecutorService getIOExecutor() {
+		if(ioExecutor == null) {
+			ioExecutor = Executors.newFixedThreadPool(BetweenlandsConfig.PERFORMANCE.localStorageIOThreads, r -> {
+				Thread thread = new Thread(r);
+				thread.setName("BL Local Storage I/O #" + IO_THREAD_ID.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return ioExecutor;
+	}
+
 	/**
-	 * Tries to queue the region to be saved by the file IO thread
+	 * Tries to queue the region to be saved by the file IO threads
 	 * @param regionFile The region file
 	 * @param regionNbtCopy A copy of the region NBT that is not changed anywhere else. Null if the file should be deleted
 	 * @return True if the task was queued
 	 */
 	public boolean queueRegion(File regionFile, @Nullable NBTTagCompound regionNbtCopy) {
-		this.filesToSave.put(regionFile, regionNbtCopy == null ? DELETE_NBT : regionNbtCopy);
-		ThreadedFileIOBase.getThreadedIOInstance().queueIO(this);
-		return true;
+		return this.queueRegion(regionFile, regionNbtCopy, null);
+	}
+
+	/**
+	 * Tries to queue the region to be saved by the file IO threads
+	 * @param regionFile The region file
+	 * @param regionNbtCopy A copy of the region NBT that is not changed anywhere else. Null if the file should be deleted
+	 * @param obsoleteFile A file that is deleted once the region was successfully written, e.g. the region in a different format
+	 * @return True if the task was queued
+	 */
+	public boolean queueRegion(File regionFile, @Nullable NBTTagCompound regionNbtCopy, @Nullable File obsoleteFile) {
+		return this.queue(regionFile, new PendingWrite(System.nanoTime(), regionNbtCopy == null ? DELETE_NBT : regionNbtCopy, obsoleteFile));
 	}
 
 	/**
-	 * Triers to queue the local storage to be saved by the file IO thread
+	 * Tries to queue records to be appended to the region log by the file IO threads.
+	 * Records of pending appends to the same log are merged.
+	 * @param logFile The region log file
+	 * @param records The records to append, copies that are not changed anywhere else. A null value removes the entry
+	 * @param truncate Whether the previous records should be discarded. If true and there are no records the log is deleted
+	 * @param compact Whether the log should be compacted after the records were appended
+	 * @param obsoleteFile A file that is deleted once the records were successfully written, e.g. the region in a different format
+	 * @return True if the task was queued
+	 */
+	public boolean queueRegionLog(File logFile, Map<String, NBTTagCompound> records, boolean truncate, boolean compact, @Nullable File obsoleteFile) {
+		return this.queue(logFile, new PendingWrite(System.nanoTime(), records, truncate, compact, obsoleteFile));
+	}
+
+	/**
+	 * Triers to queue the local storage to be saved by the file IO threads
 	 * @param storageFile The local storage file
 	 * @param storageNbtCopy A copy of the local storage NBT that is not changed anywhere else. Null if the file should ne deleted
 	 * @return True if the task was queued
 	 */
 	public boolean queueLocalStorage(File storageFile, @Nullable NBTTagCompound storageNbtCopy) {
-		this.filesToSave.put(storageFile, storageNbtCopy == null ? DELETE_NBT : storageNbtCopy);
-		ThreadedFileIOBase.getThreadedIOInstance().queueIO(this);
+		return this.queue(storageFile, new PendingWrite(System.nanoTime(), storageNbtCopy == null ? DELETE_NBT : storageNbtCopy, null));
+	}
+
+	private boolean queue(File file, PendingWrite write) {
+		//If a write of the file is already pending it is merged with the new write and the pending
+		//task writes the newest data. The original queue time is kept so that the latency isn't
+		//hidden by coalesced writes
+		boolean[] scheduled = new boolean[1];
+		this.filesToSave.merge(file, write, (previous, newer) -> {
+			//No task is scheduled for a failed write that is waiting to be retried
+			scheduled[0] = !previous.failed;
+			return previous.merge(newer);
+		});
+
+		if(!scheduled[0]) {
+			this.schedule(file);
+		}
+
 		return true;
 	}
 
+	private void schedule(File file) {
+		synchronized(this.flushLock) {
+			this.runningWrites++;
+		}
+		getIOExecutor().execute(() -> this.writeFile(file));
+	}
+
+	/**
+	 * Schedules the writes that have previously failed to be retried
+	 */
+	public void retryFailedWrites() {
+		for(Entry<File, PendingWrite> entry : this.filesToSave.entrySet()) {
+			PendingWrite write = entry.getValue();
+			if(write.failed && this.filesToSave.replace(entry.getKey(), write, write.toRetry())) {
+				this.schedule(entry.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Runs the specified task, e.g. reading a file, on the file IO threads
+	 * @param task
+	 * @return
+	 */
+	public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+		return CompletableFuture.supplyAsync(task, getIOExecutor());
+	}
+
 	private void lockFile(File file) throws InterruptedException {
 		synchronized(this.fileLocks) {
 			while(this.fileLocks.contains(file)) {
@@ -65,15 +266,17 @@ public class LocalStorageSaveHandler implements IThreadedFileIO {
 	 * Loads the specified file as NBT
 	 * @param file
 	 * @return
-	 * @throws IOException 
+	 * @throws IOException
 	 */
 	@Nullable
 	public NBTTagCompound loadFileNbt(File file) throws IOException {
-		final NBTTagCompound queuedNbt = this.filesToSave.get(file);
-		if(queuedNbt != null) {
-			return queuedNbt.copy();
+		final PendingWrite queuedWrite = this.filesToSave.get(file);
+		if(queuedWrite != null && queuedWrite.nbt != null) {
+			return queuedWrite.nbt == DELETE_NBT ? null : queuedWrite.nbt.copy();
 		} else {
 			try {
+				//Writes hold the lock from the moment they are taken off the queue,
+				//so this waits for any in-flight write of this file to finish
 				this.lockFile(file);
 				try {
 					return CompressedStreamTools.read(file);
@@ -87,43 +290,162 @@ public class LocalStorageSaveHandler implements IThreadedFileIO {
 		}
 	}
 
-	@Override
-	public boolean writeNextIO() {
-		if(!this.filesToSave.isEmpty()) {
-			final File file = this.filesToSave.keySet().iterator().next();
+	/**
+	 * Loads and replays the specified region log, including the records that are not yet written
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	@Nullable
+	public LocalRegionLog.Contents loadRegionLog(File file) throws IOException {
+		final PendingWrite queuedWrite = this.filesToSave.get(file);
 
-			final NBTTagCompound nbt = this.filesToSave.remove(file);
+		LocalRegionLog.Contents contents = null;
 
-			if(nbt != null) {
+		if(queuedWrite == null || !queuedWrite.truncateLog) {
+			try {
+				this.lockFile(file);
 				try {
-					this.lockFile(file);
+					contents = LocalRegionLog.read(file);
+				} finally {
+					this.unlockFile(file);
+				}
+			} catch(InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+
+		//Replaying the queued records is idempotent, so it doesn't matter whether they
+		//were already written while the log was being read
+		if(queuedWrite != null && queuedWrite.logRecords != null) {
+			if(contents == null) {
+				if(queuedWrite.logRecords.isEmpty()) {
+					return null;
+				}
+				contents = new LocalRegionLog.Contents(new NBTTagCompound(), 0, true);
+			}
+			for(Entry<String, NBTTagCompound> record : queuedWrite.logRecords.entrySet()) {
+				if(record.getValue() != null) {
+					contents.getNbt().setTag(record.getKey(), record.getValue().copy());
+				} else {
+					contents.getNbt().removeTag(record.getKey());
+				}
+			}
+		}
+
+		return contents;
+	}
+
+	private void writeFile(File file) {
+		File obsoleteFile = null;
+
+		try {
+			this.lockFile(file);
+			try {
+				final PendingWrite write = this.filesToSave.remove(file);
+
+				if(write != null) {
 					try {
-						if(nbt == DELETE_NBT) {
-							if(file.exists()) {
-								file.delete();
-							}
-						} else {
-							try {
-								file.getParentFile().mkdirs();
-								CompressedStreamTools.safeWrite(nbt, file);
-							} catch(Exception ex) {
-								TheBetweenlands.logger.error("Failed to save region or local storage: " + file.getAbsolutePath(), ex);
-							}
+						write.write(file);
+
+						if(write.obsoleteFile != null) {
+							obsoleteFile = write.obsoleteFile;
 						}
-					} finally {
-						this.unlockFile(file);
+					} catch(Exception ex) {
+						TheBetweenlands.logger.error("Failed to save region or local storage, retrying on next save: " + file.getAbsolutePath(), ex);
+
+						//The write is kept queued so that its data isn't lost and is still seen when the file is loaded.
+						//If the file was queued again in the meantime the newer write is merged into it and retries it
+						this.filesToSave.merge(file, write.toFailed(), (newer, failed) -> failed.merge(newer));
 					}
-				} catch(InterruptedException ex) {
-					Thread.currentThread().interrupt();
+
+					long latency = System.nanoTime() - write.queueTime;
+					this.lastFlushLatency = latency;
+					this.totalFlushLatency.addAndGet(latency);
+					this.maxFlushLatency.accumulateAndGet(latency, Math::max);
+					this.writeCount.incrementAndGet();
 				}
+			} finally {
+				this.unlockFile(file);
 			}
 
-			return true;
+			//Only locked after the written file was unlocked so that two files are never locked at once
+			if(obsoleteFile != null) {
+				this.lockFile(obsoleteFile);
+				try {
+					if(obsoleteFile.exists()) {
+						obsoleteFile.delete();
+					}
+				} finally {
+					this.unlockFile(obsoleteFile);
+				}
+			}
+		} catch(InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		} finally {
+			synchronized(this.flushLock) {
+				this.runningWrites--;
+				this.flushLock.notifyAll();
+			}
 		}
-		return false;
 	}
 
+	/**
+	 * Retries the failed writes once and blocks until all queued files have been written
+	 */
 	public void flush() {
-		while(this.writeNextIO());
+		this.retryFailedWrites();
+
+		synchronized(this.flushLock) {
+			try {
+				while(this.runningWrites > 0) {
+					this.flushLock.wait();
+				}
+			} catch(InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of files that are waiting to be written
+	 * @return
+	 */
+	public int getQueueDepth() {
+		return this.filesToSave.size();
+	}
+
+	/**
+	 * Returns the number of files that have been written so far
+	 * @return
+	 */
+	public long getWriteCount() {
+		return this.writeCount.get();
+	}
+
+	/**
+	 * Returns the time in nanoseconds between queuing and writing of the most recently written file
+	 * @return
+	 */
+	public long getLastFlushLatency() {
+		return this.lastFlushLatency;
+	}
+
+	/**
+	 * Returns the average time in nanoseconds between queuing and writing a file
+	 * @return
+	 */
+	public long getAverageFlushLatency() {
+		long count = this.writeCount.get();
+		return count > 0 ? this.totalFlushLatency.get() / count : 0;
+	}
+
+	/**
+	 * Returns the longest time in nanoseconds between queuing and writing a file
+	 * @return
+	 */
+	public long getMaxFlushLatency() {
+		return this.maxFlushLatency.get();
 	}
 }
@@ -1,8 +1,7 @@
 package thebetweenlands.common.world.storage.location;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.annotation.Nullable;
 
@@ -14,8 +13,8 @@ import net.minecraft.world.World;
 import thebetweenlands.api.storage.IWorldStorage;
 import thebetweenlands.api.storage.LocalRegion;
 import thebetweenlands.api.storage.StorageID;
+import thebetweenlands.common.network.clientbound.MessageBlockGuardChanges;
 import thebetweenlands.common.network.clientbound.MessageBlockGuardData;
-import thebetweenlands.common.network.clientbound.MessageBlockGuardSectionChange;
 import thebetweenlands.common.network.clientbound.MessageClearBlockGuard;
 import thebetweenlands.common.world.storage.location.guard.BlockLocationGuard;
 import thebetweenlands.common.world.storage.location.guard.BlockLocationGuard.GuardChunkSection;
@@ -27,7 +26,7 @@ public class LocationGuarded extends LocationStorage implements ITickable {
 			if(super.setGuarded(world, pos, guarded)) {
 				LocationGuarded.this.setDirty(true);
 				if(!LocationGuarded.this.getWatchers().isEmpty()) {
-					LocationGuarded.this.queuedChanges.add(new BlockPos(pos.getX() / 16, pos.getY() / 16, pos.getZ() / 16));
+					LocationGuarded.this.queueChange(pos);
 				}
 				return true;
 			}
@@ -45,7 +44,8 @@ public class LocationGuarded extends LocationStorage implements ITickable {
 		}
 	};
 
-	private Set<BlockPos> queuedChanges = new HashSet<>();
+	//Changed bytes of the guard data of each section, one bit per byte
+	private Map<BlockPos, long[]> queuedChanges = new HashMap<>();
 	private boolean queuedClear;
 
 	public LocationGuarded(IWorldStorage worldStorage, StorageID id, @Nullable LocalRegion region) {
@@ -81,30 +81,30 @@ public class LocationGuarded extends LocationStorage implements ITickable {
 		this.sendDataToPlayer(message, player);
 	}
 
+	private void queueChange(BlockPos pos) {
+		BlockPos sectionPos = new BlockPos(pos.getX() / 16, pos.getY() / 16, pos.getZ() / 16);
+		long[] mask = this.queuedChanges.get(sectionPos);
+		if(mask == null) {
+			this.queuedChanges.put(sectionPos, mask = new long[8]);
+		}
+		int byteIndex = GuardChunkSection.getByteIndex(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+		mask[byteIndex >> 6] |= 1L << (byteIndex & 63);
+	}
+
 	@Override
 	public void update() {
 		if(this.queuedClear) {
 			MessageClearBlockGuard message = new MessageClearBlockGuard(this); 
-			for(EntityPlayerMP watcher : this.getWatchers()) {
-				this.sendDataToPlayer(message, watcher);
-			}
+			this.sendMessageToAllWatchers(message);
 			this.queuedClear = false;
-		} else if(!this.queuedChanges.isEmpty()) {
-			if(this.getWatchers().isEmpty()) {
-				this.queuedChanges.clear();
-			} else {
-				Iterator<BlockPos> it = this.queuedChanges.iterator();
-				while(it.hasNext()) {
-					BlockPos pos = it.next();
-					BlockPos worldPos = new BlockPos(pos.getX() * 16, pos.getY() * 16, pos.getZ() * 16);
-					GuardChunkSection section = this.guard.getSection(worldPos);
-					MessageBlockGuardSectionChange message = new MessageBlockGuardSectionChange(this, worldPos, section); 
-					for(EntityPlayerMP watcher : this.getWatchers()) {
-						this.sendDataToPlayer(message, watcher);
-					}
-					it.remove();
-				}
+		}
+
+		if(!this.queuedChanges.isEmpty()) {
+			if(!this.getWatchers().isEmpty()) {
+				//All changes of this tick are sent in one message
+				this.sendMessageToAllWatchers(new MessageBlockGuardChanges(this, this.queuedChanges));
 			}
+			this.queuedChanges.clear();
 		}
 	}
-}
\ No newline at end of file
+}
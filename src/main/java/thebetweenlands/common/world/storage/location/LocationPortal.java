@@ -19,6 +19,8 @@ public class LocationPortal extends LocationStorage {
 	private BlockPos otherPortalPos;
 	private int otherPortalDimension;
 	private boolean targetDimensionSet;
+	private BlockPos cachedSitePos;
+	private int cachedSiteDimension;
 
 	public LocationPortal(IWorldStorage worldStorage, StorageID id, @Nullable LocalRegion region) {
 		super(worldStorage, id, region);
@@ -50,6 +52,12 @@ public class LocationPortal extends LocationStorage {
 			}
 		}
 		this.targetDimensionSet = nbt.getBoolean("TargetDimSet");
+		if(nbt.hasKey("CachedSitePos", Constants.NBT.TAG_LONG)) {
+			this.cachedSitePos = BlockPos.fromLong(nbt.getLong("CachedSitePos"));
+			this.cachedSiteDimension = nbt.getInteger("CachedSiteDimension");
+		} else {
+			this.cachedSitePos = null;
+		}
 	}
 
 	@Override
@@ -61,6 +69,10 @@ public class LocationPortal extends LocationStorage {
 		}
 		nbt.setInteger("OtherPortalDimension", this.otherPortalDimension);
 		nbt.setBoolean("TargetDimSet", this.targetDimensionSet);
+		if(this.cachedSitePos != null) {
+			nbt.setLong("CachedSitePos", this.cachedSitePos.toLong());
+			nbt.setInteger("CachedSiteDimension", this.cachedSiteDimension);
+		}
 		return nbt;
 	}
 
@@ -121,6 +133,28 @@ public class LocationPortal extends LocationStorage {
 		return this.targetDimensionSet;
 	}
 	
+	/**
+	 * Returns the site that was found in advance for the portal on the other side, if any
+	 * @param dim The dimension of the other side
+	 * @return
+	 */
+	@Nullable
+	public BlockPos getCachedSite(int dim) {
+		return this.cachedSitePos != null && this.cachedSiteDimension == dim ? this.cachedSitePos : null;
+	}
+
+	/**
+	 * Sets the site for the portal on the other side. The site is used when
+	 * the portal on the other side is generated
+	 * @param dim The dimension of the other side
+	 * @param pos The site position, or null to clear the site
+	 */
+	public void setCachedSite(int dim, @Nullable BlockPos pos) {
+		this.cachedSitePos = pos;
+		this.cachedSiteDimension = dim;
+		this.setDirty(true);
+	}
+
 	/**
 	 * Checks whether the portal is still valid and if not, removes the location 
 	 * @return True if the portal was invalid and removed
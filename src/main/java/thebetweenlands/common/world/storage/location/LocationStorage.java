@@ -402,8 +402,8 @@ public class LocationStorage extends LocalStorageImpl {
 	 * @return
 	 */
 	public boolean isInside(Vec3i pos) {
-		for(AxisAlignedBB boundingBox : this.boundingBoxes) {
-			if(this.isVecInsideOrEdge(boundingBox, new Vec3d(pos.getX(), pos.getY(), pos.getZ()))) {
+		for(int i = 0; i < this.boundingBoxes.size(); i++) {
+			if(this.isVecInsideOrEdge(this.boundingBoxes.get(i), pos.getX(), pos.getY(), pos.getZ())) {
 				return true;
 			}
 		}
@@ -448,6 +448,18 @@ public class LocationStorage extends LocalStorageImpl {
 		return vec.x >= aabb.minX && vec.x <= aabb.maxX ? (vec.y >= aabb.minY && vec.y <= aabb.maxY ? vec.z >= aabb.minZ && vec.z <= aabb.maxZ : false) : false;
 	}
 
+	/**
+	 * Returns whether the position touches the AABB or is fully inside
+	 * @param aabb
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	protected final boolean isVecInsideOrEdge(AxisAlignedBB aabb, double x, double y, double z) {
+		return x >= aabb.minX && x <= aabb.maxX ? (y >= aabb.minY && y <= aabb.maxY ? z >= aabb.minZ && z <= aabb.maxZ : false) : false;
+	}
+
 	/**
 	 * Returns the location name
 	 * @return
@@ -603,12 +615,8 @@ public class LocationStorage extends LocalStorageImpl {
 	 * @return
 	 */
 	public static boolean isLocationGuarded(World world, @Nullable Entity entity, BlockPos pos) {
-		List<LocationStorage> locations = getLocations(world, new Vec3d(pos));
-		for(LocationStorage location : locations) {
-			if(location.getGuard() != null && location.getGuard().isGuarded(world, entity, pos))
-				return true;
-		}
-		return false;
+		BetweenlandsWorldStorage worldStorage = BetweenlandsWorldStorage.forWorld(world);
+		return worldStorage.getLocalStorageHandler().isAnyGuarded(world, entity, pos);
 	}
 
 	@Override
@@ -61,6 +61,27 @@ public class BlockLocationGuard implements ILocationGuard {
 		return false;
 	}
 
+	/**
+	 * Sets one byte of the guard data of the section at the specified position,
+	 * i.e. the guard state of 8 blocks along the x axis. Used to apply synced guard changes
+	 * @param pos Position inside the section
+	 * @param byteIndex Index of the byte in the section data, see {@link GuardChunkSection#getByteIndex(int, int, int)}
+	 * @param data
+	 */
+	public void setSectionData(BlockPos pos, int byteIndex, byte data) {
+		int x = pos.getX();
+		int z = pos.getZ();
+		long id = ChunkPos.asLong(x / 16, z / 16);
+		GuardChunk chunk = this.chunkMap.get(id);
+		if(chunk == null) {
+			if(data == 0) {
+				return;
+			}
+			this.chunkMap.put(id, chunk = new GuardChunk(x / 16, z / 16));
+		}
+		chunk.setSectionData(pos.getY(), byteIndex, data);
+	}
+
 	@Override
 	public boolean isGuarded(World world, @Nullable Entity entity, BlockPos pos) {
 		if(pos.getY() >= 0) {
@@ -141,7 +162,14 @@ public class BlockLocationGuard implements ILocationGuard {
 			this.updateBlockRefCount();
 		}
 
-		protected int getByteIndex(int x, int y, int z) {
+		/**
+		 * Returns the index of the byte that holds the guard bit of the specified block
+		 * @param x Section relative x coordinate
+		 * @param y Section relative y coordinate
+		 * @param z Section relative z coordinate
+		 * @return
+		 */
+		public static int getByteIndex(int x, int y, int z) {
 			return (x >> 3) + (z << 1) + (y << 5);
 		}
 
@@ -157,7 +185,7 @@ public class BlockLocationGuard implements ILocationGuard {
 		}
 
 		public boolean setGuarded(int x, int y, int z, boolean guarded) {
-			int byteIndex = this.getByteIndex(x, y, z);
+			int byteIndex = getByteIndex(x, y, z);
 			byte mask = (byte)(1 << (x & 7));
 			byte data = this.data[byteIndex];
 
@@ -177,11 +205,20 @@ public class BlockLocationGuard implements ILocationGuard {
 		}
 
 		public boolean isGuarded(int x, int y, int z) {
-			int byteIndex = this.getByteIndex(x, y, z);
+			int byteIndex = getByteIndex(x, y, z);
 			byte mask = (byte)(1 << (x & 7));
 			return (this.data[byteIndex] & mask) != 0;
 		}
 
+		public byte getData(int byteIndex) {
+			return this.data[byteIndex];
+		}
+
+		public void setData(int byteIndex, byte data) {
+			this.blockRefCount += Integer.bitCount(data & 0xFF) - Integer.bitCount(this.data[byteIndex] & 0xFF);
+			this.data[byteIndex] = data;
+		}
+
 		public boolean isEmpty() {
 			return this.blockRefCount == 0;
 		}
@@ -237,6 +274,22 @@ public class BlockLocationGuard implements ILocationGuard {
 			return false;
 		}
 
+		public void setSectionData(int y, int byteIndex, byte data) {
+			if(y >= 0 && y < 256) {
+				GuardChunkSection section = this.sections[y >> 4];
+				if(section == null) {
+					if(data == 0) {
+						return;
+					}
+					this.sections[y >> 4] = section = new GuardChunkSection();
+				}
+				section.setData(byteIndex, data);
+				if(section.isEmpty()) {
+					this.sections[y >> 4] = null;
+				}
+			}
+		}
+
 		public boolean isGuarded(int x, int y, int z) {
 			int sectionId = y >> 4;
 			if(sectionId >= 0) {
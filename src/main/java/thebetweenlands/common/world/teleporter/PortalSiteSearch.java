@@ -0,0 +1,370 @@
+package thebetweenlands.common.world.teleporter;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockLeaves;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.border.WorldBorder;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import thebetweenlands.api.storage.StorageID;
+import thebetweenlands.common.TheBetweenlands;
+import thebetweenlands.common.world.gen.biome.decorator.SurfaceType;
+import thebetweenlands.common.world.storage.location.LocationPortal;
+
+/**
+ * Searches a site for a Betweenlands portal tree over multiple ticks, so that the first trip through
+ * a portal doesn't freeze the server. The chunks around the site are generated on the server thread
+ * within a time budget per tick, ring by ring outwards from the center, and the block scans run over snapshots
+ * of these chunks on a separate thread. The found site is cached in the source {@link LocationPortal}
+ * and used by {@link TeleporterBetweenlands} once the entity is teleported.
+ */
+public class PortalSiteSearch {
+	/**
+	 * Same radius as the spiral in {@link TeleporterBetweenlands#generateBetweenlandsTreePortal(net.minecraft.entity.Entity, BlockPos)}
+	 */
+	private static final int SEARCH_RADIUS = 64;
+	private static final int RING_SIZE = 16;
+	private static final int TREE_RADIUS = 8;
+	private static final int TREE_HEIGHT = 10;
+	private static final long PREPARE_TIME_BUDGET_NS = 10000000L;
+	private static final int MAX_SEARCH_TICKS = 400;
+
+	private static final Map<StorageID, PortalSiteSearch> SEARCHES = new HashMap<>();
+
+	private static ExecutorService scanExecutor;
+
+	/**
+	 * Provides the block states for a site check. Returns null if the block state is unknown
+	 */
+	@FunctionalInterface
+	public static interface BlockStateSource {
+		@Nullable
+		IBlockState getBlockState(int x, int y, int z);
+	}
+
+	private static class ChunkSnapshot {
+		private final int[] heights = new int[256];
+		private final int minSection;
+		private final IBlockState[][] sections;
+
+		private ChunkSnapshot(Chunk chunk) {
+			int minHeight = Integer.MAX_VALUE;
+			int maxHeight = Integer.MIN_VALUE;
+			for(int x = 0; x < 16; x++) {
+				for(int z = 0; z < 16; z++) {
+					int height = chunk.getHeightValue(x, z);
+					this.heights[z << 4 | x] = height;
+					minHeight = Math.min(minHeight, height);
+					maxHeight = Math.max(maxHeight, height);
+				}
+			}
+
+			//Includes some margin so that checks of sites in neighbour chunks with slightly different heights can be answered
+			this.minSection = Math.max(0, (minHeight - 4 - 16) >> 4);
+			int maxSection = Math.min(15, (maxHeight + TREE_HEIGHT + 16) >> 4);
+
+			ExtendedBlockStorage[] storages = chunk.getBlockStorageArray();
+			this.sections = new IBlockState[maxSection - this.minSection + 1][];
+			for(int i = 0; i < this.sections.length; i++) {
+				ExtendedBlockStorage storage = storages[this.minSection + i];
+				if(storage != null && !storage.isEmpty()) {
+					IBlockState[] states = new IBlockState[4096];
+					for(int y = 0; y < 16; y++) {
+						for(int z = 0; z < 16; z++) {
+							for(int x = 0; x < 16; x++) {
+								states[y << 8 | z << 4 | x] = storage.get(x, y, z);
+							}
+						}
+					}
+					this.sections[i] = states;
+				}
+			}
+		}
+
+		@Nullable
+		private IBlockState getBlockState(int x, int y, int z) {
+			int section = (y >> 4) - this.minSection;
+			if(y < 0 || section < 0 || section >= this.sections.length) {
+				return null;
+			}
+			IBlockState[] states = this.sections[section];
+			return states != null ? states[(y & 15) << 8 | (z & 15) << 4 | (x & 15)] : Blocks.AIR.getDefaultState();
+		}
+	}
+
+	private final WorldServer world;
+	private final StorageID portalId;
+	private final LocationPortal portal;
+	private final BlockPos center;
+	private final double borderMinX, borderMinZ, borderMaxX, borderMaxZ;
+
+	private final Long2ObjectMap<ChunkSnapshot> snapshots = new Long2ObjectOpenHashMap<>();
+
+	private int ring = 1;
+	private int prepareX, prepareZ;
+	private boolean preparing = false;
+	private CompletableFuture<BlockPos> scan;
+	private int ticks = 0;
+
+	private PortalSiteSearch(LocationPortal portal, WorldServer world, BlockPos center) {
+		this.world = world;
+		this.portal = portal;
+		this.portalId = portal.getID();
+		this.center = center;
+		WorldBorder border = world.getWorldBorder();
+		this.borderMinX = border.minX();
+		this.borderMinZ = border.minZ();
+		this.borderMaxX = border.maxX();
+		this.borderMaxZ = border.maxZ();
+	}
+
+	/**
+	 * Starts a site search for the specified portal if it doesn't have a cached site
+	 * in the target world yet and no search is running
+	 * @param portal The portal the entity is travelling through
+	 * @param toWorld The world the entity is travelling to
+	 * @param start The position of the entity in the target world
+	 */
+	public static void start(LocationPortal portal, WorldServer toWorld, BlockPos start) {
+		if(portal.getCachedSite(toWorld.provider.getDimension()) == null && !SEARCHES.containsKey(portal.getID())) {
+			BlockPos center = TeleporterBetweenlands.findSuitableBetweenlandsPortalColumn(toWorld, start);
+			SEARCHES.put(portal.getID(), new PortalSiteSearch(portal, toWorld, center));
+		}
+	}
+
+	/**
+	 * Returns whether a site search is running for the specified portal
+	 * @param portal
+	 * @return
+	 */
+	public static boolean isSearching(LocationPortal portal) {
+		return SEARCHES.containsKey(portal.getID());
+	}
+
+	/**
+	 * Updates all running searches. Must be called once per server tick
+	 */
+	public static void updateSearches() {
+		Iterator<PortalSiteSearch> it = SEARCHES.values().iterator();
+		while(it.hasNext()) {
+			PortalSiteSearch search = it.next();
+			if(search.update()) {
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Cancels all searches in the specified world
+	 * @param world
+	 */
+	public static void cancelSearches(World world) {
+		Iterator<PortalSiteSearch> it = SEARCHES.values().iterator();
+		while(it.hasNext()) {
+			PortalSiteSearch search = it.next();
+			if(search.world == world || search.portal.getWorldStorage().getWorld() == world) {
+				if(search.scan != null) {
+					search.scan.cancel(false);
+				}
+				it.remove();
+			}
+		}
+	}
+
+	private static synchronized ExecutorService getScanExecutor() {
+		if(scanExecutor == null) {
+			scanExecutor = Executors.newSingleThreadExecutor(r -> {
+				Thread thread = new Thread(r);
+				thread.setName("BL Portal Site Search");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return scanExecutor;
+	}
+
+	/**
+	 * Advances the search
+	 * @return True if the search has finished
+	 */
+	private boolean update() {
+		if(++this.ticks > MAX_SEARCH_TICKS) {
+			if(this.scan != null) {
+				this.scan.cancel(false);
+			}
+			return true;
+		}
+
+		if(this.scan != null) {
+			if(!this.scan.isDone()) {
+				return false;
+			}
+
+			BlockPos site = null;
+			try {
+				site = this.scan.get();
+			} catch(InterruptedException | ExecutionException ex) {
+				TheBetweenlands.logger.error("Failed searching portal site", ex);
+				return true;
+			}
+			this.scan = null;
+
+			//The world may have changed since the snapshot was taken
+			if(site != null && SurfaceType.MIXED_GROUND.matches(this.world.getBlockState(site)) && this.world.isAirBlock(site.up()) &&
+					canGeneratePortalTree((x, y, z) -> this.world.getBlockState(new BlockPos(x, y, z)), site.getX(), site.getY(), site.getZ())) {
+				this.portal.setCachedSite(this.world.provider.getDimension(), site);
+				return true;
+			}
+
+			if(this.ring * RING_SIZE >= SEARCH_RADIUS) {
+				return true;
+			}
+
+			this.ring++;
+			this.preparing = false;
+		}
+
+		int radius = this.ring * RING_SIZE + TREE_RADIUS;
+		int minChunkX = (this.center.getX() - radius) >> 4;
+		int minChunkZ = (this.center.getZ() - radius) >> 4;
+		int maxChunkX = (this.center.getX() + radius) >> 4;
+		int maxChunkZ = (this.center.getZ() + radius) >> 4;
+
+		if(!this.preparing) {
+			this.preparing = true;
+			this.prepareX = minChunkX - 1;
+			this.prepareZ = minChunkZ - 1;
+		}
+
+		//Load or generate the chunks and their neighbours so that they are populated
+		long startTime = System.nanoTime();
+		while(this.prepareX <= maxChunkX + 1) {
+			if(System.nanoTime() - startTime > PREPARE_TIME_BUDGET_NS) {
+				return false;
+			}
+
+			this.world.getChunk(this.prepareX, this.prepareZ);
+
+			if(++this.prepareZ > maxChunkZ + 1) {
+				this.prepareZ = minChunkZ - 1;
+				this.prepareX++;
+			}
+		}
+
+		for(int cx = minChunkX; cx <= maxChunkX; cx++) {
+			for(int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+				long key = ChunkPos.asLong(cx, cz);
+				if(!this.snapshots.containsKey(key)) {
+					this.snapshots.put(key, new ChunkSnapshot(this.world.getChunk(cx, cz)));
+				}
+			}
+		}
+
+		Long2ObjectMap<ChunkSnapshot> snapshots = new Long2ObjectOpenHashMap<>(this.snapshots);
+		//First ring must also include the center
+		int minRing = this.ring == 1 ? -1 : (this.ring - 1) * RING_SIZE;
+		int maxRing = this.ring * RING_SIZE;
+		this.scan = CompletableFuture.supplyAsync(() -> this.scan(snapshots, minRing, maxRing), getScanExecutor());
+
+		return false;
+	}
+
+	/**
+	 * Scans the positions with a distance to the center in the range (minRing, maxRing] in the same
+	 * order as the spiral in {@link TeleporterBetweenlands#spiralGenerate(BlockPos, int, int, int, java.util.function.Function)}
+	 * @param snapshots
+	 * @param minRing
+	 * @param maxRing
+	 * @return
+	 */
+	@Nullable
+	private BlockPos scan(Long2ObjectMap<ChunkSnapshot> snapshots, int minRing, int maxRing) {
+		BlockStateSource source = (x, y, z) -> {
+			ChunkSnapshot snapshot = snapshots.get(ChunkPos.asLong(x >> 4, z >> 4));
+			return snapshot != null ? snapshot.getBlockState(x, y, z) : null;
+		};
+
+		int xo = 0, zo = 0;
+		int[] dir = new int[]{0, -1};
+		for (int i = (int) Math.pow(SEARCH_RADIUS * 2, 2); i > 0; i--) {
+			int distance = Math.max(Math.abs(xo), Math.abs(zo));
+
+			if (distance > maxRing) {
+				break;
+			}
+
+			if (distance > minRing && -SEARCH_RADIUS < xo && xo <= SEARCH_RADIUS && -SEARCH_RADIUS < zo && zo <= SEARCH_RADIUS) {
+				int x = this.center.getX() + xo;
+				int z = this.center.getZ() + zo;
+
+				if(x > this.borderMinX + 16 && z > this.borderMinZ + 16 && x < this.borderMaxX - 16 && z < this.borderMaxZ - 16) {
+					ChunkSnapshot snapshot = snapshots.get(ChunkPos.asLong(x >> 4, z >> 4));
+
+					if(snapshot != null) {
+						int y = snapshot.heights[(z & 15) << 4 | (x & 15)] - 1;
+
+						IBlockState ground = snapshot.getBlockState(x, y, z);
+						IBlockState above = snapshot.getBlockState(x, y + 1, z);
+
+						if(ground != null && above != null && SurfaceType.MIXED_GROUND.matches(ground) && above.getMaterial() == Material.AIR && canGeneratePortalTree(source, x, y, z)) {
+							return new BlockPos(x, y, z);
+						}
+					}
+				}
+			}
+
+			if (xo == zo || (xo < 0 && xo == -zo) || (xo > 0 && xo == 1 - zo)){
+				int d0 = dir[0];
+				dir[0] = -dir[1];
+				dir[1] = d0;
+			}
+
+			xo += dir[0];
+			zo += dir[1];
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns whether a portal tree can generate at the specified position.
+	 * Unknown block states are treated as obstructions
+	 * @param source
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @return
+	 */
+	public static boolean canGeneratePortalTree(BlockStateSource source, int x, int y, int z) {
+		for (int xo = -TREE_RADIUS; xo <= TREE_RADIUS; xo++) {
+			for (int zo = -TREE_RADIUS; zo <= TREE_RADIUS; zo++) {
+				if(Math.sqrt(xo*xo + zo*zo) <= TREE_RADIUS) {
+					for (int yo = -3; yo < TREE_HEIGHT; yo++) {
+						IBlockState blockState = source.getBlockState(x + xo, y + yo, z + zo);
+						if (blockState == null || (yo >= 2 && (blockState.getMaterial().isLiquid() || blockState.isNormalCube())) || blockState.getBlock() instanceof BlockLeaves) {
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+}
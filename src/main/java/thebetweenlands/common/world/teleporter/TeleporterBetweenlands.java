@@ -255,6 +255,20 @@ public final class TeleporterBetweenlands extends Teleporter {
 	 * @return
 	 */
 	protected BlockPos findSuitableBetweenlandsPortalPos(BlockPos start) {
+		BlockPos selectedPos = findSuitableBetweenlandsPortalColumn(this.toWorld, start);
+
+		Chunk chunk = this.getDecoratedChunk(this.toWorld, selectedPos); //Force chunk to generate
+		int height = chunk.getHeight(selectedPos);
+		return new BlockPos(selectedPos.getX(), height, selectedPos.getZ());
+	}
+
+	/**
+	 * Finds a column in a suitable biome for a portal to generate nearby. Does not generate any chunks
+	 * @param world
+	 * @param start
+	 * @return
+	 */
+	static BlockPos findSuitableBetweenlandsPortalColumn(World world, BlockPos start) {
 		List<Biome> validBiomes = new ArrayList<Biome>();
 
 		validBiomes.add(BiomeRegistry.SWAMPLANDS);
@@ -270,9 +284,9 @@ public final class TeleporterBetweenlands extends Teleporter {
 		int searchWidth = searchEndX - searchStartX + 1;
 		int searchDepth = searchEndZ - searchStartZ + 1;
 
-		WorldBorder border = this.toWorld.getWorldBorder();
+		WorldBorder border = world.getWorldBorder();
 		
-		Biome[] biomes = this.toWorld.getBiomeProvider().getBiomesForGeneration(new Biome[0], searchStartX, searchStartZ, searchWidth, searchDepth);
+		Biome[] biomes = world.getBiomeProvider().getBiomesForGeneration(new Biome[0], searchStartX, searchStartZ, searchWidth, searchDepth);
 
 		BlockPos suitablePos = null;
 
@@ -286,22 +300,16 @@ public final class TeleporterBetweenlands extends Teleporter {
 
 			if (validBiomes.contains(biome) &&
 					bx > border.minX() + 16 && bz > border.minZ() + 16 && bx < border.maxX() - 16 && bz < border.maxZ() - 16 &&
-					(suitablePos == null || this.toWorld.rand.nextInt(counter + 1) == 0)) {
+					(suitablePos == null || world.rand.nextInt(counter + 1) == 0)) {
 				suitablePos = new BlockPos(bx, 0, bz);
 				++counter;
 			}
 		}
 		
-		BlockPos selectedPos;
 		if(suitablePos != null) {
-			selectedPos = suitablePos;
-		} else {
-			selectedPos = start;
+			return suitablePos;
 		}
-
-		Chunk chunk = this.getDecoratedChunk(this.toWorld, selectedPos); //Force chunk to generate
-		int height = chunk.getHeight(selectedPos);
-		return new BlockPos(selectedPos.getX(), height, selectedPos.getZ());
+		return start;
 	}
 
 	/**
@@ -435,6 +443,9 @@ public final class TeleporterBetweenlands extends Teleporter {
 			boolean isToBL = this.toWorld.provider.getDimension() == BetweenlandsConfig.WORLD_AND_DIMENSION.dimensionId;
 			BlockPos center;
 			if(isToBL) {
+				if(this.generateBetweenlandsTreePortalAtCachedSite(entity)) {
+					return true;
+				}
 				center = this.findSuitableBetweenlandsPortalPos(entity.getPosition());
 			} else {
 				center = this.findSuitableNonBLPortalPos(entity.getPosition());
@@ -471,6 +482,34 @@ public final class TeleporterBetweenlands extends Teleporter {
 		});
 	}
 
+	/**
+	 * Generates the portal tree at the site that was found in advance by a {@link PortalSiteSearch}, if available
+	 * @param entity
+	 * @return
+	 */
+	protected boolean generateBetweenlandsTreePortalAtCachedSite(Entity entity) {
+		LocationPortal portal = this.getPortalLocation();
+
+		if(portal != null) {
+			BlockPos site = portal.getCachedSite(this.toWorld.provider.getDimension());
+
+			if(site != null) {
+				portal.setCachedSite(this.toWorld.provider.getDimension(), null);
+
+				Chunk chunk = this.getDecoratedChunk(this.toWorld, site); //Force chunk to generate
+
+				if(chunk.getHeight(site) - 1 == site.getY() && SurfaceType.MIXED_GROUND.matches(this.toWorld.getBlockState(site)) && this.toWorld.isAirBlock(site.up()) && this.canGeneratePortalTree(this.toWorld, site)) {
+					if(new WorldGenWeedwoodPortalTree().generate(this.toWorld, this.toWorld.rand, site)) {
+						this.lonkPortalsTogetherAndTeleport(entity, site, 0.5D, 2.0D, 0.5D);
+						return true;
+					}
+				}
+			}
+		}
+
+		return false;
+	}
+
 	protected boolean generateTreePortal(Entity entity, BlockPos center) {
 		WorldGenWeedwoodPortalTree genTree = new WorldGenWeedwoodPortalTree();
 
@@ -630,23 +669,8 @@ public final class TeleporterBetweenlands extends Teleporter {
 	 * @return
 	 */
 	protected boolean canGeneratePortalTree(World world, BlockPos pos){
-		int height = 10;
-		int maxRadius = 8;
 		MutableBlockPos checkPos = new MutableBlockPos();
-		for (int xo = -maxRadius; xo <= maxRadius; xo++) {
-			for (int zo = -maxRadius; zo <= maxRadius; zo++) {
-				if(Math.sqrt(xo*xo + zo*zo) <= maxRadius) {
-					for (int yo = -3; yo < height; yo++) {
-						checkPos.setPos(pos.getX() + xo, pos.getY() + yo, pos.getZ() + zo);
-						IBlockState blockState = world.getBlockState(checkPos);
-						if ((yo >= 2 && (blockState.getMaterial().isLiquid() || blockState.isNormalCube())) || blockState.getBlock() instanceof BlockLeaves) {
-							return false;
-						}
-					}
-				}
-			}
-		}
-		return true;
+		return PortalSiteSearch.canGeneratePortalTree((x, y, z) -> world.getBlockState(checkPos.setPos(x, y, z)), pos.getX(), pos.getY(), pos.getZ());
 	}
 
 	/**
@@ -2050,6 +2050,107 @@ public class OpenSimplexNoise {
         return value / NORM_CONSTANT_4D;
     }
 
+    // Batch evaluation over regular grids, in the same memory layout as NoiseGeneratorOctaves#generateNoiseOctaves.
+    // The grid is given by the coordinates along each axis, so that they are only computed once per axis
+    // instead of once per sample, and the results are identical to calling eval for each sample.
+
+    /**
+     * Returns the coordinates (offset + i * step) * scale of a grid axis
+     * @param offset
+     * @param size
+     * @param step
+     * @param scale
+     * @return
+     */
+    public static double[] getGridCoordinates(int offset, int size, int step, double scale) {
+        double[] coords = new double[size];
+        for (int i = 0; i < size; i++)
+            coords[i] = (offset + i * step) * scale;
+        return coords;
+    }
+
+    /**
+     * Fills the noise array with the 2D noise at all grid points. The value of (xs[x], ys[y])
+     * is stored at index x * ys.length + y
+     * @param noiseArray Array to store the noise in. If null or too small a new array is created
+     * @param xs
+     * @param ys
+     * @return
+     */
+    public double[] eval(double[] noiseArray, double[] xs, double[] ys) {
+        if (noiseArray == null || noiseArray.length < xs.length * ys.length)
+            noiseArray = new double[xs.length * ys.length];
+        int index = 0;
+        for (int x = 0; x < xs.length; x++) {
+            double xc = xs[x];
+            for (int y = 0; y < ys.length; y++)
+                noiseArray[index++] = eval(xc, ys[y]);
+        }
+        return noiseArray;
+    }
+
+    /**
+     * Fills the noise array with the 3D noise at all grid points. The value of (xs[x], ys[y], zs[z])
+     * is stored at index (x * zs.length + z) * ys.length + y
+     * @param noiseArray Array to store the noise in. If null or too small a new array is created
+     * @param xs
+     * @param ys
+     * @param zs
+     * @return
+     */
+    public double[] eval(double[] noiseArray, double[] xs, double[] ys, double[] zs) {
+        if (noiseArray == null || noiseArray.length < xs.length * ys.length * zs.length)
+            noiseArray = new double[xs.length * ys.length * zs.length];
+        int index = 0;
+        for (int x = 0; x < xs.length; x++) {
+            double xc = xs[x];
+            for (int z = 0; z < zs.length; z++) {
+                double zc = zs[z];
+                for (int y = 0; y < ys.length; y++)
+                    noiseArray[index++] = eval(xc, ys[y], zc);
+            }
+        }
+        return noiseArray;
+    }
+
+    /**
+     * Adds the 2D noise at all grid points multiplied by the amplitude to the noise array,
+     * see {@link #eval(double[], double[], double[])}
+     * @param noiseArray
+     * @param xs
+     * @param ys
+     * @param amplitude
+     */
+    public void add(double[] noiseArray, double[] xs, double[] ys, double amplitude) {
+        int index = 0;
+        for (int x = 0; x < xs.length; x++) {
+            double xc = xs[x];
+            for (int y = 0; y < ys.length; y++)
+                noiseArray[index++] += eval(xc, ys[y]) * amplitude;
+        }
+    }
+
+    /**
+     * Adds the 3D noise at all grid points multiplied by the amplitude to the noise array,
+     * see {@link #eval(double[], double[], double[], double[])}
+     * @param noiseArray
+     * @param xs
+     * @param ys
+     * @param zs
+     * @param amplitude
+     */
+    public void add(double[] noiseArray, double[] xs, double[] ys, double[] zs, double amplitude) {
+        int index = 0;
+        for (int x = 0; x < xs.length; x++) {
+            double xc = xs[x];
+            for (int z = 0; z < zs.length; z++) {
+                double zc = zs[z];
+                for (int y = 0; y < ys.length; y++)
+                    noiseArray[index++] += eval(xc, ys[y], zc) * amplitude;
+            }
+        }
+    }
+
     private double extrapolate(int xsb, int ysb, double dx, double dy) {
         int index = perm[(perm[xsb & 0xFF] + ysb) & 0xFF] & 0x0E;
         return gradients2D[index] * dx + gradients2D[index + 1] * dy;